@@ -0,0 +1,92 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import graph.CsrGraph;
+import graph.Graph;
+import graph.GraphView;
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import metrics.DetailedMetrics;
+import metrics.Metrics;
+import metrics.NoOpMetrics;
+
+/**
+ * Deterministic random graphs shared by the benchmarks.
+ */
+final class GraphFixtures {
+    private static final long SEED = 42;
+    
+    private GraphFixtures() {}
+    
+    /**
+     * Random digraph with the given average out-degree; dense enough inputs form a giant SCC.
+     */
+    static GraphView digraph(int n, int degree, String representation) {
+        Random random = new Random(SEED);
+        Graph list = new Graph(n, true);
+        CsrGraph.Builder csr = new CsrGraph.Builder(n, true, n * degree);
+        for (int i = 0; i < n * degree; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            int w = 1 + random.nextInt(100);
+            list.addEdge(u, v, w);
+            csr.addEdge(u, v, w);
+        }
+        return "csr".equals(representation) ? csr.build() : list;
+    }
+    
+    /**
+     * Random DAG: every edge goes from a lower to a higher vertex id.
+     */
+    static GraphView dag(int n, int degree, String representation) {
+        Random random = new Random(SEED);
+        Graph list = new Graph(n, true);
+        CsrGraph.Builder csr = new CsrGraph.Builder(n, true, n * degree);
+        for (int i = 0; i < n * degree; i++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(n - u - 1);
+            int w = 1 + random.nextInt(100);
+            list.addEdge(u, v, w);
+            csr.addEdge(u, v, w);
+        }
+        return "csr".equals(representation) ? csr.build() : list;
+    }
+    
+    /**
+     * Writes a random digraph in the data/*.json format to a temporary file.
+     */
+    static File writeJson(int n, int degree) throws IOException {
+        File file = File.createTempFile("bench-graph-", ".json");
+        file.deleteOnExit();
+        
+        Random random = new Random(SEED);
+        try (JsonGenerator json = new JsonFactory().createGenerator(file, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeBooleanField("directed", true);
+            json.writeNumberField("n", n);
+            json.writeArrayFieldStart("edges");
+            for (int i = 0; i < n * degree; i++) {
+                json.writeStartObject();
+                json.writeNumberField("u", random.nextInt(n));
+                json.writeNumberField("v", random.nextInt(n));
+                json.writeNumberField("w", 1 + random.nextInt(100));
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+            json.writeNumberField("source", 0);
+            json.writeStringField("weight_model", "edge");
+            json.writeEndObject();
+        }
+        return file;
+    }
+    
+    /**
+     * "none" for production-like runs, "detailed" to measure the instrumentation cost.
+     */
+    static Metrics metrics(String kind) {
+        return "detailed".equals(kind) ? new DetailedMetrics() : NoOpMetrics.INSTANCE;
+    }
+}
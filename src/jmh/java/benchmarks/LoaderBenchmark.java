@@ -0,0 +1,56 @@
+package benchmarks;
+
+import data.GraphDataLoader;
+import data.LoadedGraph;
+import graph.Graph;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Object-model JSON loading against the streaming loader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoaderBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int n;
+    
+    @Param({"2", "8"})
+    int degree;
+    
+    private GraphDataLoader loader;
+    private String path;
+    
+    @Setup
+    public void setUp() throws IOException {
+        loader = new GraphDataLoader();
+        File file = GraphFixtures.writeJson(n, degree);
+        path = file.getPath();
+    }
+    
+    @Benchmark
+    public Graph objectModel() throws IOException {
+        return loader.loadGraph(path);
+    }
+    
+    @Benchmark
+    public LoadedGraph streaming() throws IOException {
+        return loader.streamGraph(path);
+    }
+}
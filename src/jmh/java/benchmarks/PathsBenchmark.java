@@ -0,0 +1,83 @@
+package benchmarks;
+
+import graph.GraphView;
+import graph.dagsp.DagPlan;
+import graph.dagsp.ShortestPaths;
+import java.util.concurrent.TimeUnit;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single-source DAG paths and the critical path, from scratch and through a reused {@link DagPlan}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PathsBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int n;
+    
+    @Param({"2", "8"})
+    int degree;
+    
+    @Param({"list", "csr"})
+    String representation;
+    
+    @Param({"none", "detailed"})
+    String metrics;
+    
+    private GraphView dag;
+    private Metrics counters;
+    private DagPlan plan;
+    private int[] dist;
+    private int[] pred;
+    
+    @Setup
+    public void setUp() {
+        counters = GraphFixtures.metrics(metrics);
+        dag = GraphFixtures.dag(n, degree, representation);
+        plan = new DagPlan(dag, counters);
+        dist = new int[n];
+        pred = new int[n];
+    }
+    
+    @Benchmark
+    public ShortestPaths.PathResult shortestPaths() {
+        return new ShortestPaths(dag, counters).shortestPaths(0);
+    }
+    
+    @Benchmark
+    public ShortestPaths.PathResult longestPaths() {
+        return new ShortestPaths(dag, counters).longestPaths(0);
+    }
+    
+    @Benchmark
+    public ShortestPaths.CriticalPathResult criticalPath() {
+        return new ShortestPaths(dag, counters).findCriticalPath();
+    }
+    
+    @Benchmark
+    public int[] planShortestPaths() {
+        plan.shortestPaths(0, dist, pred);
+        return dist;
+    }
+    
+    @Benchmark
+    public int[] planLongestPaths() {
+        plan.longestPaths(0, dist, pred);
+        return dist;
+    }
+}
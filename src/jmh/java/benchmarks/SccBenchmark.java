@@ -0,0 +1,82 @@
+package benchmarks;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.GraphView;
+import graph.scc.Aggregation;
+import graph.scc.ParallelSCC;
+import graph.scc.SccResult;
+import graph.scc.TarjanSCC;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * SCC decomposition and condensation on random digraphs.
+ * Degree 1 leaves many small components, degree 4 produces a giant SCC.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SccBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int n;
+    
+    @Param({"1", "4"})
+    int degree;
+    
+    @Param({"list", "csr"})
+    String representation;
+    
+    @Param({"none", "detailed"})
+    String metrics;
+    
+    private GraphView graph;
+    private Metrics counters;
+    
+    @Setup
+    public void setUp() {
+        counters = GraphFixtures.metrics(metrics);
+        graph = GraphFixtures.digraph(n, degree, representation);
+    }
+    
+    @Benchmark
+    public List<List<Integer>> findSCCs() {
+        return new TarjanSCC(graph, counters).findSCCs();
+    }
+    
+    @Benchmark
+    public SccResult findComponents() {
+        return new TarjanSCC(graph, counters).findComponents();
+    }
+    
+    @Benchmark
+    public SccResult parallel() {
+        return new ParallelSCC(graph, ForkJoinPool.commonPool(), counters).findComponents();
+    }
+    
+    @Benchmark
+    public Graph buildCondensationGraph() {
+        return new TarjanSCC(graph, counters).buildCondensationGraph();
+    }
+    
+    @Benchmark
+    public CsrGraph buildCondensation() {
+        return new TarjanSCC(graph, counters).buildCondensation(Aggregation.FIRST, Aggregation.SUM);
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import graph.GraphView;
+import graph.topo.ParallelTopologicalSort;
+import graph.topo.TopologicalSort;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import metrics.Metrics;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Kahn and DFS topological sorts on random DAGs.
+ * DFS sort is recursive, so sizes stay where the default thread stack copes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xss64m")
+public class TopoBenchmark {
+    @Param({"1000", "10000", "100000"})
+    int n;
+    
+    @Param({"2", "8"})
+    int degree;
+    
+    @Param({"list", "csr"})
+    String representation;
+    
+    @Param({"none", "detailed"})
+    String metrics;
+    
+    private GraphView dag;
+    private Metrics counters;
+    
+    @Setup
+    public void setUp() {
+        counters = GraphFixtures.metrics(metrics);
+        dag = GraphFixtures.dag(n, degree, representation);
+    }
+    
+    @Benchmark
+    public List<Integer> kahnSort() {
+        return new TopologicalSort(dag, counters).kahnSort();
+    }
+    
+    @Benchmark
+    public List<Integer> dfsSort() {
+        return new TopologicalSort(dag, counters).dfsSort();
+    }
+    
+    @Benchmark
+    public ParallelTopologicalSort.LevelResult parallelKahnSort() {
+        return new ParallelTopologicalSort(dag, ForkJoinPool.commonPool(), counters).sort();
+    }
+}
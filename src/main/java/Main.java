@@ -1,17 +1,48 @@
+import batch.BatchRunner;
+import cache.GraphWatcher;
+import data.BinaryGraphConverter;
 import data.GraphDataLoader;
-import data.GraphData;
-import graph.Graph;
+import data.LoadedGraph;
+import graph.CsrGraph;
+import graph.GraphView;
+import graph.WeightModel;
+import graph.WeightType;
+import graph.scc.Aggregation;
+import graph.scc.CondensationBuilder;
+import graph.scc.SccResult;
 import graph.scc.TarjanSCC;
+import graph.scope.Scope;
+import graph.scope.ScopedAnalysis;
 import graph.topo.TopologicalSort;
+import graph.dagsp.DoubleShortestPaths;
+import graph.dagsp.LongShortestPaths;
+import graph.dagsp.PathTree;
 import graph.dagsp.ShortestPaths;
+import graph.dagsp.TopKPaths;
+import metrics.MetricsImpl;
+import server.QueryServer;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntFunction;
 
 public class Main {
+    private static final int TOP_CHAINS = 3;
     
     public static void main(String[] args) {
-        if (args.length > 0) {
+        if (args.length > 0 && args[0].equals("--convert")) {
+            BinaryGraphConverter.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals("--batch")) {
+            BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals("--watch")) {
+            GraphWatcher.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0 && args[0].equals("--serve")) {
+            QueryServer.main(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 1 && args[0].equals("--scoped")) {
+            processScoped(Arrays.copyOfRange(args, 1, args.length));
+        } else if (args.length > 0) {
             processGraphFile(args[0]);
         } else {
             processAllDatasets();
@@ -45,36 +76,39 @@ public class Main {
         System.out.println("File: " + filePath);
         
         try {
-            GraphDataLoader loader = new GraphDataLoader();
-            GraphData graphData = loader.loadGraphData(filePath);
-            Graph graph = loader.toGraph(graphData);
+            LoadedGraph loaded = new GraphDataLoader().open(Path.of(filePath));
+            GraphView graph = loaded.getGraph();
             
-            // Verify weight model
-            String weightModel = graphData.getWeightModel();
-            if (weightModel != null && !weightModel.equals("edge")) {
-                System.out.println("Warning: weight model is " + weightModel);
+            WeightModel weightModel;
+            try {
+                weightModel = WeightModel.fromName(loaded.getWeightModel());
+            } catch (IllegalArgumentException e) {
+                System.out.println("Warning: " + e.getMessage() + ", using edge weights");
+                weightModel = WeightModel.EDGE;
             }
             
             System.out.println("Vertices: " + graph.getVertexCount() + ", Edges: " + graph.getEdgeCount());
+            System.out.println("Weight model: " + weightModel.getName());
+            if (loaded.getWeightType() != WeightType.INT) {
+                System.out.println("Weight type: " + loaded.getWeightType().name().toLowerCase());
+            }
             
             // SCC detection
             System.out.println("\n1. SCC Detection:");
             TarjanSCC tarjanSCC = new TarjanSCC(graph);
-            tarjanSCC.findSCCs();
-            List<List<Integer>> sccs = tarjanSCC.getSCCs();
-            System.out.println("Total SCCs: " + sccs.size());
+            SccResult sccs = tarjanSCC.findComponents();
+            System.out.println("Total SCCs: " + sccs.componentCount);
             
-            for (int i = 0; i < sccs.size(); i++) {
-                List<Integer> scc = sccs.get(i);
-                System.out.println("  SCC " + i + " (size " + scc.size() + "): " + scc);
+            for (int i = 0; i < sccs.componentCount; i++) {
+                System.out.println("  SCC " + i + " (size " + sccs.getComponentSize(i) + "): " + sccs.getMembers(i));
             }
             
             System.out.println("Operations: " + tarjanSCC.getMetrics().getOperationsCount());
             System.out.println("Time: " + String.format("%.3f ms", tarjanSCC.getMetrics().getExecutionTimeMs()));
             
-            // Condensation graph
-            Graph condensation = tarjanSCC.buildCondensationGraph();
-            System.out.println("\nCondensation: " + condensation.getVertexCount() + " nodes, " + 
+            // Condensation graph; node weights (durations) of a component add up
+            CsrGraph condensation = tarjanSCC.buildCondensation(Aggregation.FIRST, Aggregation.SUM);
+            System.out.println("\nCondensation: " + condensation.getVertexCount() + " nodes, " +
                              condensation.getEdgeCount() + " edges");
             
             // Topological sort
@@ -90,31 +124,26 @@ public class Main {
                 System.out.println("\nTask order:");
                 for (int i = 0; i < order.size(); i++) {
                     int sccIndex = order.get(i);
-                    List<Integer> scc = sccs.get(sccIndex);
-                    System.out.println("  " + (i+1) + ". SCC " + sccIndex + ": " + scc);
+                    System.out.println("  " + (i+1) + ". SCC " + sccIndex + ": " + sccs.getMembers(sccIndex));
                 }
             } else {
                 System.out.println("Graph contains cycles");
             }
             
             // DAG shortest/longest paths
-            if (condensation.getVertexCount() > 0) {
+            if (condensation.getVertexCount() > 0 && loaded.getWeightType() != WeightType.INT) {
+                int source = sourceComponent(sccs, loaded.getSource());
+                printWidePaths(new CondensationBuilder(graph, sccs), loaded.getWeightType(), weightModel, source);
+            } else if (condensation.getVertexCount() > 0) {
                 System.out.println("\n3. DAG Paths:");
-                ShortestPaths sp = new ShortestPaths(condensation);
+                ShortestPaths sp = new ShortestPaths(condensation, weightModel);
                 
-                int source = graphData.getSource() != null ? 
-                           findSccContaining(sccs, graphData.getSource()) : 0;
+                int source = sourceComponent(sccs, loaded.getSource());
                 
                 // Shortest paths
                 ShortestPaths.PathResult shortestResult = sp.shortestPaths(source);
                 System.out.println("\nShortest paths from SCC " + source + ":");
-                for (int v = 0; v < shortestResult.distances.length; v++) {
-                    if (shortestResult.distances[v] != Integer.MAX_VALUE / 2) {
-                        List<Integer> path = sp.reconstructPath(shortestResult.predecessors, source, v);
-                        System.out.println("  To SCC " + v + ": distance=" + shortestResult.distances[v] + 
-                                         ", path=" + path);
-                    }
-                }
+                printPaths(new PathTree(shortestResult.predecessors, source), v -> String.valueOf(shortestResult.distances[v]));
                 System.out.println("Operations: " + sp.getMetrics().getOperationsCount());
                 System.out.println("Time: " + String.format("%.3f ms", sp.getMetrics().getExecutionTimeMs()));
                 
@@ -122,13 +151,7 @@ public class Main {
                 sp.getMetrics().reset();
                 ShortestPaths.PathResult longestResult = sp.longestPaths(source);
                 System.out.println("\nLongest paths from SCC " + source + ":");
-                for (int v = 0; v < longestResult.distances.length; v++) {
-                    if (longestResult.distances[v] != -Integer.MAX_VALUE / 2) {
-                        List<Integer> path = sp.reconstructPath(longestResult.predecessors, source, v);
-                        System.out.println("  To SCC " + v + ": distance=" + longestResult.distances[v] + 
-                                         ", path=" + path);
-                    }
-                }
+                printPaths(new PathTree(longestResult.predecessors, source), v -> String.valueOf(longestResult.distances[v]));
                 System.out.println("Operations: " + sp.getMetrics().getOperationsCount());
                 System.out.println("Time: " + String.format("%.3f ms", sp.getMetrics().getExecutionTimeMs()));
                 
@@ -138,6 +161,21 @@ public class Main {
                 System.out.println("\nCritical path:");
                 System.out.println("  Path: " + criticalPath.path);
                 System.out.println("  Length: " + criticalPath.length);
+                System.out.println("  Earliest start: " + Arrays.toString(criticalPath.earliestStart));
+                System.out.println("  Latest start:   " + Arrays.toString(criticalPath.latestStart));
+                System.out.println("  Slack:          " + Arrays.toString(criticalPath.slack));
+                System.out.println("Operations: " + sp.getMetrics().getOperationsCount());
+                System.out.println("Time: " + String.format("%.3f ms", sp.getMetrics().getExecutionTimeMs()));
+                
+                // Most critical chains
+                TopKPaths topK = new TopKPaths(condensation, TOP_CHAINS, weightModel, new MetricsImpl());
+                TopKPaths.Result chains = topK.findLongestPaths();
+                System.out.println("\nTop " + chains.size() + " chains:");
+                for (int i = 0; i < chains.size(); i++) {
+                    System.out.println("  " + (i+1) + ". length=" + chains.lengths[i] + ", path=" + chains.getPath(i));
+                }
+                System.out.println("Operations: " + topK.getMetrics().getOperationsCount());
+                System.out.println("Time: " + String.format("%.3f ms", topK.getMetrics().getExecutionTimeMs()));
             }
             
         } catch (IOException e) {
@@ -145,15 +183,126 @@ public class Main {
         }
     }
     
-    private static int findSccContaining(List<List<Integer>> sccs, int vertex) {
-        for (int i = 0; i < sccs.size(); i++) {
-            if (sccs.get(i).contains(vertex)) {
-                return i;
+    /**
+     * Component of the file's source vertex; like the original lookup, falls back to
+     * component 0 if there is no source or it is not a vertex of the graph.
+     */
+    private static int sourceComponent(SccResult sccs, Integer source) {
+        if (source == null) {
+            return 0;
+        }
+        if (source < 0 || source >= sccs.componentOf.length) {
+            System.out.println("\nSource " + source + " is not a vertex, using SCC 0");
+            return 0;
+        }
+        return sccs.getComponent(source);
+    }
+    
+    /**
+     * Paths section for long and double weights, computed on a condensation that keeps the wide weights.
+     */
+    private static void printWidePaths(CondensationBuilder builder, WeightType type, WeightModel weightModel, int source) {
+        System.out.println("\n3. DAG Paths (" + type.name().toLowerCase() + " weights):");
+        if (type == WeightType.LONG) {
+            LongShortestPaths sp = new LongShortestPaths(builder.buildLong(Aggregation.FIRST, Aggregation.SUM),
+                    weightModel, new MetricsImpl());
+            LongShortestPaths.PathResult shortest = sp.shortestPaths(source);
+            LongShortestPaths.PathResult longest = sp.longestPaths(source);
+            System.out.println("\nShortest paths from SCC " + source + ":");
+            printPaths(new PathTree(shortest.predecessors, source), v -> String.valueOf(shortest.distances[v]));
+            System.out.println("\nLongest paths from SCC " + source + ":");
+            printPaths(new PathTree(longest.predecessors, source), v -> String.valueOf(longest.distances[v]));
+            LongShortestPaths.CriticalPathResult criticalPath = sp.findCriticalPath();
+            System.out.println("\nCritical path:");
+            System.out.println("  Path: " + criticalPath.path);
+            System.out.println("  Length: " + criticalPath.length);
+            System.out.println("  Slack:          " + Arrays.toString(criticalPath.slack));
+        } else {
+            DoubleShortestPaths sp = new DoubleShortestPaths(builder.buildDouble(Aggregation.FIRST, Aggregation.SUM),
+                    weightModel, new MetricsImpl());
+            DoubleShortestPaths.PathResult shortest = sp.shortestPaths(source);
+            DoubleShortestPaths.PathResult longest = sp.longestPaths(source);
+            System.out.println("\nShortest paths from SCC " + source + ":");
+            printPaths(new PathTree(shortest.predecessors, source), v -> String.valueOf(shortest.distances[v]));
+            System.out.println("\nLongest paths from SCC " + source + ":");
+            printPaths(new PathTree(longest.predecessors, source), v -> String.valueOf(longest.distances[v]));
+            DoubleShortestPaths.CriticalPathResult criticalPath = sp.findCriticalPath();
+            System.out.println("\nCritical path:");
+            System.out.println("  Path: " + criticalPath.path);
+            System.out.println("  Length: " + criticalPath.length);
+            System.out.println("  Slack:          " + Arrays.toString(criticalPath.slack));
+        }
+    }
+    
+    /**
+     * Prints one line per reached component in tree preorder, so paths that share a
+     * prefix are listed together. Each line names only the tree parent and the depth;
+     * a full path follows the "via" links back to the source. Repeating whole paths
+     * would make the output grow with V times the depth of the tree.
+     */
+    private static void printPaths(PathTree tree, IntFunction<String> distance) {
+        for (int i = 0; i < tree.size(); i++) {
+            int v = tree.getPreorder(i);
+            String via = v == tree.getSource() ? "source" : "via SCC " + tree.getParent(v);
+            System.out.println("  To SCC " + v + ": distance=" + distance.apply(v) + ", " + via + ", depth " + tree.getDepth(v));
+        }
+    }
+    
+    /**
+     * Analyses only the part of the graph reachable from the source, or only the vertices
+     * between source and target when a target is given.
+     * Arguments: FILE [SOURCE [TARGET]]; SOURCE defaults to the file's source field.
+     */
+    private static void processScoped(String[] args) {
+        System.out.println("File: " + args[0]);
+        
+        try {
+            LoadedGraph loaded = new GraphDataLoader().open(Path.of(args[0]));
+            GraphView graph = loaded.getGraph();
+            if (loaded.getWeightType() != WeightType.INT) {
+                System.out.println("Warning: " + loaded.getWeightType().name().toLowerCase() + " weights are clamped to int");
+            }
+            WeightModel weightModel = WeightModel.fromName(loaded.getWeightModel());
+            int source = args.length > 1 ? Integer.parseInt(args[1])
+                    : loaded.getSource() != null ? loaded.getSource() : 0;
+            
+            ScopedAnalysis analysis = new ScopedAnalysis(graph);
+            Scope scope;
+            if (args.length > 2) {
+                int target = Integer.parseInt(args[2]);
+                scope = analysis.between(source, target);
+                System.out.println("Scope: " + scope.size() + " of " + graph.getVertexCount() +
+                                 " vertices between " + source + " and " + target);
+                if (scope.isEmpty()) {
+                    System.out.println("Target " + target + " is not reachable from " + source);
+                    return;
+                }
+            } else {
+                scope = analysis.fromSource(source);
+                System.out.println("Scope: " + scope.size() + " of " + graph.getVertexCount() +
+                                 " vertices reachable from " + source);
+            }
+            System.out.println("Operations: " + analysis.getMetrics().getOperationsCount());
+            System.out.println("Time: " + String.format("%.3f ms", analysis.getMetrics().getExecutionTimeMs()));
+            
+            CsrGraph condensation = scope.getCondensation();
+            System.out.println("\nSCCs in scope: " + condensation.getVertexCount());
+            for (int c = 0; c < condensation.getVertexCount(); c++) {
+                System.out.println("  SCC " + c + ": " + scope.getMembers(c));
+            }
+            
+            int from = scope.getSourceComponent();
+            ShortestPaths.PathResult shortest = scope.shortestPaths(weightModel);
+            ShortestPaths.PathResult longest = scope.longestPaths(weightModel);
+            System.out.println("\nPaths from SCC " + from + ":");
+            for (int c = 0; c < condensation.getVertexCount(); c++) {
+                System.out.println("  To SCC " + c + ": shortest=" + shortest.distances[c] +
+                                 ", longest=" + longest.distances[c]);
             }
+        } catch (IOException e) {
+            System.out.println("Error loading graph: " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            System.out.println("Error: " + e.getMessage());
         }
-        return 0;
     }
 }
-
-
-
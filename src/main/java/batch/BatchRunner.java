@@ -0,0 +1,387 @@
+package batch;
+
+import cache.CachedAnalysis;
+import cache.ResultCache;
+import data.BinaryGraphFormat;
+import data.GraphDataLoader;
+import data.LoadedGraph;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Analyzes many graph files as a three-stage pipeline: loader threads parse or map
+ * files, analysis workers run {@link GraphAnalysis}, and a single reporter writes one
+ * summary per graph. Stages are connected by bounded queues, so at most about
+ * {@code 2 * queueCapacity + loaders + workers} graphs are in memory at once and a slow
+ * stage throttles the ones before it. Files that fail to load or analyze are reported
+ * in the result instead of stopping the batch. With a {@link ResultCache}, graphs whose
+ * content was analyzed before skip the SCC, condensation, topological sort and
+ * critical path stages.
+ */
+public class BatchRunner {
+    public enum Format {
+        JSON(".summary.json"),
+        CSV(".summary.csv");
+        
+        private final String suffix;
+        
+        Format(String suffix) {
+            this.suffix = suffix;
+        }
+    }
+    
+    private final Path outputDir;
+    private final Format format;
+    private final int loaders;
+    private final int workers;
+    private final int queueCapacity;
+    private final ResultCache cache;
+    
+    /**
+     * Uses one loader per two workers and queues twice as long as the worker count.
+     */
+    public BatchRunner(Path outputDir, Format format, int workers) {
+        this(outputDir, format, Math.max(1, workers / 2), workers, 2 * workers);
+    }
+    
+    /**
+     * @param outputDir directory for the summaries, created if missing
+     * @param loaders threads reading files
+     * @param workers threads running the analysis
+     * @param queueCapacity capacity of each of the two stage queues
+     */
+    public BatchRunner(Path outputDir, Format format, int loaders, int workers, int queueCapacity) {
+        this(outputDir, format, loaders, workers, queueCapacity, null);
+    }
+    
+    /**
+     * @param cache results looked up by file content before analyzing, and stored after; null disables caching
+     */
+    public BatchRunner(Path outputDir, Format format, int loaders, int workers, int queueCapacity, ResultCache cache) {
+        if (loaders < 1 || workers < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Loaders, workers and queue capacity must be at least 1");
+        }
+        this.outputDir = outputDir;
+        this.format = format;
+        this.loaders = loaders;
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.cache = cache;
+    }
+    
+    /**
+     * Usage: [--workers N] [--loaders N] [--format json|csv] [--out DIR] [--cache DIR] [--cache-size MB]
+     * [file or directory ...]
+     * Directories contribute their .json and .bin files; the default input is "data".
+     * Without --cache every graph is analyzed; --cache-size defaults to 256 MB.
+     * Graphs with long or double weights are reported as failures.
+     */
+    public static void main(String[] args) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        int loaders = -1;
+        Format format = Format.JSON;
+        Path outputDir = Path.of("summaries");
+        Path cacheDir = null;
+        long cacheMb = 256;
+        List<String> inputs = new ArrayList<>();
+        
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--workers":
+                        workers = Integer.parseInt(args[++i]);
+                        break;
+                    case "--loaders":
+                        loaders = Integer.parseInt(args[++i]);
+                        break;
+                    case "--format":
+                        format = Format.valueOf(args[++i].toUpperCase(Locale.ROOT));
+                        break;
+                    case "--out":
+                        outputDir = Path.of(args[++i]);
+                        break;
+                    case "--cache":
+                        cacheDir = Path.of(args[++i]);
+                        break;
+                    case "--cache-size":
+                        cacheMb = Long.parseLong(args[++i]);
+                        break;
+                    default:
+                        inputs.add(args[i]);
+                        break;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Usage: --batch [--workers N] [--loaders N] [--format json|csv] [--out DIR]"
+                    + " [--cache DIR] [--cache-size MB] [inputs...]");
+            System.out.println("Only int weights are supported; analyze long or double graphs with Main <file>.");
+            return;
+        }
+        if (inputs.isEmpty()) {
+            inputs.add("data");
+        }
+        
+        try {
+            ResultCache cache = cacheDir != null ? new ResultCache(cacheDir, cacheMb << 20) : null;
+            BatchRunner runner = new BatchRunner(outputDir, format, loaders > 0 ? loaders : Math.max(1, workers / 2),
+                    workers, 2 * workers, cache);
+            BatchResult result = runner.run(listInputs(inputs));
+            System.out.println("Analyzed " + result.summaries.size() + " graphs into " + outputDir
+                    + (cache != null ? " (" + result.cacheHits + " from cache)" : "")
+                    + String.format(" in %.3f ms", result.wallTimeNs / 1_000_000.0));
+            for (Map.Entry<Path, String> failure : result.failures.entrySet()) {
+                System.out.println("Error: " + failure.getKey() + ": " + failure.getValue());
+            }
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private static List<Path> listInputs(List<String> inputs) {
+        List<Path> files = new ArrayList<>();
+        for (String input : inputs) {
+            File file = new File(input);
+            if (!file.isDirectory()) {
+                files.add(file.toPath());
+                continue;
+            }
+            File[] listed = file.listFiles((dir, name) -> name.endsWith(".json") || name.endsWith(BinaryGraphFormat.EXTENSION));
+            if (listed != null) {
+                Arrays.sort(listed);
+                for (File f : listed) {
+                    files.add(f.toPath());
+                }
+            }
+        }
+        return files;
+    }
+    
+    /**
+     * Runs the pipeline over the files and waits for all summaries to be written.
+     * A file whose summary name is already taken by an earlier file, e.g. a/g.json
+     * and b/g.json, is reported as a failure instead of overwriting that summary.
+     * @throws IOException if the output directory cannot be created
+     * @throws InterruptedException if interrupted while waiting; the stages are interrupted too
+     */
+    public BatchResult run(List<Path> files) throws IOException, InterruptedException {
+        Files.createDirectories(outputDir);
+        long start = System.nanoTime();
+        
+        Map<Path, Path> claimed = new HashMap<>();
+        List<Path> accepted = new ArrayList<>();
+        Map<Path, String> failures = new LinkedHashMap<>();
+        for (Path file : files) {
+            Path output = summaryPath(file);
+            Path earlier = claimed.putIfAbsent(output, file);
+            if (earlier != null) {
+                failures.put(file, "summary " + output + " is already written for " + earlier);
+            } else {
+                accepted.add(file);
+            }
+        }
+        
+        ExecutorService pool = Executors.newFixedThreadPool(loaders + workers + 1, stageFactory());
+        Pipeline pipeline = new Pipeline(accepted, failures);
+        try {
+            for (int i = 0; i < loaders; i++) {
+                pool.execute(pipeline::load);
+            }
+            for (int i = 0; i < workers; i++) {
+                pool.execute(pipeline::analyze);
+            }
+            Future<BatchResult> report = pool.submit(() -> pipeline.report(start));
+            return report.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Report stage failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    /**
+     * x.json is summarized as x.summary.json, x.bin as x.bin.summary.json, so converted
+     * copies of the same graph do not overwrite each other.
+     */
+    private Path summaryPath(Path file) {
+        String name = file.getFileName().toString();
+        String base = name.endsWith(".json") ? name.substring(0, name.length() - 5) : name;
+        return outputDir.resolve(base + format.suffix);
+    }
+    
+    /**
+     * One file moving through the stages; exactly one of graph, analysis and error is set
+     * after each stage. The end of a stream is marked with {@link #END}.
+     */
+    private static class Item {
+        static final Item END = new Item(null);
+        
+        final Path file;
+        String key;
+        CachedAnalysis cached;
+        LoadedGraph graph;
+        long loadNs;
+        GraphAnalysis analysis;
+        Throwable error;
+        
+        Item(Path file) {
+            this.file = file;
+        }
+    }
+    
+    private class Pipeline {
+        private final List<Path> files;
+        private final Map<Path, String> failures;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger activeLoaders = new AtomicInteger(loaders);
+        private final AtomicInteger activeWorkers = new AtomicInteger(workers);
+        private final AtomicInteger hits = new AtomicInteger();
+        private final BlockingQueue<Item> loaded = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<Item> analyzed = new ArrayBlockingQueue<>(queueCapacity);
+        
+        Pipeline(List<Path> files, Map<Path, String> failures) {
+            this.files = files;
+            this.failures = failures;
+        }
+        
+        void load() {
+            GraphDataLoader loader = new GraphDataLoader();
+            try {
+                for (int i = next.getAndIncrement(); i < files.size(); i = next.getAndIncrement()) {
+                    Item item = new Item(files.get(i));
+                    long start = System.nanoTime();
+                    try {
+                        if (cache != null) {
+                            item.key = ResultCache.hash(item.file);
+                            item.cached = cache.get(item.key);
+                        }
+                        item.graph = loader.open(item.file);
+                        item.loadNs = System.nanoTime() - start;
+                    } catch (Throwable t) {
+                        item.error = t;
+                    }
+                    loaded.put(item);
+                }
+                // the last loader to finish tells every worker to stop
+                if (activeLoaders.decrementAndGet() == 0) {
+                    for (int i = 0; i < workers; i++) {
+                        loaded.put(Item.END);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        void analyze() {
+            try {
+                for (Item item = loaded.take(); item != Item.END; item = loaded.take()) {
+                    if (item.error == null) {
+                        try {
+                            item.analysis = analyze(item);
+                        } catch (Throwable t) {
+                            item.error = t;
+                        }
+                        item.graph = null;
+                    }
+                    analyzed.put(item);
+                }
+                if (activeWorkers.decrementAndGet() == 0) {
+                    analyzed.put(Item.END);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        private GraphAnalysis analyze(Item item) throws IOException {
+            String name = item.file.getFileName().toString();
+            CachedAnalysis cached = item.cached;
+            if (cached != null) {
+                GraphAnalysis analysis = GraphAnalysis.reuse(name, item.graph, item.loadNs, cached.components,
+                        cached.condensation, cached.topologicalOrder, cached.criticalPath);
+                hits.incrementAndGet();
+                return analysis;
+            }
+            GraphAnalysis analysis = GraphAnalysis.analyze(name, item.graph, item.loadNs);
+            // as in GraphWatcher: do not store the result under a key the file no longer has
+            if (cache != null && ResultCache.hash(item.file).equals(item.key)) {
+                cache.put(item.key, CachedAnalysis.of(analysis));
+            }
+            return analysis;
+        }
+        
+        BatchResult report(long start) throws InterruptedException {
+            List<Path> summaries = new ArrayList<>();
+            for (Item item = analyzed.take(); item != Item.END; item = analyzed.take()) {
+                if (item.error != null) {
+                    failures.put(item.file, String.valueOf(item.error));
+                    continue;
+                }
+                Path output = summaryPath(item.file);
+                try {
+                    if (format == Format.JSON) {
+                        SummaryWriter.writeJson(item.analysis, output);
+                    } else {
+                        SummaryWriter.writeCsv(item.analysis, output);
+                    }
+                    summaries.add(output);
+                } catch (IOException e) {
+                    failures.put(item.file, "cannot write " + output + ": " + e.getMessage());
+                }
+            }
+            return new BatchResult(summaries, failures, hits.get(), System.nanoTime() - start);
+        }
+    }
+    
+    private static ThreadFactory stageFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "batch-stage-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * Outcome of a batch. Summaries are listed in the order they were written,
+     * which depends on scheduling; failures map each input to its error message.
+     * cacheHits counts the graphs answered from the cache.
+     */
+    public static class BatchResult {
+        public final List<Path> summaries;
+        public final Map<Path, String> failures;
+        public final int cacheHits;
+        public final long wallTimeNs;
+        
+        public BatchResult(List<Path> summaries, Map<Path, String> failures, int cacheHits, long wallTimeNs) {
+            this.summaries = Collections.unmodifiableList(summaries);
+            this.failures = Collections.unmodifiableMap(failures);
+            this.cacheHits = cacheHits;
+            this.wallTimeNs = wallTimeNs;
+        }
+        
+        public boolean isSuccessful() {
+            return failures.isEmpty();
+        }
+    }
+}
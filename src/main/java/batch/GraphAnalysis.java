@@ -0,0 +1,197 @@
+package batch;
+
+import data.LoadedGraph;
+import graph.CsrGraph;
+import graph.GraphView;
+import graph.WeightModel;
+import graph.WeightType;
+import graph.dagsp.ShortestPaths;
+import graph.scc.Aggregation;
+import graph.scc.SccResult;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import metrics.MetricsImpl;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Result of the full per-file pipeline that {@code Main} prints: SCCs, condensation,
+ * topological order of the condensation, shortest and longest paths from the source
+ * component, and the critical path. Every stage has its own metrics.
+ * Only graphs with int weights are analyzed, so --batch, --watch and --serve reject
+ * long and double graphs; Main handles those through LongShortestPaths and
+ * DoubleShortestPaths.
+ */
+public class GraphAnalysis {
+    public final String name;
+    public final int vertexCount;
+    public final int edgeCount;
+    public final boolean directed;
+    public final WeightModel weightModel;
+    public final SccResult components;
+    public final CsrGraph condensation;
+    public final int[] topologicalOrder;
+    public final int sourceComponent;
+    public final ShortestPaths.PathResult shortest;
+    public final ShortestPaths.PathResult longest;
+    public final ShortestPaths.CriticalPathResult criticalPath;
+    public final List<StageStats> stages;
+    
+    public GraphAnalysis(String name, int vertexCount, int edgeCount, boolean directed, WeightModel weightModel,
+                         SccResult components, CsrGraph condensation, int[] topologicalOrder, int sourceComponent,
+                         ShortestPaths.PathResult shortest, ShortestPaths.PathResult longest,
+                         ShortestPaths.CriticalPathResult criticalPath, List<StageStats> stages) {
+        this.name = name;
+        this.vertexCount = vertexCount;
+        this.edgeCount = edgeCount;
+        this.directed = directed;
+        this.weightModel = weightModel;
+        this.components = components;
+        this.condensation = condensation;
+        this.topologicalOrder = topologicalOrder;
+        this.sourceComponent = sourceComponent;
+        this.shortest = shortest;
+        this.longest = longest;
+        this.criticalPath = criticalPath;
+        this.stages = stages;
+    }
+    
+    /**
+     * Runs all stages on one graph.
+     * @param name label of the graph, usually the file name
+     * @param loaded graph with its source and weight model
+     * @param loadNs time spent loading, reported as the "load" stage
+     * @throws IllegalArgumentException if the weight model is unknown, the source is not a vertex
+     *         or the graph has long or double weights
+     */
+    public static GraphAnalysis analyze(String name, LoadedGraph loaded, long loadNs) {
+        WeightModel weightModel = check(loaded);
+        GraphView graph = loaded.getGraph();
+        List<StageStats> stages = new ArrayList<>();
+        stages.add(StageStats.timed("load", loadNs));
+        
+        TarjanSCC tarjan = new TarjanSCC(graph, new MetricsImpl());
+        SccResult components = tarjan.findComponents();
+        stages.add(StageStats.of("scc", tarjan.getMetrics()));
+        
+        long start = System.nanoTime();
+        CsrGraph condensation = tarjan.buildCondensation(Aggregation.FIRST, Aggregation.SUM);
+        stages.add(StageStats.timed("condensation", System.nanoTime() - start));
+        
+        TopologicalSort topo = new TopologicalSort(condensation, new MetricsImpl());
+        List<Integer> order = topo.kahnSort();
+        stages.add(StageStats.of("topo", topo.getMetrics()));
+        int[] topologicalOrder = new int[order.size()];
+        for (int i = 0; i < topologicalOrder.length; i++) {
+            topologicalOrder[i] = order.get(i);
+        }
+        
+        return withPaths(name, loaded, weightModel, components, condensation, topologicalOrder, null, stages);
+    }
+    
+    /**
+     * Like {@link #analyze}, but takes the SCCs, condensation, order and critical path from an
+     * earlier analysis of the same graph, e.g. a cache entry. Only the shortest and longest
+     * path stages run, so the summary lists just "load", "shortest" and "longest".
+     * @throws IllegalArgumentException as {@link #analyze}
+     */
+    public static GraphAnalysis reuse(String name, LoadedGraph loaded, long loadNs, SccResult components, CsrGraph condensation,
+                                      int[] topologicalOrder, ShortestPaths.CriticalPathResult criticalPath) {
+        WeightModel weightModel = check(loaded);
+        List<StageStats> stages = new ArrayList<>();
+        stages.add(StageStats.timed("load", loadNs));
+        return withPaths(name, loaded, weightModel, components, condensation, topologicalOrder, criticalPath, stages);
+    }
+    
+    private static WeightModel check(LoadedGraph loaded) {
+        if (loaded.getWeightType() != WeightType.INT) {
+            throw new IllegalArgumentException("Graph has " + loaded.getWeightType().name().toLowerCase(Locale.ROOT)
+                    + " weights; batch, watch and serve modes support int weights only, run Main on the file instead");
+        }
+        Integer source = loaded.getSource();
+        int n = loaded.getGraph().getVertexCount();
+        if (source != null && (source < 0 || source >= n)) {
+            throw new IllegalArgumentException("Source vertex " + source + " out of range for n=" + n);
+        }
+        return WeightModel.fromName(loaded.getWeightModel());
+    }
+    
+    /**
+     * Runs the path stages on the condensation; the critical path too if it is null.
+     */
+    private static GraphAnalysis withPaths(String name, LoadedGraph loaded, WeightModel weightModel, SccResult components,
+                                           CsrGraph condensation, int[] topologicalOrder,
+                                           ShortestPaths.CriticalPathResult criticalPath, List<StageStats> stages) {
+        int sourceComponent = -1;
+        ShortestPaths.PathResult shortest = new ShortestPaths.PathResult(new int[0], new int[0]);
+        ShortestPaths.PathResult longest = shortest;
+        if (condensation.getVertexCount() > 0) {
+            sourceComponent = loaded.getSource() != null ? components.getComponent(loaded.getSource()) : 0;
+            
+            ShortestPaths paths = new ShortestPaths(condensation, weightModel, new MetricsImpl());
+            shortest = paths.shortestPaths(sourceComponent);
+            stages.add(StageStats.of("shortest", paths.getMetrics()));
+            
+            paths.getMetrics().reset();
+            longest = paths.longestPaths(sourceComponent);
+            stages.add(StageStats.of("longest", paths.getMetrics()));
+            
+            if (criticalPath == null) {
+                paths.getMetrics().reset();
+                criticalPath = paths.findCriticalPath();
+                stages.add(StageStats.of("critical", paths.getMetrics()));
+            }
+        }
+        if (criticalPath == null) {
+            criticalPath = new ShortestPaths.CriticalPathResult(Collections.emptyList(), 0);
+        }
+        
+        GraphView graph = loaded.getGraph();
+        return new GraphAnalysis(name, graph.getVertexCount(), graph.getEdgeCount(), graph.isDirected(), weightModel,
+                components, condensation, topologicalOrder, sourceComponent, shortest, longest, criticalPath, stages);
+    }
+    
+    public int getLargestComponentSize() {
+        int largest = 0;
+        for (int c = 0; c < components.componentCount; c++) {
+            largest = Math.max(largest, components.getComponentSize(c));
+        }
+        return largest;
+    }
+    
+    /**
+     * @return number of components reachable from the source component, including itself
+     */
+    public int getReachableCount() {
+        int count = 0;
+        for (int d : shortest.distances) {
+            if (d != ShortestPaths.INF) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * @return length of the longest path from the source component, 0 if there is none
+     */
+    public int getLongestDistance() {
+        int best = 0;
+        for (int d : longest.distances) {
+            if (d != -ShortestPaths.INF) {
+                best = Math.max(best, d);
+            }
+        }
+        return best;
+    }
+    
+    public long getTotalTimeNs() {
+        long total = 0;
+        for (StageStats stage : stages) {
+            total += stage.timeNs;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,44 @@
+package batch;
+
+import metrics.Counter;
+import metrics.Metrics;
+
+/**
+ * Snapshot of the metrics of one analysis stage, taken when the stage finished.
+ */
+public class StageStats {
+    public final String stage;
+    public final long operations;
+    public final long timeNs;
+    public final long[] counts;
+    
+    public StageStats(String stage, long operations, long timeNs, long[] counts) {
+        this.stage = stage;
+        this.operations = operations;
+        this.timeNs = timeNs;
+        this.counts = counts;
+    }
+    
+    public static StageStats of(String stage, Metrics metrics) {
+        long[] counts = new long[Counter.values().length];
+        for (Counter counter : Counter.values()) {
+            counts[counter.ordinal()] = metrics.getCount(counter);
+        }
+        return new StageStats(stage, metrics.getOperationsCount(), metrics.getExecutionTimeNs(), counts);
+    }
+    
+    /**
+     * Stage that only has a duration, such as loading.
+     */
+    public static StageStats timed(String stage, long timeNs) {
+        return new StageStats(stage, 0, timeNs, new long[Counter.values().length]);
+    }
+    
+    public long getCount(Counter counter) {
+        return counts[counter.ordinal()];
+    }
+    
+    public double getTimeMs() {
+        return timeNs / 1_000_000.0;
+    }
+}
@@ -0,0 +1,125 @@
+package batch;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import metrics.Counter;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Writes the summary of one {@link GraphAnalysis} as JSON or CSV.
+ * Field names follow the snake_case of the input files; every stage contributes
+ * its time, operation total and per-counter values.
+ */
+public class SummaryWriter {
+    private static final JsonFactory JSON = new JsonFactory();
+    
+    private SummaryWriter() {}
+    
+    public static void writeJson(GraphAnalysis analysis, Path path) throws IOException {
+        try (JsonGenerator json = JSON.createGenerator(path.toFile(), JsonEncoding.UTF8)) {
+            json.useDefaultPrettyPrinter();
+            json.writeStartObject();
+            json.writeStringField("file", analysis.name);
+            json.writeNumberField("vertices", analysis.vertexCount);
+            json.writeNumberField("edges", analysis.edgeCount);
+            json.writeBooleanField("directed", analysis.directed);
+            json.writeStringField("weight_model", analysis.weightModel.getName());
+            json.writeNumberField("scc_count", analysis.components.componentCount);
+            json.writeNumberField("largest_scc", analysis.getLargestComponentSize());
+            
+            json.writeObjectFieldStart("condensation");
+            json.writeNumberField("vertices", analysis.condensation.getVertexCount());
+            json.writeNumberField("edges", analysis.condensation.getEdgeCount());
+            json.writeEndObject();
+            
+            json.writeFieldName("topological_order");
+            json.writeArray(analysis.topologicalOrder, 0, analysis.topologicalOrder.length);
+            json.writeNumberField("source_component", analysis.sourceComponent);
+            json.writeNumberField("reachable", analysis.getReachableCount());
+            json.writeNumberField("longest_distance", analysis.getLongestDistance());
+            
+            json.writeObjectFieldStart("critical_path");
+            json.writeNumberField("length", analysis.criticalPath.length);
+            json.writeArrayFieldStart("path");
+            for (int c : analysis.criticalPath.path) {
+                json.writeNumber(c);
+            }
+            json.writeEndArray();
+            json.writeEndObject();
+            
+            json.writeObjectFieldStart("metrics");
+            for (StageStats stage : analysis.stages) {
+                json.writeObjectFieldStart(stage.stage);
+                json.writeNumberField("time_ms", stage.getTimeMs());
+                json.writeNumberField("operations", stage.operations);
+                for (Counter counter : Counter.values()) {
+                    json.writeNumberField(counterName(counter), stage.getCount(counter));
+                }
+                json.writeEndObject();
+            }
+            json.writeEndObject();
+            json.writeEndObject();
+        }
+    }
+    
+    /**
+     * Writes a header line and one data line. The critical path is a space-separated list.
+     */
+    public static void writeCsv(GraphAnalysis analysis, Path path) throws IOException {
+        StringBuilder header = new StringBuilder("file,vertices,edges,directed,weight_model,scc_count,largest_scc,"
+                + "condensation_vertices,condensation_edges,source_component,reachable,longest_distance,"
+                + "critical_length,critical_path");
+        StringBuilder row = new StringBuilder();
+        row.append(quote(analysis.name)).append(',')
+                .append(analysis.vertexCount).append(',')
+                .append(analysis.edgeCount).append(',')
+                .append(analysis.directed).append(',')
+                .append(analysis.weightModel.getName()).append(',')
+                .append(analysis.components.componentCount).append(',')
+                .append(analysis.getLargestComponentSize()).append(',')
+                .append(analysis.condensation.getVertexCount()).append(',')
+                .append(analysis.condensation.getEdgeCount()).append(',')
+                .append(analysis.sourceComponent).append(',')
+                .append(analysis.getReachableCount()).append(',')
+                .append(analysis.getLongestDistance()).append(',')
+                .append(analysis.criticalPath.length).append(',');
+        for (int i = 0; i < analysis.criticalPath.path.size(); i++) {
+            row.append(i == 0 ? "" : " ").append(analysis.criticalPath.path.get(i));
+        }
+        
+        for (StageStats stage : analysis.stages) {
+            header.append(',').append(stage.stage).append("_time_ms");
+            header.append(',').append(stage.stage).append("_operations");
+            row.append(',').append(String.format(Locale.ROOT, "%.3f", stage.getTimeMs()));
+            row.append(',').append(stage.operations);
+            for (Counter counter : Counter.values()) {
+                header.append(',').append(stage.stage).append('_').append(counterName(counter));
+                row.append(',').append(stage.getCount(counter));
+            }
+        }
+        
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write(header.toString());
+            writer.newLine();
+            writer.write(row.toString());
+            writer.newLine();
+        }
+    }
+    
+    private static String counterName(Counter counter) {
+        return counter.name().toLowerCase(Locale.ROOT);
+    }
+    
+    private static String quote(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,184 @@
+package cache;
+
+import batch.GraphAnalysis;
+import graph.CsrGraph;
+import graph.dagsp.ShortestPaths;
+import graph.scc.SccResult;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parts of a {@link GraphAnalysis} that are kept in the result cache: SCC assignment,
+ * condensation, topological order of the condensation and critical path.
+ *
+ * Binary layout (big-endian ints): magic, version, n, componentCount, componentOf[n];
+ * condensation flags (bit 0 = directed), vertex count c, edgeCount, entries,
+ * offsets[c + 1], targets[entries], weights[entries], nodeWeights[c];
+ * order length, order; critical length, path length, path, then earliest, latest
+ * and slack arrays (c entries each, or none if the critical path is empty).
+ */
+public class CachedAnalysis {
+    public static final int MAGIC = 0x47414143; // "CAAG"
+    public static final int VERSION = 1;
+    
+    public final SccResult components;
+    public final CsrGraph condensation;
+    public final int[] topologicalOrder;
+    public final ShortestPaths.CriticalPathResult criticalPath;
+    
+    public CachedAnalysis(SccResult components, CsrGraph condensation, int[] topologicalOrder,
+                          ShortestPaths.CriticalPathResult criticalPath) {
+        this.components = components;
+        this.condensation = condensation;
+        this.topologicalOrder = topologicalOrder;
+        this.criticalPath = criticalPath;
+    }
+    
+    public static CachedAnalysis of(GraphAnalysis analysis) {
+        return new CachedAnalysis(analysis.components, analysis.condensation,
+                analysis.topologicalOrder, analysis.criticalPath);
+    }
+    
+    public void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(components.componentOf.length);
+        out.writeInt(components.componentCount);
+        writeInts(out, components.componentOf);
+        
+        int c = condensation.getVertexCount();
+        int entries = condensation.edgeStart(c);
+        out.writeInt(condensation.isDirected() ? 1 : 0);
+        out.writeInt(c);
+        out.writeInt(condensation.getEdgeCount());
+        out.writeInt(entries);
+        for (int u = 0; u <= c; u++) {
+            out.writeInt(condensation.edgeStart(u));
+        }
+        for (int e = 0; e < entries; e++) {
+            out.writeInt(condensation.edgeTarget(e));
+        }
+        for (int e = 0; e < entries; e++) {
+            out.writeInt(condensation.edgeWeight(e));
+        }
+        for (int u = 0; u < c; u++) {
+            out.writeInt(condensation.getNodeWeight(u));
+        }
+        
+        out.writeInt(topologicalOrder.length);
+        writeInts(out, topologicalOrder);
+        
+        out.writeInt(criticalPath.length);
+        out.writeInt(criticalPath.path.size());
+        for (int v : criticalPath.path) {
+            out.writeInt(v);
+        }
+        out.writeInt(criticalPath.earliestStart.length);
+        writeInts(out, criticalPath.earliestStart);
+        writeInts(out, criticalPath.latestStart);
+        writeInts(out, criticalPath.slack);
+    }
+    
+    /**
+     * Every array length is checked against the counts read before it and against the
+     * bytes left, so a damaged entry fails here instead of allocating a huge array.
+     * @param size total length of the entry in bytes
+     * @throws IOException if the data is truncated, inconsistent or was written by another format version
+     */
+    public static CachedAnalysis read(DataInputStream in, long size) throws IOException {
+        Input input = new Input(in, size);
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a cached analysis");
+        }
+        int version = input.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported cache version " + version);
+        }
+        int n = input.readInt();
+        int componentCount = input.readInt();
+        if (componentCount < 0 || componentCount > n) {
+            throw new IOException("Corrupt cache entry: " + componentCount + " components for " + n + " vertices");
+        }
+        SccResult components = SccResult.fromAssignment(input.readInts(n), componentCount);
+        
+        boolean directed = input.readInt() == 1;
+        int c = input.readInt();
+        int edgeCount = input.readInt();
+        int entries = input.readInt();
+        if (c != componentCount) {
+            throw new IOException("Corrupt cache entry: condensation has " + c + " vertices for " + componentCount + " components");
+        }
+        int[] offsets = input.readInts(c + 1);
+        int[] targets = input.readInts(entries);
+        int[] weights = input.readInts(entries);
+        int[] nodeWeights = input.readInts(c);
+        CsrGraph condensation = new CsrGraph(c, directed, edgeCount, offsets, targets, weights, nodeWeights);
+        
+        int orderLength = input.readInt();
+        if (orderLength != c) {
+            throw new IOException("Corrupt cache entry: order of length " + orderLength + " for " + c + " components");
+        }
+        int[] order = input.readInts(orderLength);
+        
+        int length = input.readInt();
+        int pathLength = input.readInt();
+        int schedule = -1;
+        if (pathLength >= 0 && pathLength <= c) {
+            List<Integer> path = new ArrayList<>(pathLength);
+            for (int v : input.readInts(pathLength)) {
+                path.add(v);
+            }
+            schedule = input.readInt();
+            if (schedule == 0 || schedule == c) {
+                int[] earliest = input.readInts(schedule);
+                int[] latest = input.readInts(schedule);
+                int[] slack = input.readInts(schedule);
+                return new CachedAnalysis(components, condensation, order,
+                        new ShortestPaths.CriticalPathResult(path, length, earliest, latest, slack));
+            }
+        }
+        throw new IOException("Corrupt cache entry: critical path of length " + pathLength
+                + " with schedule " + schedule + " for " + c + " components");
+    }
+    
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+    
+    /**
+     * Counts the bytes left in the entry while reading it.
+     */
+    private static class Input {
+        private final DataInputStream in;
+        private long remaining;
+        
+        Input(DataInputStream in, long size) {
+            this.in = in;
+            this.remaining = size;
+        }
+        
+        int readInt() throws IOException {
+            if (remaining < 4) {
+                throw new IOException("Truncated cache entry");
+            }
+            remaining -= 4;
+            return in.readInt();
+        }
+        
+        int[] readInts(int count) throws IOException {
+            if (count < 0 || 4L * count > remaining) {
+                throw new IOException("Corrupt cache entry: array of " + count + " ints with " + remaining + " bytes left");
+            }
+            int[] values = new int[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = readInt();
+            }
+            return values;
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package cache;
+
+import batch.GraphAnalysis;
+import data.BinaryGraphFormat;
+import data.GraphDataLoader;
+import data.LoadedGraph;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Analyzes the graph files of a directory through a {@link ResultCache} and keeps
+ * watching it: created or modified files are hashed and re-analyzed only if their
+ * content is not cached yet. Repeated modify events for the same content, as
+ * editors often produce, are answered from the cache.
+ */
+public class GraphWatcher {
+    private final Path dir;
+    private final ResultCache cache;
+    private final PrintStream out;
+    private final GraphDataLoader loader = new GraphDataLoader();
+    
+    public GraphWatcher(Path dir, ResultCache cache, PrintStream out) {
+        this.dir = dir;
+        this.cache = cache;
+        this.out = out;
+    }
+    
+    /**
+     * Usage: [--cache DIR] [--cache-size MB] [directory]
+     * Defaults: cache in .graph-cache limited to 256 MB, directory "data".
+     * Graphs with long or double weights are reported as errors.
+     */
+    public static void main(String[] args) {
+        Path cacheDir = Path.of(".graph-cache");
+        long cacheMb = 256;
+        Path dir = Path.of("data");
+        
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--cache":
+                        cacheDir = Path.of(args[++i]);
+                        break;
+                    case "--cache-size":
+                        cacheMb = Long.parseLong(args[++i]);
+                        break;
+                    default:
+                        dir = Path.of(args[i]);
+                        break;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Usage: --watch [--cache DIR] [--cache-size MB] [directory]");
+            System.out.println("Only int weights are supported; analyze long or double graphs with Main <file>.");
+            return;
+        }
+        
+        try {
+            GraphWatcher watcher = new GraphWatcher(dir, new ResultCache(cacheDir, cacheMb << 20), System.out);
+            watcher.scan();
+            System.out.println("Watching " + dir + " (Ctrl+C to stop)");
+            watcher.watch();
+        } catch (IOException e) {
+            System.out.println("Error: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Processes every graph file currently in the directory.
+     */
+    public void scan() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                if (isGraphFile(file)) {
+                    files.add(file);
+                }
+            }
+        }
+        Path[] sorted = files.toArray(new Path[0]);
+        Arrays.sort(sorted);
+        for (Path file : sorted) {
+            report(file);
+        }
+    }
+    
+    /**
+     * Blocks and processes graph files as they are created or modified, until interrupted.
+     */
+    public void watch() throws IOException, InterruptedException {
+        try (WatchService service = dir.getFileSystem().newWatchService()) {
+            dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            while (true) {
+                WatchKey key = service.take();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        scan();
+                        continue;
+                    }
+                    Path file = dir.resolve((Path) event.context());
+                    if (isGraphFile(file) && Files.isRegularFile(file)) {
+                        report(file);
+                    }
+                }
+                if (!key.reset()) {
+                    out.println("Stopped watching " + dir + ": directory is no longer accessible");
+                    return;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            throw new InterruptedException("Watch service closed");
+        }
+    }
+    
+    /**
+     * Looks the file up by content hash and analyzes it on a miss. The result is cached
+     * only if the file still has the same hash after the analysis.
+     * @return cached or freshly computed result
+     * @throws IOException if the file cannot be read or parsed, or the result cannot be stored
+     */
+    public CachedAnalysis process(Path file) throws IOException {
+        String key = ResultCache.hash(file);
+        CachedAnalysis cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        long start = System.nanoTime();
+        LoadedGraph loaded = loader.open(file);
+        GraphAnalysis analysis;
+        try {
+            analysis = GraphAnalysis.analyze(file.getFileName().toString(), loaded, System.nanoTime() - start);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        CachedAnalysis result = CachedAnalysis.of(analysis);
+        // modify events arrive while the file is being written, so it may have changed since
+        // it was hashed; caching then would store this analysis under the old content's key
+        if (ResultCache.hash(file).equals(key)) {
+            cache.put(key, result);
+        }
+        return result;
+    }
+    
+    private void report(Path file) {
+        long start = System.nanoTime();
+        long hits = cache.getHits();
+        try {
+            CachedAnalysis result = process(file);
+            String source = cache.getHits() > hits ? "cached" : "analyzed";
+            out.println(file.getFileName() + ": " + source
+                    + String.format(" in %.3f ms", (System.nanoTime() - start) / 1_000_000.0)
+                    + ", SCCs: " + result.components.componentCount
+                    + ", topological order: " + Arrays.toString(result.topologicalOrder)
+                    + ", critical path: " + result.criticalPath.path
+                    + " (length " + result.criticalPath.length + ")");
+        } catch (IOException e) {
+            out.println(file.getFileName() + ": error: " + e.getMessage());
+        } catch (RuntimeException e) {
+            // malformed graphs (bad endpoints, out-of-range source) must not stop the watcher
+            out.println(file.getFileName() + ": error: " + e);
+        }
+    }
+    
+    private static boolean isGraphFile(Path file) {
+        String name = file.getFileName().toString();
+        return name.endsWith(".json") || name.endsWith(BinaryGraphFormat.EXTENSION);
+    }
+    
+    public ResultCache getCache() {
+        return cache;
+    }
+}
@@ -0,0 +1,196 @@
+package cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-disk cache of analysis results, keyed by the SHA-256 of a graph file's bytes.
+ * Each entry is one file named after its key. The total size is bounded: inserting
+ * beyond the limit evicts least recently used entries. Recency survives restarts
+ * through the entries' modification times, which are refreshed on every hit.
+ * Entries that cannot be read are deleted and count as misses.
+ */
+public class ResultCache {
+    public static final String EXTENSION = ".res";
+    
+    private final Path dir;
+    private final long maxBytes;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeBytes;
+    private long hits;
+    private long misses;
+    
+    /**
+     * Opens the cache directory, creating it if needed, and indexes existing entries.
+     * @param maxBytes upper bound on the total size of all entries
+     * @throws IOException if the directory cannot be created or listed
+     */
+    public ResultCache(Path dir, long maxBytes) throws IOException {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("Cache size must not be negative: " + maxBytes);
+        }
+        this.dir = dir;
+        this.maxBytes = maxBytes;
+        Files.createDirectories(dir);
+        
+        List<Path> existing = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + EXTENSION)) {
+            for (Path entry : stream) {
+                existing.add(entry);
+            }
+        }
+        existing.sort(Comparator.comparing(ResultCache::lastModified));
+        for (Path entry : existing) {
+            String name = entry.getFileName().toString();
+            long size = Files.size(entry);
+            entries.put(name.substring(0, name.length() - EXTENSION.length()), size);
+            sizeBytes += size;
+        }
+        evict();
+    }
+    
+    /**
+     * @return hex SHA-256 of the file content
+     */
+    public static String hash(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        byte[] buffer = new byte[1 << 16];
+        try (InputStream in = Files.newInputStream(file)) {
+            for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+    
+    /**
+     * @return cached result, or null on a miss
+     */
+    public synchronized CachedAnalysis get(String key) {
+        // get, unlike containsKey, moves the entry to the most recently used end
+        if (entries.get(key) == null) {
+            misses++;
+            return null;
+        }
+        Path path = pathOf(key);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            CachedAnalysis result = CachedAnalysis.read(in, Files.size(path));
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            hits++;
+            return result;
+        } catch (IOException | RuntimeException e) {
+            // unreadable or corrupt (e.g. out-of-range ids in a damaged file)
+            remove(key);
+            misses++;
+            return null;
+        }
+    }
+    
+    /**
+     * Stores a result, replacing any entry with the same key, then evicts down to the size bound.
+     * The entry is written to a temporary file and moved into place, so readers never see a partial entry.
+     */
+    public synchronized void put(String key, CachedAnalysis result) throws IOException {
+        Path path = pathOf(key);
+        Path temp = Files.createTempFile(dir, key, ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                result.write(out);
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        Long old = entries.put(key, Files.size(path));
+        sizeBytes += entries.get(key) - (old == null ? 0 : old);
+        evict();
+    }
+    
+    public synchronized boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+    
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> eldest = entries.entrySet().iterator();
+        while (sizeBytes > maxBytes && eldest.hasNext()) {
+            Map.Entry<String, Long> entry = eldest.next();
+            try {
+                Files.deleteIfExists(pathOf(entry.getKey()));
+            } catch (IOException e) {
+                // an undeletable file is forgotten anyway; it is picked up again on the next start
+            }
+            sizeBytes -= entry.getValue();
+            eldest.remove();
+        }
+    }
+    
+    private void remove(String key) {
+        Long size = entries.remove(key);
+        if (size != null) {
+            sizeBytes -= size;
+        }
+        try {
+            Files.deleteIfExists(pathOf(key));
+        } catch (IOException e) {
+            // same as in evict
+        }
+    }
+    
+    private Path pathOf(String key) {
+        return dir.resolve(key + EXTENSION);
+    }
+    
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+    
+    public synchronized int size() {
+        return entries.size();
+    }
+    
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+    
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+    
+    public synchronized long getHits() {
+        return hits;
+    }
+    
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,55 @@
+package data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Converts JSON graph files to the binary format.
+ * Each argument is a JSON file or a directory of JSON files;
+ * output is written next to the input with the .json suffix replaced by .bin.
+ */
+public class BinaryGraphConverter {
+    
+    public static void main(String[] args) {
+        String[] inputs = args.length > 0 ? args : new String[] {"data"};
+        GraphDataLoader loader = new GraphDataLoader();
+        
+        for (String input : inputs) {
+            File file = new File(input);
+            File[] files = file.isDirectory()
+                    ? file.listFiles((dir, name) -> name.endsWith(".json"))
+                    : new File[] {file};
+            
+            if (files == null) {
+                System.out.println("Error: cannot list " + input);
+                continue;
+            }
+            
+            for (File json : files) {
+                try {
+                    Path output = convert(loader, json.toPath());
+                    System.out.println(json.getPath() + " -> " + output);
+                } catch (IOException e) {
+                    System.out.println("Error converting " + json.getPath() + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Converts one JSON graph file.
+     * @param loader JSON loader
+     * @param json input file
+     * @return path of the written binary file
+     * @throws IOException if reading or writing fails
+     */
+    public static Path convert(GraphDataLoader loader, Path json) throws IOException {
+        LoadedGraph loaded = loader.streamGraph(json.toString());
+        String name = json.getFileName().toString();
+        String base = name.endsWith(".json") ? name.substring(0, name.length() - 5) : name;
+        Path output = json.resolveSibling(base + BinaryGraphFormat.EXTENSION);
+        BinaryGraphFormat.write(loaded, output);
+        return output;
+    }
+}
@@ -0,0 +1,212 @@
+package data;
+
+import graph.GraphView;
+import graph.WeightType;
+import graph.MappedCsrGraph;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Compact binary graph file format.
+ *
+ * Layout (little-endian ints):
+ * header: magic, version, flags (bit 0 = directed), n, edgeCount, entries, source (-1 if none), weight model code;
+ * then offsets[n + 1], targets[entries], weights[entries], nodeWeights[n].
+ * Each array section is mapped separately, so graphs up to 2^31 - 1 adjacency entries are supported.
+ */
+public class BinaryGraphFormat {
+    public static final int MAGIC = 0x47414144; // "DAAG"
+    public static final int VERSION = 1;
+    public static final String EXTENSION = ".bin";
+    
+    private static final int HEADER_INTS = 8;
+    private static final int FLAG_DIRECTED = 1;
+    private static final int BUFFER_BYTES = 1 << 16;
+    
+    private BinaryGraphFormat() {}
+    
+    /**
+     * Writes a graph in binary form.
+     * @param loaded graph with metadata
+     * @param path output file
+     * @throws IOException if the file cannot be written, the weight model is unknown
+     *         or the graph has long or double weights, which the format does not store
+     */
+    public static void write(LoadedGraph loaded, Path path) throws IOException {
+        if (loaded.getWeightType() != WeightType.INT) {
+            throw new IOException("Binary format stores int weights only, graph has " + loaded.getWeightType() + " weights");
+        }
+        GraphView graph = loaded.getGraph();
+        int n = graph.getVertexCount();
+        int entries = 0;
+        for (int u = 0; u < n; u++) {
+            entries += graph.getOutDegree(u);
+        }
+        
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            
+            buffer.putInt(MAGIC);
+            buffer.putInt(VERSION);
+            buffer.putInt(graph.isDirected() ? FLAG_DIRECTED : 0);
+            buffer.putInt(n);
+            buffer.putInt(graph.getEdgeCount());
+            buffer.putInt(entries);
+            buffer.putInt(loaded.getSource() != null ? loaded.getSource() : -1);
+            buffer.putInt(encodeWeightModel(loaded.getWeightModel()));
+            
+            int offset = 0;
+            putInt(channel, buffer, offset);
+            for (int u = 0; u < n; u++) {
+                offset += graph.getOutDegree(u);
+                putInt(channel, buffer, offset);
+            }
+            for (int u = 0; u < n; u++) {
+                for (int i = 0; i < graph.getOutDegree(u); i++) {
+                    putInt(channel, buffer, graph.getNeighbor(u, i));
+                }
+            }
+            for (int u = 0; u < n; u++) {
+                for (int i = 0; i < graph.getOutDegree(u); i++) {
+                    putInt(channel, buffer, graph.getNeighborWeight(u, i));
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                putInt(channel, buffer, graph.getNodeWeight(v));
+            }
+            
+            flush(channel, buffer);
+        }
+    }
+    
+    /**
+     * Maps a binary graph file read-only. No array data is copied;
+     * the returned graph reads the mapped pages directly.
+     * @param path binary graph file
+     * @return mapped graph with metadata
+     * @throws IOException if the file cannot be mapped or is not a valid graph file
+     */
+    public static LoadedGraph map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize < HEADER_INTS * 4L) {
+                throw new IOException("Not a binary graph file: " + path);
+            }
+            
+            IntBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_INTS * 4L)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            if (header.get(0) != MAGIC) {
+                throw new IOException("Not a binary graph file: " + path);
+            }
+            if (header.get(1) != VERSION) {
+                throw new IOException("Unsupported binary graph version " + header.get(1) + ": " + path);
+            }
+            
+            boolean directed = (header.get(2) & FLAG_DIRECTED) != 0;
+            int n = header.get(3);
+            int edgeCount = header.get(4);
+            int entries = header.get(5);
+            int source = header.get(6);
+            String weightModel = decodeWeightModel(header.get(7));
+            if (n < 0 || entries < 0 || edgeCount < 0 || edgeCount > entries || source < -1 || source >= n) {
+                throw new IOException("Corrupt graph file: " + path + ": invalid header");
+            }
+            
+            long position = HEADER_INTS * 4L;
+            long expected = position + 4L * (n + 1L) + 8L * entries + 4L * n;
+            if (fileSize != expected) {
+                throw new IOException("Truncated binary graph file: " + path);
+            }
+            
+            IntBuffer offsets = mapInts(channel, position, n + 1);
+            position += 4L * (n + 1);
+            IntBuffer targets = mapInts(channel, position, entries);
+            position += 4L * entries;
+            IntBuffer weights = mapInts(channel, position, entries);
+            position += 4L * entries;
+            IntBuffer nodeWeights = mapInts(channel, position, n);
+            validate(path, n, entries, offsets, targets);
+            
+            MappedCsrGraph graph = new MappedCsrGraph(n, directed, edgeCount, offsets, targets, weights, nodeWeights);
+            return new LoadedGraph(graph, source >= 0 ? source : null, weightModel);
+        }
+    }
+    
+    /**
+     * One pass over offsets and targets, so a damaged file fails here instead of
+     * deep inside an algorithm or, worse, producing wrong results.
+     */
+    private static void validate(Path path, int n, int entries, IntBuffer offsets, IntBuffer targets) throws IOException {
+        if (offsets.get(0) != 0 || offsets.get(n) != entries) {
+            throw new IOException("Corrupt graph file: " + path + ": offsets do not span the adjacency");
+        }
+        for (int u = 0; u < n; u++) {
+            if (offsets.get(u + 1) < offsets.get(u)) {
+                throw new IOException("Corrupt graph file: " + path + ": offsets decrease at vertex " + u);
+            }
+        }
+        for (int e = 0; e < entries; e++) {
+            int v = targets.get(e);
+            if (v < 0 || v >= n) {
+                throw new IOException("Corrupt graph file: " + path + ": edge target " + v + " out of range");
+            }
+        }
+    }
+    
+    private static IntBuffer mapInts(FileChannel channel, long position, int count) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * count)
+                .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+    
+    private static void putInt(FileChannel channel, ByteBuffer buffer, int value) throws IOException {
+        if (buffer.remaining() < 4) {
+            flush(channel, buffer);
+        }
+        buffer.putInt(value);
+    }
+    
+    private static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+    
+    private static int encodeWeightModel(String weightModel) throws IOException {
+        if (weightModel == null) {
+            return 0;
+        }
+        switch (weightModel) {
+            case "edge":
+                return 1;
+            case "node":
+                return 2;
+            case "mixed":
+                return 3;
+            default:
+                throw new IOException("Unsupported weight model for binary format: " + weightModel);
+        }
+    }
+    
+    private static String decodeWeightModel(int code) throws IOException {
+        switch (code) {
+            case 0:
+                return null;
+            case 1:
+                return "edge";
+            case 2:
+                return "node";
+            case 3:
+                return "mixed";
+            default:
+                throw new IOException("Unknown weight model code " + code);
+        }
+    }
+}
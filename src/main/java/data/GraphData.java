@@ -23,6 +23,9 @@ public class GraphData {
     @JsonProperty("weight_model")
     private String weightModel;
     
+    @JsonProperty("node_weights")
+    private List<Integer> nodeWeights;
+    
     // Default constructor required for Jackson
     public GraphData() {}
     
@@ -68,6 +71,17 @@ public class GraphData {
         this.weightModel = weightModel;
     }
     
+    /**
+     * @return one weight per vertex, or null if the file has none
+     */
+    public List<Integer> getNodeWeights() {
+        return nodeWeights;
+    }
+    
+    public void setNodeWeights(List<Integer> nodeWeights) {
+        this.nodeWeights = nodeWeights;
+    }
+    
     /**
      * Edge data model.
      */
@@ -116,4 +130,3 @@ public class GraphData {
         }
     }
 }
-
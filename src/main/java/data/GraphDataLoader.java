@@ -1,9 +1,19 @@
 package data;
 
+import graph.CsrGraph;
+import graph.DoubleCsrGraph;
 import graph.Graph;
+import graph.GraphView;
+import graph.LongCsrGraph;
+import graph.WeightType;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
 
 /**
  * Loads graph data from JSON files.
@@ -30,6 +40,7 @@ public class GraphDataLoader {
      * Converts GraphData to Graph object.
      * @param data graph data from JSON
      * @return Graph object
+     * @throws IllegalArgumentException if node weights are present but not one per vertex
      */
     public Graph toGraph(GraphData data) {
         Graph graph = new Graph(data.getN(), data.isDirected());
@@ -38,6 +49,16 @@ public class GraphDataLoader {
             graph.addEdge(edge.getU(), edge.getV(), edge.getW());
         }
         
+        List<Integer> nodeWeights = data.getNodeWeights();
+        if (nodeWeights != null) {
+            if (nodeWeights.size() != data.getN()) {
+                throw new IllegalArgumentException("Expected " + data.getN() + " node weights, got " + nodeWeights.size());
+            }
+            for (int v = 0; v < nodeWeights.size(); v++) {
+                graph.setNodeWeight(v, nodeWeights.get(v));
+            }
+        }
+        
         return graph;
     }
     
@@ -52,5 +73,254 @@ public class GraphDataLoader {
         GraphData data = loadGraphData(filePath);
         return toGraph(data);
     }
+    
+    /**
+     * Loads a graph with Jackson's streaming parser, feeding edges directly
+     * into a CSR builder without creating GraphData or EdgeData objects.
+     * Top-level fields and edge fields may appear in any order; unknown fields are skipped.
+     * The graph type follows the data: a {@link LongCsrGraph} once a weight exceeds
+     * the int range, a {@link DoubleCsrGraph} once a weight has a fraction or exponent,
+     * otherwise a {@link CsrGraph}.
+     * @param filePath path to JSON file
+     * @return CSR graph with source and weight model
+     * @throws IOException if file cannot be read or is malformed
+     */
+    public LoadedGraph streamGraph(String filePath) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(new File(filePath))) {
+            return streamGraph(parser);
+        }
+    }
+    
+    /**
+     * Opens a graph file by extension: binary files are memory-mapped,
+     * anything else is read with the streaming JSON loader.
+     * @param file JSON or binary graph file
+     * @return graph with source and weight model
+     * @throws IOException if the file cannot be read or is malformed
+     */
+    public LoadedGraph open(Path file) throws IOException {
+        return file.toString().endsWith(BinaryGraphFormat.EXTENSION)
+                ? BinaryGraphFormat.map(file)
+                : streamGraph(file.toString());
+    }
+    
+    private LoadedGraph streamGraph(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected graph object");
+        }
+        
+        WeightedBuilder builder = new WeightedBuilder();
+        int n = -1;
+        int nodeWeightCount = -1;
+        Integer source = null;
+        String weightModel = null;
+        
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            
+            switch (field) {
+                case "n":
+                    n = parser.getIntValue();
+                    builder.setVertexCount(n);
+                    break;
+                case "directed":
+                    builder.setDirected(parser.getBooleanValue());
+                    break;
+                case "source":
+                    source = value == JsonToken.VALUE_NULL ? null : parser.getIntValue();
+                    break;
+                case "weight_model":
+                    weightModel = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    break;
+                case "edges":
+                    readEdges(parser, builder);
+                    break;
+                case "node_weights":
+                    nodeWeightCount = readNodeWeights(parser, builder);
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+        
+        if (n < 0) {
+            throw new JsonParseException(parser, "Missing field 'n'");
+        }
+        if (nodeWeightCount >= 0 && nodeWeightCount != n) {
+            throw new JsonParseException(parser, "Expected " + n + " node weights, got " + nodeWeightCount);
+        }
+        
+        return new LoadedGraph(builder.build(), source, weightModel);
+    }
+    
+    private void readEdges(JsonParser parser, WeightedBuilder builder) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected 'edges' array");
+        }
+        
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            int u = -1;
+            int v = -1;
+            long w = 0;
+            double fractional = 0;
+            
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                
+                switch (field) {
+                    case "u":
+                        u = parser.getIntValue();
+                        break;
+                    case "v":
+                        v = parser.getIntValue();
+                        break;
+                    case "w":
+                        builder.widen(parser);
+                        if (builder.type == WeightType.DOUBLE) {
+                            fractional = parser.getDoubleValue();
+                        } else {
+                            w = parser.getLongValue();
+                        }
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+            
+            if (u < 0 || v < 0) {
+                throw new JsonParseException(parser, "Edge is missing 'u' or 'v'");
+            }
+            builder.addEdge(u, v, w, fractional);
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new JsonParseException(parser, "Expected edge object");
+        }
+    }
+    
+    /**
+     * @return number of weights read
+     */
+    private int readNodeWeights(JsonParser parser, WeightedBuilder builder) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected 'node_weights' array");
+        }
+        
+        int count = 0;
+        while (parser.nextToken().isNumeric()) {
+            builder.widen(parser);
+            builder.setNodeWeight(count++, parser);
+        }
+        if (parser.currentToken() != JsonToken.END_ARRAY) {
+            throw new JsonParseException(parser, "Expected numeric node weight");
+        }
+        return count;
+    }
+    
+    /**
+     * Collects the graph in the narrowest builder that holds every weight read so far.
+     * Exactly one builder is live; widening hands its arrays to the next type, so a file
+     * whose only large weight is its last one is still read in a single pass.
+     */
+    private static class WeightedBuilder {
+        private WeightType type = WeightType.INT;
+        private CsrGraph.Builder ints = new CsrGraph.Builder();
+        private LongCsrGraph.Builder longs;
+        private DoubleCsrGraph.Builder doubles;
+        
+        /**
+         * Widens the live builder if the current number token does not fit its type.
+         */
+        void widen(JsonParser parser) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+                if (type == WeightType.INT) {
+                    longs = ints.toLongBuilder();
+                    ints = null;
+                }
+                if (type != WeightType.DOUBLE) {
+                    doubles = longs.toDoubleBuilder();
+                    longs = null;
+                    type = WeightType.DOUBLE;
+                }
+            } else if (type == WeightType.INT && parser.getNumberType() != JsonParser.NumberType.INT) {
+                longs = ints.toLongBuilder();
+                ints = null;
+                type = WeightType.LONG;
+            }
+        }
+        
+        void setVertexCount(int n) {
+            switch (type) {
+                case INT:
+                    ints.setVertexCount(n);
+                    break;
+                case LONG:
+                    longs.setVertexCount(n);
+                    break;
+                default:
+                    doubles.setVertexCount(n);
+                    break;
+            }
+        }
+        
+        void setDirected(boolean directed) {
+            switch (type) {
+                case INT:
+                    ints.setDirected(directed);
+                    break;
+                case LONG:
+                    longs.setDirected(directed);
+                    break;
+                default:
+                    doubles.setDirected(directed);
+                    break;
+            }
+        }
+        
+        /**
+         * @param w weight if the live builder is int or long
+         * @param fractional weight if the live builder is double
+         */
+        void addEdge(int u, int v, long w, double fractional) {
+            switch (type) {
+                case INT:
+                    ints.addEdge(u, v, (int) w);
+                    break;
+                case LONG:
+                    longs.addEdge(u, v, w);
+                    break;
+                default:
+                    doubles.addEdge(u, v, fractional);
+                    break;
+            }
+        }
+        
+        void setNodeWeight(int node, JsonParser parser) throws IOException {
+            switch (type) {
+                case INT:
+                    ints.setNodeWeight(node, parser.getIntValue());
+                    break;
+                case LONG:
+                    longs.setNodeWeight(node, parser.getLongValue());
+                    break;
+                default:
+                    doubles.setNodeWeight(node, parser.getDoubleValue());
+                    break;
+            }
+        }
+        
+        GraphView build() {
+            switch (type) {
+                case INT:
+                    return ints.build();
+                case LONG:
+                    return longs.build();
+                default:
+                    return doubles.build();
+            }
+        }
+    }
 }
-
@@ -0,0 +1,36 @@
+package data;
+
+import graph.GraphView;
+import graph.WeightType;
+
+/**
+ * Graph loaded straight into a compact representation,
+ * together with the metadata fields of the input file.
+ */
+public class LoadedGraph {
+    private final GraphView graph;
+    private final Integer source;
+    private final String weightModel;
+    
+    public LoadedGraph(GraphView graph, Integer source, String weightModel) {
+        this.graph = graph;
+        this.source = source;
+        this.weightModel = weightModel;
+    }
+    
+    public GraphView getGraph() {
+        return graph;
+    }
+    
+    public Integer getSource() {
+        return source;
+    }
+    
+    public String getWeightModel() {
+        return weightModel;
+    }
+    
+    public WeightType getWeightType() {
+        return WeightType.of(graph);
+    }
+}
@@ -0,0 +1,246 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable graph in compressed-sparse-row form.
+ * The outgoing edges of vertex u occupy positions offsets[u] .. offsets[u + 1] - 1
+ * of the targets and weights arrays, so a traversal reads contiguous memory
+ * instead of following one Edge object per edge.
+ */
+public class CsrGraph implements GraphView {
+    private final int n;
+    private final boolean directed;
+    private final int edgeCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] nodeWeights;
+    
+    /**
+     * Wraps existing CSR arrays without copying; the caller must not modify them afterwards.
+     * @param n vertex count
+     * @param directed whether edges are directed
+     * @param edgeCount logical edge count
+     * @param offsets n + 1 edge offsets
+     * @param targets edge targets
+     * @param weights edge weights
+     * @param nodeWeights n node weights
+     */
+    public CsrGraph(int n, boolean directed, int edgeCount, int[] offsets, int[] targets, int[] weights, int[] nodeWeights) {
+        this.n = n;
+        this.directed = directed;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.nodeWeights = nodeWeights;
+    }
+    
+    /**
+     * Copies a list-based graph into CSR form, keeping the adjacency order of every vertex.
+     * @param graph source graph
+     * @return CSR copy of the graph
+     */
+    public static CsrGraph fromGraph(Graph graph) {
+        int n = graph.getVertexCount();
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] = offsets[u] + graph.getOutDegree(u);
+        }
+        
+        int[] targets = new int[offsets[n]];
+        int[] weights = new int[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            int pos = offsets[u];
+            for (Edge edge : graph.getNeighbors(u)) {
+                targets[pos] = edge.to;
+                weights[pos] = edge.weight;
+                pos++;
+            }
+        }
+        
+        int[] nodeWeights = new int[n];
+        for (int v = 0; v < n; v++) {
+            nodeWeights[v] = graph.getNodeWeight(v);
+        }
+        
+        return new CsrGraph(n, graph.isDirected(), graph.getEdgeCount(), offsets, targets, weights, nodeWeights);
+    }
+    
+    @Override
+    public int getVertexCount() {
+        return n;
+    }
+    
+    @Override
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+    
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+    
+    @Override
+    public int getOutDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+    
+    @Override
+    public int getNeighbor(int u, int i) {
+        return targets[offsets[u] + i];
+    }
+    
+    @Override
+    public int getNeighborWeight(int u, int i) {
+        return weights[offsets[u] + i];
+    }
+    
+    @Override
+    public int getNodeWeight(int node) {
+        return nodeWeights[node];
+    }
+    
+    /**
+     * @param u vertex
+     * @return position of the first outgoing edge of u in the target/weight arrays
+     */
+    public int edgeStart(int u) {
+        return offsets[u];
+    }
+    
+    /**
+     * @param u vertex
+     * @return position one past the last outgoing edge of u
+     */
+    public int edgeEnd(int u) {
+        return offsets[u + 1];
+    }
+    
+    public int edgeTarget(int e) {
+        return targets[e];
+    }
+    
+    public int edgeWeight(int e) {
+        return weights[e];
+    }
+    
+    /**
+     * Bulk builder that collects edges into flat primitive arrays
+     * and lays them out in CSR order with a counting sort on build().
+     * The vertex count and direction may be supplied after the edges,
+     * which lets streaming loaders accept input fields in any order.
+     */
+    public static class Builder {
+        private int n;
+        private boolean directed;
+        private int[] from;
+        private int[] to;
+        private int[] weight;
+        private int size;
+        private int maxVertex = -1;
+        private int[] nodeWeights;
+        
+        public Builder() {
+            this(-1, false, 16);
+        }
+        
+        public Builder(int n, boolean directed) {
+            this(n, directed, 16);
+        }
+        
+        public Builder(int n, boolean directed, int expectedEdges) {
+            this.n = n;
+            this.directed = directed;
+            int capacity = Math.max(expectedEdges, 1);
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+            this.weight = new int[capacity];
+            this.nodeWeights = new int[Math.max(n, 0)];
+        }
+        
+        public Builder setVertexCount(int n) {
+            this.n = n;
+            return this;
+        }
+        
+        public Builder setDirected(boolean directed) {
+            this.directed = directed;
+            return this;
+        }
+        
+        public Builder addEdge(int u, int v, int w) {
+            if (u < 0 || v < 0 || (n >= 0 && (u >= n || v >= n))) {
+                throw new IllegalArgumentException("Edge " + u + " -> " + v + " out of range for n=" + n);
+            }
+            if (size == from.length) {
+                int capacity = size * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[size] = u;
+            to[size] = v;
+            weight[size] = w;
+            size++;
+            maxVertex = Math.max(maxVertex, Math.max(u, v));
+            return this;
+        }
+        
+        public Builder setNodeWeight(int node, int w) {
+            if (node >= nodeWeights.length) {
+                nodeWeights = Arrays.copyOf(nodeWeights, Math.max(node + 1, nodeWeights.length * 2));
+            }
+            nodeWeights[node] = w;
+            return this;
+        }
+        
+        public int getEdgeCount() {
+            return size;
+        }
+        
+        /**
+         * Widens the collected edges and node weights, e.g. when a loader meets the first
+         * weight that does not fit an int. This builder must not be used afterwards.
+         * @return builder with the same content and long weights
+         */
+        public LongCsrGraph.Builder toLongBuilder() {
+            long[] wide = new long[from.length];
+            for (int i = 0; i < size; i++) {
+                wide[i] = weight[i];
+            }
+            long[] wideNodes = new long[nodeWeights.length];
+            for (int v = 0; v < nodeWeights.length; v++) {
+                wideNodes[v] = nodeWeights[v];
+            }
+            return new LongCsrGraph.Builder(n, directed, from, to, wide, size, maxVertex, wideNodes);
+        }
+        
+        /**
+         * @return builder with the same content and double weights; this builder must not be used afterwards
+         */
+        public DoubleCsrGraph.Builder toDoubleBuilder() {
+            return toLongBuilder().toDoubleBuilder();
+        }
+        
+        /**
+         * Lays out the collected edges. Edges keep their insertion order within each vertex.
+         * For undirected graphs each edge is stored in both directions.
+         * @return immutable CSR graph
+         */
+        public CsrGraph build() {
+            CsrLayout.check(n, maxVertex);
+            CsrLayout layout = new CsrLayout(n, directed, from, to, size);
+            int[] weights = new int[layout.targets.length];
+            for (int i = 0; i < size; i++) {
+                weights[layout.forward[i]] = weight[i];
+                if (!directed) {
+                    weights[layout.backward[i]] = weight[i];
+                }
+            }
+            return new CsrGraph(n, directed, size, layout.offsets, layout.targets, weights, Arrays.copyOf(nodeWeights, n));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package graph;
+
+/**
+ * Counting-sort CSR layout shared by the int, long and double builders. Only the structure
+ * is laid out; each builder scatters its own weight type through the recorded
+ * positions, so no weights are boxed or converted.
+ */
+final class CsrLayout {
+    final int[] offsets;
+    final int[] targets;
+    /** adjacency position of edge i in direction from -> to */
+    final int[] forward;
+    /** adjacency position of edge i in direction to -> from; null for directed graphs */
+    final int[] backward;
+    
+    CsrLayout(int n, boolean directed, int[] from, int[] to, int size) {
+        int entries = directed ? size : size * 2;
+        offsets = new int[n + 1];
+        for (int i = 0; i < size; i++) {
+            offsets[from[i] + 1]++;
+            if (!directed) {
+                offsets[to[i] + 1]++;
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        
+        int[] cursor = new int[n];
+        System.arraycopy(offsets, 0, cursor, 0, n);
+        targets = new int[entries];
+        forward = new int[size];
+        backward = directed ? null : new int[size];
+        for (int i = 0; i < size; i++) {
+            int pos = cursor[from[i]]++;
+            targets[pos] = to[i];
+            forward[i] = pos;
+            if (!directed) {
+                pos = cursor[to[i]]++;
+                targets[pos] = from[i];
+                backward[i] = pos;
+            }
+        }
+    }
+    
+    /**
+     * Checks the vertex count against the largest endpoint seen by a builder.
+     */
+    static void check(int n, int maxVertex) {
+        if (n < 0) {
+            throw new IllegalStateException("Vertex count was not set");
+        }
+        if (maxVertex >= n) {
+            throw new IllegalArgumentException("Edge endpoint " + maxVertex + " out of range for n=" + n);
+        }
+    }
+    
+    /**
+     * Clamps a wide weight for the int accessors of {@link GraphView}.
+     */
+    static int saturate(long weight) {
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, weight));
+    }
+}
@@ -0,0 +1,189 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable CSR graph with {@code double} edge and node weights, for fractional weights.
+ * Structural algorithms (SCC, topological sort) use it through {@link GraphView};
+ * the int weight accessors truncate and saturate, so path computations should use
+ * {@link #getDoubleNeighborWeight} and {@link #getDoubleNodeWeight}, as
+ * {@link graph.dagsp.DoubleShortestPaths} does.
+ */
+public class DoubleCsrGraph implements GraphView {
+    private final int n;
+    private final boolean directed;
+    private final int edgeCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private final double[] nodeWeights;
+    
+    /**
+     * Wraps existing CSR arrays without copying; the caller must not modify them afterwards.
+     */
+    public DoubleCsrGraph(int n, boolean directed, int edgeCount, int[] offsets, int[] targets, double[] weights, double[] nodeWeights) {
+        this.n = n;
+        this.directed = directed;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.nodeWeights = nodeWeights;
+    }
+    
+    @Override
+    public int getVertexCount() {
+        return n;
+    }
+    
+    @Override
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+    
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+    
+    @Override
+    public int getOutDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+    
+    @Override
+    public int getNeighbor(int u, int i) {
+        return targets[offsets[u] + i];
+    }
+    
+    /**
+     * @return weight truncated toward zero and clamped to the int range
+     */
+    @Override
+    public int getNeighborWeight(int u, int i) {
+        return (int) weights[offsets[u] + i];
+    }
+    
+    /**
+     * @return node weight truncated toward zero and clamped to the int range
+     */
+    @Override
+    public int getNodeWeight(int node) {
+        return (int) nodeWeights[node];
+    }
+    
+    public double getDoubleNeighborWeight(int u, int i) {
+        return weights[offsets[u] + i];
+    }
+    
+    public double getDoubleNodeWeight(int node) {
+        return nodeWeights[node];
+    }
+    
+    public int edgeStart(int u) {
+        return offsets[u];
+    }
+    
+    public int edgeEnd(int u) {
+        return offsets[u + 1];
+    }
+    
+    public int edgeTarget(int e) {
+        return targets[e];
+    }
+    
+    public double edgeWeight(int e) {
+        return weights[e];
+    }
+    
+    /**
+     * Collects edges like {@link CsrGraph.Builder}, with double weights.
+     */
+    public static class Builder {
+        private int n;
+        private boolean directed;
+        private int[] from;
+        private int[] to;
+        private double[] weight;
+        private int size;
+        private int maxVertex = -1;
+        private double[] nodeWeights;
+        
+        public Builder(int n, boolean directed, int expectedEdges) {
+            this.n = n;
+            this.directed = directed;
+            int capacity = Math.max(expectedEdges, 1);
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+            this.weight = new double[capacity];
+            this.nodeWeights = new double[Math.max(n, 0)];
+        }
+        
+        /**
+         * Continues from the edges of a narrower builder, taking over its arrays.
+         */
+        Builder(int n, boolean directed, int[] from, int[] to, double[] weight, int size, int maxVertex, double[] nodeWeights) {
+            this.n = n;
+            this.directed = directed;
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.size = size;
+            this.maxVertex = maxVertex;
+            this.nodeWeights = nodeWeights;
+        }
+        
+        public Builder setVertexCount(int n) {
+            this.n = n;
+            return this;
+        }
+        
+        public Builder setDirected(boolean directed) {
+            this.directed = directed;
+            return this;
+        }
+        
+        public Builder addEdge(int u, int v, double w) {
+            if (u < 0 || v < 0 || (n >= 0 && (u >= n || v >= n))) {
+                throw new IllegalArgumentException("Edge " + u + " -> " + v + " out of range for n=" + n);
+            }
+            if (size == from.length) {
+                int capacity = size * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[size] = u;
+            to[size] = v;
+            weight[size] = w;
+            size++;
+            maxVertex = Math.max(maxVertex, Math.max(u, v));
+            return this;
+        }
+        
+        public Builder setNodeWeight(int node, double w) {
+            if (node >= nodeWeights.length) {
+                nodeWeights = Arrays.copyOf(nodeWeights, Math.max(node + 1, nodeWeights.length * 2));
+            }
+            nodeWeights[node] = w;
+            return this;
+        }
+        
+        public int getEdgeCount() {
+            return size;
+        }
+        
+        public DoubleCsrGraph build() {
+            CsrLayout.check(n, maxVertex);
+            CsrLayout layout = new CsrLayout(n, directed, from, to, size);
+            double[] weights = new double[layout.targets.length];
+            for (int i = 0; i < size; i++) {
+                weights[layout.forward[i]] = weight[i];
+                if (!directed) {
+                    weights[layout.backward[i]] = weight[i];
+                }
+            }
+            return new DoubleCsrGraph(n, directed, size, layout.offsets, layout.targets, weights, Arrays.copyOf(nodeWeights, n));
+        }
+    }
+}
@@ -2,17 +2,17 @@ package graph;
 
 import java.util.*;
 
-public class Graph {
+public class Graph implements GraphView {
     private final int n;
     private final boolean directed;
     private final List<List<Edge>> adjList;
-    private final Map<Integer, Integer> nodeWeights;
+    private final int[] nodeWeights;
     
     public Graph(int n, boolean directed) {
         this.n = n;
         this.directed = directed;
         this.adjList = new ArrayList<>();
-        this.nodeWeights = new HashMap<>();
+        this.nodeWeights = new int[n];
         
         for (int i = 0; i < n; i++) {
             adjList.add(new ArrayList<>());
@@ -27,13 +27,15 @@ public class Graph {
     }
     
     public void setNodeWeight(int node, int weight) {
-        nodeWeights.put(node, weight);
+        nodeWeights[node] = weight;
     }
     
+    @Override
     public int getNodeWeight(int node) {
-        return nodeWeights.getOrDefault(node, 0);
+        return nodeWeights[node];
     }
     
+    @Override
     public int getVertexCount() {
         return n;
     }
@@ -42,14 +44,31 @@ public class Graph {
         return adjList.get(u);
     }
     
+    @Override
+    public int getOutDegree(int u) {
+        return adjList.get(u).size();
+    }
+    
+    @Override
+    public int getNeighbor(int u, int i) {
+        return adjList.get(u).get(i).to;
+    }
+    
+    @Override
+    public int getNeighborWeight(int u, int i) {
+        return adjList.get(u).get(i).weight;
+    }
+    
     public List<List<Edge>> getAdjList() {
         return adjList;
     }
     
+    @Override
     public boolean isDirected() {
         return directed;
     }
     
+    @Override
     public int getEdgeCount() {
         int count = 0;
         for (List<Edge> edges : adjList) {
@@ -65,13 +84,7 @@ public class Graph {
                 reversed.addEdge(edge.to, edge.from, edge.weight);
             }
         }
-        for (Map.Entry<Integer, Integer> entry : nodeWeights.entrySet()) {
-            reversed.setNodeWeight(entry.getKey(), entry.getValue());
-        }
+        System.arraycopy(nodeWeights, 0, reversed.nodeWeights, 0, n);
         return reversed;
     }
 }
-
-
-
-
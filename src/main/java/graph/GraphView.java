@@ -0,0 +1,36 @@
+package graph;
+
+/**
+ * Read-only view of a weighted graph.
+ * Implemented by both the list-based {@link Graph} and the array-based {@link CsrGraph},
+ * so the algorithms can traverse either representation by index without allocating.
+ */
+public interface GraphView {
+    int getVertexCount();
+    
+    int getEdgeCount();
+    
+    boolean isDirected();
+    
+    /**
+     * @param u vertex
+     * @return number of outgoing adjacency entries of u
+     */
+    int getOutDegree(int u);
+    
+    /**
+     * @param u vertex
+     * @param i adjacency index, 0 <= i < getOutDegree(u)
+     * @return target vertex of the i-th outgoing edge of u
+     */
+    int getNeighbor(int u, int i);
+    
+    /**
+     * @param u vertex
+     * @param i adjacency index, 0 <= i < getOutDegree(u)
+     * @return weight of the i-th outgoing edge of u
+     */
+    int getNeighborWeight(int u, int i);
+    
+    int getNodeWeight(int node);
+}
@@ -0,0 +1,205 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * Immutable CSR graph with {@code long} edge and node weights, for weights or path
+ * lengths beyond the int range (e.g. microsecond durations summed over deep DAGs).
+ * Structural algorithms (SCC, topological sort) use it through {@link GraphView};
+ * the int weight accessors saturate at the int range, so path computations should use
+ * {@link #getLongNeighborWeight} and {@link #getLongNodeWeight}, as
+ * {@link graph.dagsp.LongShortestPaths} does.
+ */
+public class LongCsrGraph implements GraphView {
+    private final int n;
+    private final boolean directed;
+    private final int edgeCount;
+    private final int[] offsets;
+    private final int[] targets;
+    private final long[] weights;
+    private final long[] nodeWeights;
+    
+    /**
+     * Wraps existing CSR arrays without copying; the caller must not modify them afterwards.
+     */
+    public LongCsrGraph(int n, boolean directed, int edgeCount, int[] offsets, int[] targets, long[] weights, long[] nodeWeights) {
+        this.n = n;
+        this.directed = directed;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.nodeWeights = nodeWeights;
+    }
+    
+    @Override
+    public int getVertexCount() {
+        return n;
+    }
+    
+    @Override
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+    
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+    
+    @Override
+    public int getOutDegree(int u) {
+        return offsets[u + 1] - offsets[u];
+    }
+    
+    @Override
+    public int getNeighbor(int u, int i) {
+        return targets[offsets[u] + i];
+    }
+    
+    /**
+     * @return weight clamped to the int range
+     */
+    @Override
+    public int getNeighborWeight(int u, int i) {
+        return CsrLayout.saturate(weights[offsets[u] + i]);
+    }
+    
+    /**
+     * @return node weight clamped to the int range
+     */
+    @Override
+    public int getNodeWeight(int node) {
+        return CsrLayout.saturate(nodeWeights[node]);
+    }
+    
+    public long getLongNeighborWeight(int u, int i) {
+        return weights[offsets[u] + i];
+    }
+    
+    public long getLongNodeWeight(int node) {
+        return nodeWeights[node];
+    }
+    
+    public int edgeStart(int u) {
+        return offsets[u];
+    }
+    
+    public int edgeEnd(int u) {
+        return offsets[u + 1];
+    }
+    
+    public int edgeTarget(int e) {
+        return targets[e];
+    }
+    
+    public long edgeWeight(int e) {
+        return weights[e];
+    }
+    
+    /**
+     * Collects edges like {@link CsrGraph.Builder}, with long weights.
+     */
+    public static class Builder {
+        private int n;
+        private boolean directed;
+        private int[] from;
+        private int[] to;
+        private long[] weight;
+        private int size;
+        private int maxVertex = -1;
+        private long[] nodeWeights;
+        
+        public Builder(int n, boolean directed, int expectedEdges) {
+            this.n = n;
+            this.directed = directed;
+            int capacity = Math.max(expectedEdges, 1);
+            this.from = new int[capacity];
+            this.to = new int[capacity];
+            this.weight = new long[capacity];
+            this.nodeWeights = new long[Math.max(n, 0)];
+        }
+        
+        /**
+         * Continues from the edges of a narrower builder, taking over its arrays.
+         */
+        Builder(int n, boolean directed, int[] from, int[] to, long[] weight, int size, int maxVertex, long[] nodeWeights) {
+            this.n = n;
+            this.directed = directed;
+            this.from = from;
+            this.to = to;
+            this.weight = weight;
+            this.size = size;
+            this.maxVertex = maxVertex;
+            this.nodeWeights = nodeWeights;
+        }
+        
+        public Builder setVertexCount(int n) {
+            this.n = n;
+            return this;
+        }
+        
+        public Builder setDirected(boolean directed) {
+            this.directed = directed;
+            return this;
+        }
+        
+        public Builder addEdge(int u, int v, long w) {
+            if (u < 0 || v < 0 || (n >= 0 && (u >= n || v >= n))) {
+                throw new IllegalArgumentException("Edge " + u + " -> " + v + " out of range for n=" + n);
+            }
+            if (size == from.length) {
+                int capacity = size * 2;
+                from = Arrays.copyOf(from, capacity);
+                to = Arrays.copyOf(to, capacity);
+                weight = Arrays.copyOf(weight, capacity);
+            }
+            from[size] = u;
+            to[size] = v;
+            weight[size] = w;
+            size++;
+            maxVertex = Math.max(maxVertex, Math.max(u, v));
+            return this;
+        }
+        
+        public Builder setNodeWeight(int node, long w) {
+            if (node >= nodeWeights.length) {
+                nodeWeights = Arrays.copyOf(nodeWeights, Math.max(node + 1, nodeWeights.length * 2));
+            }
+            nodeWeights[node] = w;
+            return this;
+        }
+        
+        public int getEdgeCount() {
+            return size;
+        }
+        
+        /**
+         * @return builder with the same content and double weights; this builder must not be used afterwards
+         */
+        public DoubleCsrGraph.Builder toDoubleBuilder() {
+            double[] wide = new double[from.length];
+            for (int i = 0; i < size; i++) {
+                wide[i] = weight[i];
+            }
+            double[] wideNodes = new double[nodeWeights.length];
+            for (int v = 0; v < nodeWeights.length; v++) {
+                wideNodes[v] = nodeWeights[v];
+            }
+            return new DoubleCsrGraph.Builder(n, directed, from, to, wide, size, maxVertex, wideNodes);
+        }
+        
+        public LongCsrGraph build() {
+            CsrLayout.check(n, maxVertex);
+            CsrLayout layout = new CsrLayout(n, directed, from, to, size);
+            long[] weights = new long[layout.targets.length];
+            for (int i = 0; i < size; i++) {
+                weights[layout.forward[i]] = weight[i];
+                if (!directed) {
+                    weights[layout.backward[i]] = weight[i];
+                }
+            }
+            return new LongCsrGraph(n, directed, size, layout.offsets, layout.targets, weights, Arrays.copyOf(nodeWeights, n));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package graph;
+
+import java.nio.IntBuffer;
+
+/**
+ * CSR graph whose arrays live in memory-mapped file regions.
+ * Reads go straight to the mapped pages, so opening a graph copies nothing
+ * and processes mapping the same file share the OS page cache.
+ */
+public class MappedCsrGraph implements GraphView {
+    private final int n;
+    private final boolean directed;
+    private final int edgeCount;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+    private final IntBuffer nodeWeights;
+    
+    public MappedCsrGraph(int n, boolean directed, int edgeCount,
+                          IntBuffer offsets, IntBuffer targets, IntBuffer weights, IntBuffer nodeWeights) {
+        this.n = n;
+        this.directed = directed;
+        this.edgeCount = edgeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.nodeWeights = nodeWeights;
+    }
+    
+    @Override
+    public int getVertexCount() {
+        return n;
+    }
+    
+    @Override
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+    
+    @Override
+    public boolean isDirected() {
+        return directed;
+    }
+    
+    @Override
+    public int getOutDegree(int u) {
+        return offsets.get(u + 1) - offsets.get(u);
+    }
+    
+    @Override
+    public int getNeighbor(int u, int i) {
+        return targets.get(offsets.get(u) + i);
+    }
+    
+    @Override
+    public int getNeighborWeight(int u, int i) {
+        return weights.get(offsets.get(u) + i);
+    }
+    
+    @Override
+    public int getNodeWeight(int node) {
+        return nodeWeights.get(node);
+    }
+}
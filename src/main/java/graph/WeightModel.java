@@ -0,0 +1,49 @@
+package graph;
+
+/**
+ * Which weights make up the length of a path.
+ * Under NODE a path costs the sum of its vertex weights (e.g. task durations),
+ * under MIXED the sum of its vertex and edge weights.
+ */
+public enum WeightModel {
+    EDGE("edge"),
+    NODE("node"),
+    MIXED("mixed");
+    
+    private final String name;
+    
+    WeightModel(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * @return value of the {@code weight_model} JSON field
+     */
+    public String getName() {
+        return name;
+    }
+    
+    public boolean usesEdgeWeights() {
+        return this != NODE;
+    }
+    
+    public boolean usesNodeWeights() {
+        return this != EDGE;
+    }
+    
+    /**
+     * @param name value of the {@code weight_model} JSON field; null means edge weights
+     * @throws IllegalArgumentException if the name is not a known model
+     */
+    public static WeightModel fromName(String name) {
+        if (name == null) {
+            return EDGE;
+        }
+        for (WeightModel model : values()) {
+            if (model.name.equals(name)) {
+                return model;
+            }
+        }
+        throw new IllegalArgumentException("Unknown weight model: " + name);
+    }
+}
@@ -0,0 +1,24 @@
+package graph;
+
+/**
+ * Primitive type of the weights stored by a graph. Loaders use the narrowest type
+ * that holds every weight of the input; path algorithms exist for each type.
+ */
+public enum WeightType {
+    INT,
+    LONG,
+    DOUBLE;
+    
+    /**
+     * @return DOUBLE for {@link DoubleCsrGraph}, LONG for {@link LongCsrGraph}, otherwise INT
+     */
+    public static WeightType of(GraphView graph) {
+        if (graph instanceof DoubleCsrGraph) {
+            return DOUBLE;
+        }
+        if (graph instanceof LongCsrGraph) {
+            return LONG;
+        }
+        return INT;
+    }
+}
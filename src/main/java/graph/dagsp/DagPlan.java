@@ -0,0 +1,200 @@
+package graph.dagsp;
+
+import graph.GraphView;
+import graph.WeightModel;
+import graph.topo.TopologicalSort;
+import metrics.Counter;
+import metrics.DetailedMetrics;
+import metrics.Metrics;
+import metrics.NoOpMetrics;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precomputed plan for repeated single-source path queries on a DAG.
+ * The topological order is computed once and the adjacency is copied into
+ * topological order, so each query is a single forward scan that starts
+ * at the source's position instead of at position 0. Node weights are folded
+ * into the copied edge weights (the cost of entering the target), so every
+ * {@link WeightModel} runs the same loop.
+ */
+public class DagPlan {
+    private final int n;
+    private final int[] order;
+    private final int[] position;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    // cost of a path consisting of the source alone, null if node weights are not used
+    private final int[] sourceCost;
+    private final Metrics metrics;
+    
+    /**
+     * Does not count relaxations, so queries pay nothing for metrics and the plan
+     * can be shared by any number of threads; pass a {@link DetailedMetrics} to count them.
+     * @param graph directed acyclic graph
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    public DagPlan(GraphView graph) {
+        this(graph, NoOpMetrics.INSTANCE);
+    }
+    
+    /**
+     * @param graph directed acyclic graph
+     * @param metrics receives edge relaxations of every query; must be thread-safe
+     *                (e.g. {@link DetailedMetrics}) if queries run concurrently
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    public DagPlan(GraphView graph, Metrics metrics) {
+        this(graph, WeightModel.EDGE, metrics);
+    }
+    
+    /**
+     * @param graph directed acyclic graph
+     * @param model which weights count towards path length, as in {@link ShortestPaths}
+     * @param metrics receives edge relaxations of every query; must be thread-safe if queries run concurrently
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    public DagPlan(GraphView graph, WeightModel model, Metrics metrics) {
+        this.n = graph.getVertexCount();
+        this.metrics = metrics;
+        
+        List<Integer> topoOrder = new TopologicalSort(graph, NoOpMetrics.INSTANCE).kahnSort();
+        if (topoOrder.size() != n) {
+            throw new IllegalArgumentException("Graph contains a cycle");
+        }
+        
+        this.order = new int[n];
+        this.position = new int[n];
+        this.offsets = new int[n + 1];
+        for (int p = 0; p < n; p++) {
+            int u = topoOrder.get(p);
+            order[p] = u;
+            position[u] = p;
+            offsets[p + 1] = offsets[p] + graph.getOutDegree(u);
+        }
+        
+        this.targets = new int[offsets[n]];
+        this.weights = new int[offsets[n]];
+        for (int p = 0; p < n; p++) {
+            int u = order[p];
+            int e = offsets[p];
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                targets[e] = v;
+                weights[e] = (model.usesEdgeWeights() ? graph.getNeighborWeight(u, i) : 0)
+                             + (model.usesNodeWeights() ? graph.getNodeWeight(v) : 0);
+                e++;
+            }
+        }
+        
+        if (model.usesNodeWeights()) {
+            sourceCost = new int[n];
+            for (int v = 0; v < n; v++) {
+                sourceCost[v] = graph.getNodeWeight(v);
+            }
+        } else {
+            sourceCost = null;
+        }
+    }
+    
+    public int getVertexCount() {
+        return n;
+    }
+    
+    /**
+     * @return topological order; must not be modified
+     */
+    public int[] getOrder() {
+        return order;
+    }
+    
+    /**
+     * @param vertex vertex
+     * @return index of the vertex in the topological order
+     */
+    public int getPosition(int vertex) {
+        return position[vertex];
+    }
+    
+    public ShortestPaths.PathResult shortestPaths(int source) {
+        int[] dist = new int[n];
+        int[] pred = new int[n];
+        shortestPaths(source, dist, pred);
+        return new ShortestPaths.PathResult(dist, pred);
+    }
+    
+    public ShortestPaths.PathResult longestPaths(int source) {
+        int[] dist = new int[n];
+        int[] pred = new int[n];
+        longestPaths(source, dist, pred);
+        return new ShortestPaths.PathResult(dist, pred);
+    }
+    
+    /**
+     * Single-source shortest paths written into caller-owned buffers,
+     * so repeated queries need not allocate. Only the first n entries are
+     * written, so the buffers may be longer than the graph.
+     * @param source source vertex
+     * @param dist distance per vertex, INF if unreachable
+     * @param pred predecessor per vertex, -1 if none
+     */
+    public void shortestPaths(int source, int[] dist, int[] pred) {
+        Arrays.fill(dist, 0, n, ShortestPaths.INF);
+        Arrays.fill(pred, 0, n, -1);
+        dist[source] = sourceCost == null ? 0 : sourceCost[source];
+        
+        for (int p = position[source]; p < n; p++) {
+            int u = order[p];
+            int du = dist[u];
+            if (du == ShortestPaths.INF) {
+                continue;
+            }
+            for (int e = offsets[p]; e < offsets[p + 1]; e++) {
+                int v = targets[e];
+                int newDist = du + weights[e];
+                metrics.increment(Counter.RELAXATIONS);
+                
+                if (newDist < dist[v]) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Single-source longest paths written into caller-owned buffers.
+     * @param source source vertex
+     * @param dist distance per vertex, -INF if unreachable
+     * @param pred predecessor per vertex, -1 if none
+     */
+    public void longestPaths(int source, int[] dist, int[] pred) {
+        Arrays.fill(dist, 0, n, -ShortestPaths.INF);
+        Arrays.fill(pred, 0, n, -1);
+        dist[source] = sourceCost == null ? 0 : sourceCost[source];
+        
+        for (int p = position[source]; p < n; p++) {
+            int u = order[p];
+            int du = dist[u];
+            if (du == -ShortestPaths.INF) {
+                continue;
+            }
+            for (int e = offsets[p]; e < offsets[p + 1]; e++) {
+                int v = targets[e];
+                int newDist = du + weights[e];
+                metrics.increment(Counter.RELAXATIONS);
+                
+                if (newDist > dist[v]) {
+                    dist[v] = newDist;
+                    pred[v] = u;
+                }
+            }
+        }
+    }
+    
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
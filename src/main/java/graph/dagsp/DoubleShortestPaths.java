@@ -0,0 +1,224 @@
+package graph.dagsp;
+
+import graph.DoubleCsrGraph;
+import graph.WeightModel;
+import graph.topo.TopologicalSort;
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.MetricsImpl;
+import metrics.NoOpMetrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link ShortestPaths} for fractional weights. Unreachable vertices hold positive
+ * (shortest) or negative (longest) infinity. Schedule values are summed in floating
+ * point, so slack is compared against a tolerance relative to the critical path length.
+ */
+public class DoubleShortestPaths {
+    private final DoubleCsrGraph graph;
+    private final WeightModel model;
+    private final Metrics metrics;
+    
+    public static final double INF = Double.POSITIVE_INFINITY;
+    
+    public DoubleShortestPaths(DoubleCsrGraph graph) {
+        this(graph, WeightModel.EDGE, new MetricsImpl());
+    }
+    
+    /**
+     * @param model which weights count towards path length
+     * @param metrics receives edge relaxations; the internal topological sort is not counted
+     */
+    public DoubleShortestPaths(DoubleCsrGraph graph, WeightModel model, Metrics metrics) {
+        this.graph = graph;
+        this.model = model;
+        this.metrics = metrics;
+    }
+    
+    public PathResult shortestPaths(int source) {
+        return paths(source, false);
+    }
+    
+    public PathResult longestPaths(int source) {
+        return paths(source, true);
+    }
+    
+    private PathResult paths(int source, boolean longest) {
+        int n = graph.getVertexCount();
+        double unreachable = longest ? -INF : INF;
+        double[] dist = new double[n];
+        int[] pred = new int[n];
+        
+        Arrays.fill(dist, unreachable);
+        Arrays.fill(pred, -1);
+        dist[source] = nodeCost(source);
+        
+        metrics.startTimer();
+        
+        List<Integer> topoOrder = new TopologicalSort(graph, NoOpMetrics.INSTANCE).kahnSort();
+        
+        for (int u : topoOrder) {
+            if (dist[u] != unreachable) {
+                int degree = graph.getOutDegree(u);
+                for (int i = 0; i < degree; i++) {
+                    int v = graph.getNeighbor(u, i);
+                    double newDist = dist[u] + edgeCost(u, i) + nodeCost(v);
+                    metrics.increment(Counter.RELAXATIONS);
+                    
+                    if (longest ? newDist > dist[v] : newDist < dist[v]) {
+                        dist[v] = newDist;
+                        pred[v] = u;
+                    }
+                }
+            }
+        }
+        
+        metrics.stopTimer();
+        
+        return new PathResult(dist, pred);
+    }
+    
+    /**
+     * Same schedule as {@link ShortestPaths#findCriticalPath()}, in double arithmetic.
+     * @return critical path, its length and per-vertex schedule values; empty if the graph has a cycle
+     */
+    public CriticalPathResult findCriticalPath() {
+        int n = graph.getVertexCount();
+        
+        metrics.startTimer();
+        
+        List<Integer> topoOrder = new TopologicalSort(graph, NoOpMetrics.INSTANCE).kahnSort();
+        
+        if (topoOrder.size() != n || n == 0) {
+            metrics.stopTimer();
+            return new CriticalPathResult(new ArrayList<>(), 0, new double[0], new double[0], new double[0]);
+        }
+        
+        double[] earliest = new double[n];
+        int[] pred = new int[n];
+        Arrays.fill(pred, -1);
+        
+        for (int u : topoOrder) {
+            double finish = earliest[u] + nodeCost(u);
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                double newDist = finish + edgeCost(u, i);
+                metrics.increment(Counter.RELAXATIONS);
+                
+                if (newDist > earliest[v]) {
+                    earliest[v] = newDist;
+                    pred[v] = u;
+                }
+            }
+        }
+        
+        int endVertex = 0;
+        double length = earliest[0] + nodeCost(0);
+        for (int v = 1; v < n; v++) {
+            double finish = earliest[v] + nodeCost(v);
+            if (finish > length) {
+                endVertex = v;
+                length = finish;
+            }
+        }
+        
+        double[] latest = new double[n];
+        double[] slack = new double[n];
+        for (int k = n - 1; k >= 0; k--) {
+            int u = topoOrder.get(k);
+            double best = length;
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                best = Math.min(best, latest[v] - edgeCost(u, i));
+                metrics.increment(Counter.RELAXATIONS);
+            }
+            latest[u] = best - nodeCost(u);
+            slack[u] = latest[u] - earliest[u];
+        }
+        
+        List<Integer> path = new ArrayList<>();
+        for (int v = endVertex; v != -1; v = pred[v]) {
+            path.add(v);
+        }
+        Collections.reverse(path);
+        
+        metrics.stopTimer();
+        
+        return new CriticalPathResult(path, length, earliest, latest, slack);
+    }
+    
+    private double nodeCost(int v) {
+        return model.usesNodeWeights() ? graph.getDoubleNodeWeight(v) : 0;
+    }
+    
+    private double edgeCost(int u, int i) {
+        return model.usesEdgeWeights() ? graph.getDoubleNeighborWeight(u, i) : 0;
+    }
+    
+    /**
+     * @return path from source to dest, empty if dest was not reached
+     */
+    public List<Integer> reconstructPath(int[] pred, int source, int dest) {
+        List<Integer> path = new ArrayList<>();
+        if (pred[dest] == -1 && source != dest) {
+            return path;
+        }
+        for (int current = dest; current != -1; current = pred[current]) {
+            path.add(current);
+            if (current == source) {
+                break;
+            }
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    public WeightModel getWeightModel() {
+        return model;
+    }
+    
+    public Metrics getMetrics() {
+        return metrics;
+    }
+    
+    public static class PathResult {
+        public final double[] distances;
+        public final int[] predecessors;
+        
+        public PathResult(double[] distances, int[] predecessors) {
+            this.distances = distances;
+            this.predecessors = predecessors;
+        }
+    }
+    
+    public static class CriticalPathResult {
+        private static final double TOLERANCE = 1e-9;
+        
+        public final List<Integer> path;
+        public final double length;
+        public final double[] earliestStart;
+        public final double[] latestStart;
+        public final double[] slack;
+        
+        public CriticalPathResult(List<Integer> path, double length,
+                                  double[] earliestStart, double[] latestStart, double[] slack) {
+            this.path = path;
+            this.length = length;
+            this.earliestStart = earliestStart;
+            this.latestStart = latestStart;
+            this.slack = slack;
+        }
+        
+        /**
+         * @return whether the slack of vertex is zero up to rounding
+         */
+        public boolean isCritical(int vertex) {
+            return Math.abs(slack[vertex]) <= TOLERANCE * Math.max(1.0, Math.abs(length));
+        }
+    }
+}
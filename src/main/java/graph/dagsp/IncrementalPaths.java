@@ -0,0 +1,256 @@
+package graph.dagsp;
+
+import graph.GraphView;
+import graph.topo.DynamicTopologicalOrder;
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.MetricsImpl;
+import metrics.NoOpMetrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Single-source shortest or longest paths on a DAG, repaired after edge insertions and
+ * weight changes instead of recomputed. A change to u -> v can only affect v and
+ * vertices downstream of it; those are re-evaluated from their incoming edges in
+ * topological order, and propagation stops at vertices whose distance and predecessor
+ * stay the same. The order itself is maintained by {@link DynamicTopologicalOrder}.
+ * The graph is kept simple: at most one edge per ordered vertex pair.
+ */
+public class IncrementalPaths {
+    private static final int[] UNCHANGED = new int[0];
+    
+    private final int source;
+    private final boolean longest;
+    private final int unreachable;
+    private final Metrics metrics;
+    private final DynamicTopologicalOrder order;
+    private final List<Map<Integer, Integer>> out = new ArrayList<>();
+    private final List<Map<Integer, Integer>> in = new ArrayList<>();
+    
+    private int n;
+    private int[] dist;
+    private int[] pred;
+    private boolean[] queued;
+    
+    /**
+     * @param dag initial graph, must be acyclic
+     * @param source fixed source vertex
+     * @param longest true for longest paths, false for shortest
+     * @param metrics receives relaxations and queue pushes
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    public IncrementalPaths(GraphView dag, int source, boolean longest, Metrics metrics) {
+        this.source = source;
+        this.longest = longest;
+        this.unreachable = longest ? -ShortestPaths.INF : ShortestPaths.INF;
+        this.metrics = metrics;
+        this.order = new DynamicTopologicalOrder(dag, NoOpMetrics.INSTANCE);
+        this.n = dag.getVertexCount();
+        this.dist = new int[Math.max(n, 16)];
+        this.pred = new int[dist.length];
+        this.queued = new boolean[dist.length];
+        
+        for (int u = 0; u < n; u++) {
+            out.add(new HashMap<>());
+            in.add(new HashMap<>());
+        }
+        for (int u = 0; u < n; u++) {
+            int degree = dag.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = dag.getNeighbor(u, i);
+                int w = dag.getNeighborWeight(u, i);
+                // keep the better of parallel edges, as a full recomputation would
+                Integer old = out.get(u).get(v);
+                if (old == null || better(w, old)) {
+                    out.get(u).put(v, w);
+                    in.get(v).put(u, w);
+                }
+            }
+        }
+        
+        Arrays.fill(dist, unreachable);
+        Arrays.fill(pred, -1);
+        dist[source] = 0;
+        for (int r = order.getRank(source) + 1; r < n; r++) {
+            int v = order.vertexAt(r);
+            recompute(v);
+        }
+    }
+    
+    public static IncrementalPaths shortest(GraphView dag, int source) {
+        return new IncrementalPaths(dag, source, false, new MetricsImpl());
+    }
+    
+    public static IncrementalPaths longest(GraphView dag, int source) {
+        return new IncrementalPaths(dag, source, true, new MetricsImpl());
+    }
+    
+    /**
+     * Inserts u -> v, or changes its weight if the edge already exists.
+     * Missing vertices up to max(u, v) are created.
+     * @return vertices whose distance or predecessor changed, in topological order
+     * @throws IllegalArgumentException if the edge would close a cycle
+     */
+    public int[] addEdge(int u, int v, int weight) {
+        if (u < n && out.get(u).containsKey(v)) {
+            return setWeight(u, v, weight);
+        }
+        if (!order.addEdge(u, v)) {
+            throw new IllegalArgumentException("Edge " + u + " -> " + v + " would create a cycle");
+        }
+        grow(order.getVertexCount());
+        out.get(u).put(v, weight);
+        in.get(v).put(u, weight);
+        return propagate(v);
+    }
+    
+    /**
+     * Changes the weight of an existing edge; decreases and increases are both repaired.
+     * @return vertices whose distance or predecessor changed, in topological order
+     * @throws IllegalArgumentException if there is no edge u -> v
+     */
+    public int[] setWeight(int u, int v, int weight) {
+        if (u >= n || !out.get(u).containsKey(v)) {
+            throw new IllegalArgumentException("No edge " + u + " -> " + v);
+        }
+        if (out.get(u).put(v, weight) == weight) {
+            return UNCHANGED;
+        }
+        in.get(v).put(u, weight);
+        return propagate(v);
+    }
+    
+    /**
+     * Re-evaluates start and everything downstream whose value changes, in rank order.
+     */
+    private int[] propagate(int start) {
+        if (start == source) {
+            return UNCHANGED;
+        }
+        PriorityQueue<Integer> queue = new PriorityQueue<>((a, b) -> Integer.compare(order.getRank(a), order.getRank(b)));
+        queue.offer(start);
+        queued[start] = true;
+        int[] changed = new int[8];
+        int count = 0;
+        
+        while (!queue.isEmpty()) {
+            int v = queue.poll();
+            queued[v] = false;
+            if (!recompute(v)) {
+                continue;
+            }
+            if (count == changed.length) {
+                changed = Arrays.copyOf(changed, count * 2);
+            }
+            changed[count++] = v;
+            for (int w : out.get(v).keySet()) {
+                if (!queued[w]) {
+                    queued[w] = true;
+                    queue.offer(w);
+                    metrics.increment(Counter.PUSHES);
+                }
+            }
+        }
+        return Arrays.copyOf(changed, count);
+    }
+    
+    /**
+     * Recomputes dist and pred of v from its incoming edges. On ties the current
+     * predecessor is kept, so equal-length alternatives do not count as changes.
+     * @return true if dist or pred changed
+     */
+    private boolean recompute(int v) {
+        int best = unreachable;
+        int bestPred = -1;
+        for (Map.Entry<Integer, Integer> edge : in.get(v).entrySet()) {
+            int u = edge.getKey();
+            metrics.increment(Counter.RELAXATIONS);
+            if (dist[u] == unreachable) {
+                continue;
+            }
+            int candidate = dist[u] + edge.getValue();
+            if (better(candidate, best) || (candidate == best && u == pred[v])) {
+                best = candidate;
+                bestPred = u;
+            }
+        }
+        if (best == dist[v] && bestPred == pred[v]) {
+            return false;
+        }
+        dist[v] = best;
+        pred[v] = bestPred;
+        return true;
+    }
+    
+    private boolean better(int candidate, int current) {
+        return longest ? candidate > current : candidate < current;
+    }
+    
+    private void grow(int vertexCount) {
+        if (vertexCount > dist.length) {
+            int capacity = Math.max(vertexCount, dist.length * 2);
+            int old = dist.length;
+            dist = Arrays.copyOf(dist, capacity);
+            pred = Arrays.copyOf(pred, capacity);
+            queued = Arrays.copyOf(queued, capacity);
+            Arrays.fill(dist, old, capacity, unreachable);
+            Arrays.fill(pred, old, capacity, -1);
+        }
+        while (n < vertexCount) {
+            out.add(new HashMap<>());
+            in.add(new HashMap<>());
+            n++;
+        }
+    }
+    
+    public int getVertexCount() {
+        return n;
+    }
+    
+    public int getSource() {
+        return source;
+    }
+    
+    /**
+     * @return distance from the source; INF (shortest) or -INF (longest) if unreachable
+     */
+    public int getDistance(int vertex) {
+        return dist[vertex];
+    }
+    
+    public int getPredecessor(int vertex) {
+        return pred[vertex];
+    }
+    
+    /**
+     * @return path from the source to dest, empty if dest is unreachable
+     */
+    public List<Integer> getPath(int dest) {
+        if (dist[dest] == unreachable) {
+            return new ArrayList<>();
+        }
+        List<Integer> path = new ArrayList<>();
+        for (int v = dest; v != -1; v = pred[v]) {
+            path.add(v);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    /**
+     * @return copy of the current distances and predecessors
+     */
+    public ShortestPaths.PathResult toPathResult() {
+        return new ShortestPaths.PathResult(Arrays.copyOf(dist, n), Arrays.copyOf(pred, n));
+    }
+    
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
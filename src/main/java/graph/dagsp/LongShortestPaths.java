@@ -0,0 +1,220 @@
+package graph.dagsp;
+
+import graph.LongCsrGraph;
+import graph.WeightModel;
+import graph.topo.TopologicalSort;
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.MetricsImpl;
+import metrics.NoOpMetrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link ShortestPaths} for long weights. Unreachable vertices hold INF (shortest) or
+ * -INF (longest), which are never used as operands, so they cannot wrap around;
+ * every sum is checked and a path whose length does not fit a long throws
+ * ArithmeticException instead of producing a wrong distance.
+ */
+public class LongShortestPaths {
+    private final LongCsrGraph graph;
+    private final WeightModel model;
+    private final Metrics metrics;
+    
+    public static final long INF = Long.MAX_VALUE;
+    
+    public LongShortestPaths(LongCsrGraph graph) {
+        this(graph, WeightModel.EDGE, new MetricsImpl());
+    }
+    
+    /**
+     * @param model which weights count towards path length
+     * @param metrics receives edge relaxations; the internal topological sort is not counted
+     */
+    public LongShortestPaths(LongCsrGraph graph, WeightModel model, Metrics metrics) {
+        this.graph = graph;
+        this.model = model;
+        this.metrics = metrics;
+    }
+    
+    public PathResult shortestPaths(int source) {
+        return paths(source, false);
+    }
+    
+    public PathResult longestPaths(int source) {
+        return paths(source, true);
+    }
+    
+    private PathResult paths(int source, boolean longest) {
+        int n = graph.getVertexCount();
+        long unreachable = longest ? -INF : INF;
+        long[] dist = new long[n];
+        int[] pred = new int[n];
+        
+        Arrays.fill(dist, unreachable);
+        Arrays.fill(pred, -1);
+        dist[source] = nodeCost(source);
+        
+        metrics.startTimer();
+        
+        List<Integer> topoOrder = new TopologicalSort(graph, NoOpMetrics.INSTANCE).kahnSort();
+        
+        for (int u : topoOrder) {
+            if (dist[u] != unreachable) {
+                int degree = graph.getOutDegree(u);
+                for (int i = 0; i < degree; i++) {
+                    int v = graph.getNeighbor(u, i);
+                    long newDist = Math.addExact(Math.addExact(dist[u], edgeCost(u, i)), nodeCost(v));
+                    metrics.increment(Counter.RELAXATIONS);
+                    
+                    if (longest ? newDist > dist[v] : newDist < dist[v]) {
+                        dist[v] = newDist;
+                        pred[v] = u;
+                    }
+                }
+            }
+        }
+        
+        metrics.stopTimer();
+        
+        return new PathResult(dist, pred);
+    }
+    
+    /**
+     * Same schedule as {@link ShortestPaths#findCriticalPath()}, in long arithmetic.
+     * @return critical path, its length and per-vertex schedule values; empty if the graph has a cycle
+     */
+    public CriticalPathResult findCriticalPath() {
+        int n = graph.getVertexCount();
+        
+        metrics.startTimer();
+        
+        List<Integer> topoOrder = new TopologicalSort(graph, NoOpMetrics.INSTANCE).kahnSort();
+        
+        if (topoOrder.size() != n || n == 0) {
+            metrics.stopTimer();
+            return new CriticalPathResult(new ArrayList<>(), 0, new long[0], new long[0], new long[0]);
+        }
+        
+        long[] earliest = new long[n];
+        int[] pred = new int[n];
+        Arrays.fill(pred, -1);
+        
+        for (int u : topoOrder) {
+            long finish = Math.addExact(earliest[u], nodeCost(u));
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                long newDist = Math.addExact(finish, edgeCost(u, i));
+                metrics.increment(Counter.RELAXATIONS);
+                
+                if (newDist > earliest[v]) {
+                    earliest[v] = newDist;
+                    pred[v] = u;
+                }
+            }
+        }
+        
+        int endVertex = 0;
+        long length = Math.addExact(earliest[0], nodeCost(0));
+        for (int v = 1; v < n; v++) {
+            long finish = Math.addExact(earliest[v], nodeCost(v));
+            if (finish > length) {
+                endVertex = v;
+                length = finish;
+            }
+        }
+        
+        long[] latest = new long[n];
+        long[] slack = new long[n];
+        for (int k = n - 1; k >= 0; k--) {
+            int u = topoOrder.get(k);
+            long best = length;
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                best = Math.min(best, Math.subtractExact(latest[v], edgeCost(u, i)));
+                metrics.increment(Counter.RELAXATIONS);
+            }
+            latest[u] = Math.subtractExact(best, nodeCost(u));
+            slack[u] = Math.subtractExact(latest[u], earliest[u]);
+        }
+        
+        List<Integer> path = new ArrayList<>();
+        for (int v = endVertex; v != -1; v = pred[v]) {
+            path.add(v);
+        }
+        Collections.reverse(path);
+        
+        metrics.stopTimer();
+        
+        return new CriticalPathResult(path, length, earliest, latest, slack);
+    }
+    
+    private long nodeCost(int v) {
+        return model.usesNodeWeights() ? graph.getLongNodeWeight(v) : 0;
+    }
+    
+    private long edgeCost(int u, int i) {
+        return model.usesEdgeWeights() ? graph.getLongNeighborWeight(u, i) : 0;
+    }
+    
+    /**
+     * @return path from source to dest, empty if dest was not reached
+     */
+    public List<Integer> reconstructPath(int[] pred, int source, int dest) {
+        List<Integer> path = new ArrayList<>();
+        if (pred[dest] == -1 && source != dest) {
+            return path;
+        }
+        for (int current = dest; current != -1; current = pred[current]) {
+            path.add(current);
+            if (current == source) {
+                break;
+            }
+        }
+        Collections.reverse(path);
+        return path;
+    }
+    
+    public WeightModel getWeightModel() {
+        return model;
+    }
+    
+    public Metrics getMetrics() {
+        return metrics;
+    }
+    
+    public static class PathResult {
+        public final long[] distances;
+        public final int[] predecessors;
+        
+        public PathResult(long[] distances, int[] predecessors) {
+            this.distances = distances;
+            this.predecessors = predecessors;
+        }
+    }
+    
+    public static class CriticalPathResult {
+        public final List<Integer> path;
+        public final long length;
+        public final long[] earliestStart;
+        public final long[] latestStart;
+        public final long[] slack;
+        
+        public CriticalPathResult(List<Integer> path, long length,
+                                  long[] earliestStart, long[] latestStart, long[] slack) {
+            this.path = path;
+            this.length = length;
+            this.earliestStart = earliestStart;
+            this.latestStart = latestStart;
+            this.slack = slack;
+        }
+        
+        public boolean isCritical(int vertex) {
+            return slack[vertex] == 0;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package graph.dagsp;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Shortest/longest paths from many sources over one shared DagPlan, computed on a fork-join pool.
+ * Sources are split into chunks; each chunk runs sequentially on one worker and
+ * reuses a single dist/pred buffer pair for all its sources.
+ * Workers share the plan's metrics, so build the plan with thread-safe or no-op metrics.
+ */
+public class MultiSourcePaths {
+    private final DagPlan plan;
+    private final ForkJoinPool pool;
+    
+    public MultiSourcePaths(DagPlan plan) {
+        this(plan, ForkJoinPool.commonPool());
+    }
+    
+    public MultiSourcePaths(DagPlan plan, ForkJoinPool pool) {
+        this.plan = plan;
+        this.pool = pool;
+    }
+    
+    /**
+     * @param sources source vertices
+     * @return one distance and predecessor row per source
+     */
+    public BatchResult shortestPaths(int[] sources) {
+        return dense(sources, false);
+    }
+    
+    /**
+     * @param sources source vertices
+     * @return one distance and predecessor row per source
+     */
+    public BatchResult longestPaths(int[] sources) {
+        return dense(sources, true);
+    }
+    
+    /**
+     * Streams one row per source to the consumer. Rows live in per-worker buffers
+     * that are overwritten by the next source, so the consumer must copy anything it keeps.
+     * The consumer is called concurrently from pool threads.
+     * @param sources source vertices
+     * @param consumer receives each row
+     */
+    public void shortestPaths(int[] sources, RowConsumer consumer) {
+        pool.invoke(new BatchTask(sources, 0, sources.length, chunkSize(sources.length), false, consumer, null, null));
+    }
+    
+    /**
+     * Longest-path counterpart of {@link #shortestPaths(int[], RowConsumer)}.
+     * @param sources source vertices
+     * @param consumer receives each row
+     */
+    public void longestPaths(int[] sources, RowConsumer consumer) {
+        pool.invoke(new BatchTask(sources, 0, sources.length, chunkSize(sources.length), true, consumer, null, null));
+    }
+    
+    private BatchResult dense(int[] sources, boolean longest) {
+        int n = plan.getVertexCount();
+        int[][] distances = new int[sources.length][n];
+        int[][] predecessors = new int[sources.length][n];
+        
+        // dense rows are computed in place, so no per-worker buffer is needed
+        pool.invoke(new BatchTask(sources, 0, sources.length, chunkSize(sources.length), longest,
+                (index, source, dist, pred) -> {}, distances, predecessors));
+        
+        return new BatchResult(sources.clone(), distances, predecessors);
+    }
+    
+    private int chunkSize(int count) {
+        int tasks = pool.getParallelism() * 4;
+        return Math.max(1, (count + tasks - 1) / tasks);
+    }
+    
+    private class BatchTask extends RecursiveAction {
+        private final int[] sources;
+        private final int from;
+        private final int to;
+        private final int chunk;
+        private final boolean longest;
+        private final RowConsumer consumer;
+        private final int[][] distances;
+        private final int[][] predecessors;
+        
+        BatchTask(int[] sources, int from, int to, int chunk, boolean longest, RowConsumer consumer,
+                  int[][] distances, int[][] predecessors) {
+            this.sources = sources;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.longest = longest;
+            this.consumer = consumer;
+            this.distances = distances;
+            this.predecessors = predecessors;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > chunk) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BatchTask(sources, from, mid, chunk, longest, consumer, distances, predecessors),
+                          new BatchTask(sources, mid, to, chunk, longest, consumer, distances, predecessors));
+                return;
+            }
+            
+            int n = plan.getVertexCount();
+            int[] dist = distances == null ? new int[n] : null;
+            int[] pred = distances == null ? new int[n] : null;
+            for (int i = from; i < to; i++) {
+                if (distances != null) {
+                    dist = distances[i];
+                    pred = predecessors[i];
+                }
+                if (longest) {
+                    plan.longestPaths(sources[i], dist, pred);
+                } else {
+                    plan.shortestPaths(sources[i], dist, pred);
+                }
+                consumer.accept(i, sources[i], dist, pred);
+            }
+        }
+    }
+    
+    @FunctionalInterface
+    public interface RowConsumer {
+        /**
+         * @param index position of the source in the input array
+         * @param source source vertex
+         * @param dist distances from the source; reused after this call returns
+         * @param pred predecessors; reused after this call returns
+         */
+        void accept(int index, int source, int[] dist, int[] pred);
+    }
+    
+    public static class BatchResult {
+        public final int[] sources;
+        public final int[][] distances;
+        public final int[][] predecessors;
+        
+        public BatchResult(int[] sources, int[][] distances, int[][] predecessors) {
+            this.sources = sources;
+            this.distances = distances;
+            this.predecessors = predecessors;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package graph.dagsp;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * Shortest- or longest-path tree of one query, built from its predecessor array.
+ * Children are stored in CSR form and every reached vertex gets its depth and
+ * its preorder (Euler tour) interval, so a whole path is never materialized:
+ * {@link PathIterator} walks a single path without allocating, and
+ * {@link #forEachPath} emits all paths in O(V) by reusing the common prefix.
+ * Works for the predecessors of {@link ShortestPaths}, {@link LongShortestPaths}
+ * and {@link DoubleShortestPaths} alike.
+ */
+public class PathTree {
+    private final int source;
+    private final int[] parent;
+    private final int[] childOffsets;
+    private final int[] children;
+    private final int[] depth;
+    private final int[] enter;
+    private final int[] exit;
+    private final int[] preorder;
+    
+    /**
+     * Receives the paths of {@link #forEachPath}. The path array is shared between
+     * calls: entries 0 .. length - 1 hold the current path from the source and
+     * are only valid during the call.
+     */
+    @FunctionalInterface
+    public interface PathVisitor {
+        void visit(int vertex, int[] path, int length);
+    }
+    
+    /**
+     * @param predecessors predecessor of each vertex on its path, -1 for the source and unreached vertices
+     * @param source root of the tree
+     */
+    public PathTree(int[] predecessors, int source) {
+        int n = predecessors.length;
+        this.source = source;
+        this.parent = predecessors;
+        
+        childOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            if (v != source && predecessors[v] != -1) {
+                childOffsets[predecessors[v] + 1]++;
+            }
+        }
+        for (int u = 0; u < n; u++) {
+            childOffsets[u + 1] += childOffsets[u];
+        }
+        children = new int[childOffsets[n]];
+        int[] cursor = new int[n];
+        System.arraycopy(childOffsets, 0, cursor, 0, n);
+        for (int v = 0; v < n; v++) {
+            if (v != source && predecessors[v] != -1) {
+                children[cursor[predecessors[v]]++] = v;
+            }
+        }
+        
+        depth = new int[n];
+        enter = new int[n];
+        exit = new int[n];
+        Arrays.fill(depth, -1);
+        Arrays.fill(enter, -1);
+        Arrays.fill(exit, -1);
+        preorder = new int[children.length + 1];
+        
+        // iterative preorder; next[k] is the next child position of the k-th vertex on the stack
+        int[] stack = new int[preorder.length];
+        int[] next = new int[preorder.length];
+        int top = 0;
+        int visited = 0;
+        stack[0] = source;
+        next[0] = childOffsets[source];
+        depth[source] = 0;
+        enter[source] = visited;
+        preorder[visited++] = source;
+        while (top >= 0) {
+            int u = stack[top];
+            if (next[top] < childOffsets[u + 1]) {
+                int c = children[next[top]++];
+                depth[c] = top + 1;
+                enter[c] = visited;
+                preorder[visited++] = c;
+                top++;
+                stack[top] = c;
+                next[top] = childOffsets[c];
+            } else {
+                exit[u] = visited;
+                top--;
+            }
+        }
+    }
+    
+    public int getSource() {
+        return source;
+    }
+    
+    /**
+     * @return number of vertices in the tree, i.e. reached by the query
+     */
+    public int size() {
+        return preorder.length;
+    }
+    
+    public boolean contains(int v) {
+        return depth[v] >= 0;
+    }
+    
+    /**
+     * @return parent of v in the tree, -1 for the source and unreached vertices
+     */
+    public int getParent(int v) {
+        return v == source ? -1 : parent[v];
+    }
+    
+    /**
+     * @return number of edges from the source to v, -1 if v was not reached
+     */
+    public int getDepth(int v) {
+        return depth[v];
+    }
+    
+    public int getChildCount(int u) {
+        return childOffsets[u + 1] - childOffsets[u];
+    }
+    
+    /**
+     * @return i-th child of u; children are ordered by vertex id
+     */
+    public int getChild(int u, int i) {
+        return children[childOffsets[u] + i];
+    }
+    
+    /**
+     * @return preorder index of v, -1 if v was not reached
+     */
+    public int getEnter(int v) {
+        return enter[v];
+    }
+    
+    /**
+     * @return one past the preorder index of the last vertex in the subtree of v
+     */
+    public int getExit(int v) {
+        return exit[v];
+    }
+    
+    /**
+     * @return vertex at preorder index i
+     */
+    public int getPreorder(int i) {
+        return preorder[i];
+    }
+    
+    /**
+     * @return whether u lies on the path from the source to v (u itself included)
+     */
+    public boolean isAncestor(int u, int v) {
+        return contains(u) && contains(v) && enter[u] <= enter[v] && enter[v] < exit[u];
+    }
+    
+    /**
+     * @return iterator over the path from the source to target; empty if target was not reached
+     */
+    public PathIterator path(int target) {
+        PathIterator iterator = new PathIterator();
+        iterator.reset(target);
+        return iterator;
+    }
+    
+    /**
+     * Visits every reached vertex in preorder with its full path. The path buffer
+     * grows and shrinks like a stack, so each vertex is written once and the total
+     * work is O(V) plus whatever the visitor does.
+     */
+    public void forEachPath(PathVisitor visitor) {
+        int[] path = new int[maxDepth() + 1];
+        for (int i = 0; i < preorder.length; i++) {
+            int v = preorder[i];
+            path[depth[v]] = v;
+            visitor.visit(v, path, depth[v] + 1);
+        }
+    }
+    
+    private int maxDepth() {
+        int max = 0;
+        for (int v : preorder) {
+            max = Math.max(max, depth[v]);
+        }
+        return max;
+    }
+    
+    /**
+     * Walks from the source down to a target. The next vertex is the child whose
+     * preorder interval holds the target, found by binary search over the children,
+     * so iteration allocates nothing and an iterator can be reused with {@link #reset}.
+     */
+    public class PathIterator implements PrimitiveIterator.OfInt {
+        private int target;
+        private int current;
+        
+        /**
+         * Restarts the iterator for another target.
+         */
+        public void reset(int target) {
+            this.target = target;
+            this.current = contains(target) ? source : -1;
+        }
+        
+        @Override
+        public boolean hasNext() {
+            return current != -1;
+        }
+        
+        @Override
+        public int nextInt() {
+            if (current == -1) {
+                throw new NoSuchElementException();
+            }
+            int v = current;
+            current = v == target ? -1 : childToward(v);
+            return v;
+        }
+        
+        private int childToward(int u) {
+            int lo = childOffsets[u];
+            int hi = childOffsets[u + 1] - 1;
+            int position = enter[target];
+            while (lo < hi) {
+                int mid = (lo + hi + 1) >>> 1;
+                if (enter[children[mid]] <= position) {
+                    lo = mid;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return children[lo];
+        }
+    }
+}
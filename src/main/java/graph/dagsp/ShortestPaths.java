@@ -1,21 +1,49 @@
 package graph.dagsp;
 
-import graph.Graph;
-import graph.Edge;
+import graph.GraphView;
+import graph.WeightModel;
 import graph.topo.TopologicalSort;
+import metrics.Counter;
 import metrics.Metrics;
 import metrics.MetricsImpl;
+import metrics.NoOpMetrics;
 import java.util.*;
 
+/**
+ * Shortest, longest and critical paths on a DAG in topological order.
+ * Path length follows the weight model: edge weights, vertex weights, or both.
+ * With vertex weights a path pays for every vertex on it, including both endpoints.
+ */
 public class ShortestPaths {
-    private final Graph graph;
+    private final GraphView graph;
+    private final WeightModel model;
     private final Metrics metrics;
     
-    private static final int INF = Integer.MAX_VALUE / 2;
+    public static final int INF = Integer.MAX_VALUE / 2;
     
-    public ShortestPaths(Graph graph) {
+    public ShortestPaths(GraphView graph) {
+        this(graph, new MetricsImpl());
+    }
+    
+    /**
+     * @param metrics receives edge relaxations; the internal topological sort is not counted
+     */
+    public ShortestPaths(GraphView graph, Metrics metrics) {
+        this(graph, WeightModel.EDGE, metrics);
+    }
+    
+    public ShortestPaths(GraphView graph, WeightModel model) {
+        this(graph, model, new MetricsImpl());
+    }
+    
+    /**
+     * @param model which weights count towards path length
+     * @param metrics receives edge relaxations; the internal topological sort is not counted
+     */
+    public ShortestPaths(GraphView graph, WeightModel model, Metrics metrics) {
         this.graph = graph;
-        this.metrics = new MetricsImpl();
+        this.model = model;
+        this.metrics = metrics;
     }
     
     public PathResult shortestPaths(int source) {
@@ -25,11 +53,11 @@ public class ShortestPaths {
         
         Arrays.fill(dist, INF);
         Arrays.fill(pred, -1);
-        dist[source] = 0;
+        dist[source] = nodeCost(source);
         
         metrics.startTimer();
         
-        TopologicalSort topoSort = new TopologicalSort(graph);
+        TopologicalSort topoSort = new TopologicalSort(graph, NoOpMetrics.INSTANCE);
         List<Integer> topoOrder = topoSort.kahnSort();
         
         if (topoOrder.isEmpty()) {
@@ -39,10 +67,11 @@ public class ShortestPaths {
         
         for (int u : topoOrder) {
             if (dist[u] != INF) {
-                for (Edge edge : graph.getNeighbors(u)) {
-                    int v = edge.to;
-                    int newDist = dist[u] + edge.weight;
-                    metrics.incrementOperations();
+                int degree = graph.getOutDegree(u);
+                for (int i = 0; i < degree; i++) {
+                    int v = graph.getNeighbor(u, i);
+                    int newDist = dist[u] + edgeCost(u, i) + nodeCost(v);
+                    metrics.increment(Counter.RELAXATIONS);
                     
                     if (newDist < dist[v]) {
                         dist[v] = newDist;
@@ -64,11 +93,11 @@ public class ShortestPaths {
         
         Arrays.fill(dist, -INF);
         Arrays.fill(pred, -1);
-        dist[source] = 0;
+        dist[source] = nodeCost(source);
         
         metrics.startTimer();
         
-        TopologicalSort topoSort = new TopologicalSort(graph);
+        TopologicalSort topoSort = new TopologicalSort(graph, NoOpMetrics.INSTANCE);
         List<Integer> topoOrder = topoSort.kahnSort();
         
         if (topoOrder.isEmpty()) {
@@ -78,10 +107,11 @@ public class ShortestPaths {
         
         for (int u : topoOrder) {
             if (dist[u] != -INF) {
-                for (Edge edge : graph.getNeighbors(u)) {
-                    int v = edge.to;
-                    int newDist = dist[u] + edge.weight;
-                    metrics.incrementOperations();
+                int degree = graph.getOutDegree(u);
+                for (int i = 0; i < degree; i++) {
+                    int v = graph.getNeighbor(u, i);
+                    int newDist = dist[u] + edgeCost(u, i) + nodeCost(v);
+                    metrics.increment(Counter.RELAXATIONS);
                     
                     if (newDist > dist[v]) {
                         dist[v] = newDist;
@@ -96,34 +126,97 @@ public class ShortestPaths {
         return new PathResult(dist, pred);
     }
     
+    /**
+     * Finds the critical (globally longest) path with one forward and one backward pass
+     * over a single topological order, in O(V + E).
+     * A path may start and end at any vertex. Vertex weights are durations: earliest
+     * start is the longest path ending just before a vertex, latest start is the
+     * critical length minus the longest path from the vertex onwards, and slack is
+     * their difference. Under the edge model vertices are instantaneous events.
+     * @return critical path, its length and per-vertex schedule values; empty if the graph has a cycle
+     */
     public CriticalPathResult findCriticalPath() {
         int n = graph.getVertexCount();
-        int maxLength = -INF;
-        int endVertex = -1;
-        
-        PathResult bestResult = null;
-        int bestSource = -1;
-        
-        for (int source = 0; source < n; source++) {
-            PathResult result = longestPaths(source);
-            
-            for (int v = 0; v < n; v++) {
-                if (result.distances[v] > maxLength && result.distances[v] != -INF) {
-                    maxLength = result.distances[v];
-                    endVertex = v;
-                    bestResult = result;
-                    bestSource = source;
+        
+        metrics.startTimer();
+        
+        TopologicalSort topoSort = new TopologicalSort(graph, NoOpMetrics.INSTANCE);
+        List<Integer> topoOrder = topoSort.kahnSort();
+        
+        if (topoOrder.size() != n || n == 0) {
+            metrics.stopTimer();
+            return new CriticalPathResult(new ArrayList<>(), 0, new int[0], new int[0], new int[0]);
+        }
+        
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = topoOrder.get(i);
+        }
+        
+        int[] earliest = new int[n];
+        int[] pred = new int[n];
+        Arrays.fill(pred, -1);
+        
+        for (int u : order) {
+            int finish = earliest[u] + nodeCost(u);
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                int newDist = finish + edgeCost(u, i);
+                metrics.increment(Counter.RELAXATIONS);
+                
+                if (newDist > earliest[v]) {
+                    earliest[v] = newDist;
+                    pred[v] = u;
                 }
             }
         }
         
-        if (bestResult == null || endVertex == -1) {
-            return new CriticalPathResult(new ArrayList<>(), 0);
+        int endVertex = 0;
+        int length = earliest[0] + nodeCost(0);
+        for (int v = 1; v < n; v++) {
+            if (earliest[v] + nodeCost(v) > length) {
+                endVertex = v;
+                length = earliest[v] + nodeCost(v);
+            }
         }
         
-        List<Integer> path = reconstructPath(bestResult.predecessors, bestSource, endVertex);
+        int[] latest = new int[n];
+        int[] slack = new int[n];
+        for (int k = n - 1; k >= 0; k--) {
+            int u = order[k];
+            int best = length;
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                best = Math.min(best, latest[v] - edgeCost(u, i));
+                metrics.increment(Counter.RELAXATIONS);
+            }
+            latest[u] = best - nodeCost(u);
+            slack[u] = latest[u] - earliest[u];
+        }
         
-        return new CriticalPathResult(path, maxLength);
+        List<Integer> path = new ArrayList<>();
+        for (int v = endVertex; v != -1; v = pred[v]) {
+            path.add(v);
+        }
+        Collections.reverse(path);
+        
+        metrics.stopTimer();
+        
+        return new CriticalPathResult(path, length, earliest, latest, slack);
+    }
+    
+    private int nodeCost(int v) {
+        return model.usesNodeWeights() ? graph.getNodeWeight(v) : 0;
+    }
+    
+    private int edgeCost(int u, int i) {
+        return model.usesEdgeWeights() ? graph.getNeighborWeight(u, i) : 0;
+    }
+    
+    public WeightModel getWeightModel() {
+        return model;
     }
     
     public List<Integer> reconstructPath(int[] pred, int source, int dest) {
@@ -164,17 +257,25 @@ public class ShortestPaths {
     public static class CriticalPathResult {
         public final List<Integer> path;
         public final int length;
+        public final int[] earliestStart;
+        public final int[] latestStart;
+        public final int[] slack;
         
         public CriticalPathResult(List<Integer> path, int length) {
+            this(path, length, new int[0], new int[0], new int[0]);
+        }
+        
+        public CriticalPathResult(List<Integer> path, int length,
+                                  int[] earliestStart, int[] latestStart, int[] slack) {
             this.path = path;
             this.length = length;
+            this.earliestStart = earliestStart;
+            this.latestStart = latestStart;
+            this.slack = slack;
+        }
+        
+        public boolean isCritical(int vertex) {
+            return slack[vertex] == 0;
         }
     }
 }
-
-
-
-
-
-
-
@@ -0,0 +1,272 @@
+package graph.dagsp;
+
+import graph.GraphView;
+import graph.WeightModel;
+import graph.topo.TopologicalSort;
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.MetricsImpl;
+import metrics.NoOpMetrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The K longest source-to-sink paths of a DAG, found in one topological sweep.
+ * Every vertex keeps at most K labels (length, predecessor, rank of the predecessor's
+ * label) in a bounded min-heap, so memory is O(K * V) and time O(K * (V + E) * log K).
+ * A vertex's labels are sorted once all its predecessors are done; since they are then
+ * in descending order, relaxing an edge stops at the first label that no longer
+ * improves the successor. Paths are rebuilt from the labels only when asked for.
+ * Sources are vertices without incoming edges, sinks vertices without outgoing ones.
+ */
+public class TopKPaths {
+    private final GraphView graph;
+    private final int k;
+    private final WeightModel model;
+    private final Metrics metrics;
+    
+    public TopKPaths(GraphView graph, int k) {
+        this(graph, k, WeightModel.EDGE, new MetricsImpl());
+    }
+    
+    /**
+     * @param k number of paths to find
+     * @param model which weights count towards path length
+     * @param metrics receives label relaxations and heap insertions
+     * @throws IllegalArgumentException if k is not positive or K * V labels do not fit an array
+     */
+    public TopKPaths(GraphView graph, int k, WeightModel model, Metrics metrics) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1: " + k);
+        }
+        if ((long) k * graph.getVertexCount() > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many labels for k=" + k + " and n=" + graph.getVertexCount());
+        }
+        this.graph = graph;
+        this.k = k;
+        this.model = model;
+        this.metrics = metrics;
+    }
+    
+    /**
+     * @return up to K paths in descending order of length; fewer if the DAG has fewer source-to-sink paths
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    public Result findLongestPaths() {
+        int n = graph.getVertexCount();
+        List<Integer> topoOrder = new TopologicalSort(graph, NoOpMetrics.INSTANCE).kahnSort();
+        if (topoOrder.size() != n) {
+            throw new IllegalArgumentException("Graph contains a cycle");
+        }
+        
+        metrics.startTimer();
+        
+        int[] length = new int[k * n];
+        int[] prevVertex = new int[k * n];
+        int[] prevRank = new int[k * n];
+        int[] count = new int[n];
+        boolean[] hasPredecessor = new boolean[n];
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                hasPredecessor[graph.getNeighbor(u, i)] = true;
+            }
+        }
+        
+        Heap heap = new Heap(length, prevVertex, prevRank);
+        Heap best = new Heap(new int[k], new int[k], new int[k]);
+        int bestCount = 0;
+        
+        for (int u : topoOrder) {
+            int base = u * k;
+            if (!hasPredecessor[u]) {
+                length[base] = nodeCost(u);
+                prevVertex[base] = -1;
+                prevRank[base] = -1;
+                count[u] = 1;
+            }
+            heap.sortDescending(base, count[u]);
+            
+            int degree = graph.getOutDegree(u);
+            if (degree == 0) {
+                // a sink: its labels are complete paths
+                for (int j = 0; j < count[u]; j++) {
+                    if (!best.offer(0, bestCount, k, length[base + j], u, j)) {
+                        break;
+                    }
+                    bestCount = Math.min(bestCount + 1, k);
+                    metrics.increment(Counter.PUSHES);
+                }
+            }
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                int step = edgeCost(u, i) + nodeCost(v);
+                for (int j = 0; j < count[u]; j++) {
+                    metrics.increment(Counter.RELAXATIONS);
+                    if (!heap.offer(v * k, count[v], k, length[base + j] + step, u, j)) {
+                        break;
+                    }
+                    count[v] = Math.min(count[v] + 1, k);
+                    metrics.increment(Counter.PUSHES);
+                }
+            }
+        }
+        
+        best.sortDescending(0, bestCount);
+        
+        metrics.stopTimer();
+        
+        return new Result(k, Arrays.copyOf(best.length, bestCount),
+                          Arrays.copyOf(best.prevVertex, bestCount),
+                          Arrays.copyOf(best.prevRank, bestCount), prevVertex, prevRank);
+    }
+    
+    private int nodeCost(int v) {
+        return model.usesNodeWeights() ? graph.getNodeWeight(v) : 0;
+    }
+    
+    private int edgeCost(int u, int i) {
+        return model.usesEdgeWeights() ? graph.getNeighborWeight(u, i) : 0;
+    }
+    
+    public Metrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Bounded min-heaps of labels stored in slices of three parallel arrays.
+     */
+    private static class Heap {
+        private final int[] length;
+        private final int[] prevVertex;
+        private final int[] prevRank;
+        
+        Heap(int[] length, int[] prevVertex, int[] prevRank) {
+            this.length = length;
+            this.prevVertex = prevVertex;
+            this.prevRank = prevRank;
+        }
+        
+        /**
+         * Adds a label to the heap at base holding size labels, replacing the smallest if full.
+         * @return false if the heap is full and the label is not longer than its smallest one
+         */
+        boolean offer(int base, int size, int capacity, int len, int vertex, int rank) {
+            if (size < capacity) {
+                set(base + size, len, vertex, rank);
+                siftUp(base, size);
+                return true;
+            }
+            if (len <= length[base]) {
+                return false;
+            }
+            set(base, len, vertex, rank);
+            siftDown(base, 0, size);
+            return true;
+        }
+        
+        /**
+         * Heap sort of a min-heap, leaving the slice in descending order of length.
+         */
+        void sortDescending(int base, int size) {
+            for (int end = size - 1; end > 0; end--) {
+                swap(base, base + end);
+                siftDown(base, 0, end);
+            }
+        }
+        
+        private void siftUp(int base, int i) {
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (length[base + parent] <= length[base + i]) {
+                    return;
+                }
+                swap(base + parent, base + i);
+                i = parent;
+            }
+        }
+        
+        private void siftDown(int base, int i, int size) {
+            while (true) {
+                int smallest = i;
+                int left = 2 * i + 1;
+                int right = left + 1;
+                if (left < size && length[base + left] < length[base + smallest]) {
+                    smallest = left;
+                }
+                if (right < size && length[base + right] < length[base + smallest]) {
+                    smallest = right;
+                }
+                if (smallest == i) {
+                    return;
+                }
+                swap(base + i, base + smallest);
+                i = smallest;
+            }
+        }
+        
+        private void set(int slot, int len, int vertex, int rank) {
+            length[slot] = len;
+            prevVertex[slot] = vertex;
+            prevRank[slot] = rank;
+        }
+        
+        private void swap(int a, int b) {
+            int t = length[a];
+            length[a] = length[b];
+            length[b] = t;
+            t = prevVertex[a];
+            prevVertex[a] = prevVertex[b];
+            prevVertex[b] = t;
+            t = prevRank[a];
+            prevRank[a] = prevRank[b];
+            prevRank[b] = t;
+        }
+    }
+    
+    /**
+     * The paths found, longest first. Only lengths and end points are stored;
+     * {@link #getPath} follows the per-vertex labels back to the source.
+     */
+    public static class Result {
+        public final int[] lengths;
+        public final int[] ends;
+        private final int k;
+        private final int[] endRanks;
+        private final int[] prevVertex;
+        private final int[] prevRank;
+        
+        Result(int k, int[] lengths, int[] ends, int[] endRanks, int[] prevVertex, int[] prevRank) {
+            this.k = k;
+            this.lengths = lengths;
+            this.ends = ends;
+            this.endRanks = endRanks;
+            this.prevVertex = prevVertex;
+            this.prevRank = prevRank;
+        }
+        
+        public int size() {
+            return lengths.length;
+        }
+        
+        /**
+         * @param i rank of the path, 0 for the longest
+         * @return vertices of the path from source to sink
+         */
+        public List<Integer> getPath(int i) {
+            List<Integer> path = new ArrayList<>();
+            int vertex = ends[i];
+            int rank = endRanks[i];
+            while (vertex != -1) {
+                path.add(vertex);
+                int slot = vertex * k + rank;
+                vertex = prevVertex[slot];
+                rank = prevRank[slot];
+            }
+            Collections.reverse(path);
+            return path;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package graph.reach;
+
+import graph.GraphView;
+import java.util.function.IntConsumer;
+
+/**
+ * Full transitive closure of a DAG as one packed bit row per vertex.
+ * Rows are filled in reverse topological order, so a row is complete when it is
+ * OR-ed into its predecessors; the build costs O(E * n / 64) word operations and
+ * n * n / 8 bytes, and every lookup is a single bit test.
+ */
+public class BitsetClosure implements ComponentReachability {
+    private final int n;
+    private final int words;
+    private final long[] bits;
+    
+    /**
+     * @param dag directed acyclic graph
+     * @param topologicalOrder all vertices of dag in topological order
+     * @throws IllegalArgumentException if the closure does not fit one array
+     */
+    public BitsetClosure(GraphView dag, int[] topologicalOrder) {
+        this.n = dag.getVertexCount();
+        this.words = (n + 63) >>> 6;
+        long size = (long) n * words;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Closure of " + n + " vertices is too large for a bitset, use interval labels");
+        }
+        this.bits = new long[(int) size];
+        
+        for (int k = topologicalOrder.length - 1; k >= 0; k--) {
+            int u = topologicalOrder[k];
+            int row = u * words;
+            bits[row + (u >>> 6)] |= 1L << u;
+            int degree = dag.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int other = dag.getNeighbor(u, i) * words;
+                for (int w = 0; w < words; w++) {
+                    bits[row + w] |= bits[other + w];
+                }
+            }
+        }
+    }
+    
+    /**
+     * @return bytes a closure over n vertices would take, to decide before building one
+     */
+    public static long sizeBytes(int n) {
+        return (long) n * ((n + 63) >>> 6) * Long.BYTES;
+    }
+    
+    @Override
+    public boolean reaches(int from, int to) {
+        return (bits[from * words + (to >>> 6)] & (1L << to)) != 0;
+    }
+    
+    @Override
+    public void forEachReachable(int from, IntConsumer action) {
+        int row = from * words;
+        for (int w = 0; w < words; w++) {
+            long word = bits[row + w];
+            while (word != 0) {
+                action.accept((w << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1;
+            }
+        }
+    }
+    
+    @Override
+    public int countReachable(int from) {
+        int row = from * words;
+        int count = 0;
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(bits[row + w]);
+        }
+        return count;
+    }
+    
+    @Override
+    public long getSizeBytes() {
+        return (long) bits.length * Long.BYTES;
+    }
+}
@@ -0,0 +1,26 @@
+package graph.reach;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Precomputed reachability between the vertices of a DAG, typically the components
+ * of a condensation. Reachability is reflexive: every vertex reaches itself.
+ */
+public interface ComponentReachability {
+    /**
+     * @return whether there is a path from one vertex to the other
+     */
+    boolean reaches(int from, int to);
+    
+    /**
+     * Calls action for every vertex reachable from the given one, including itself.
+     */
+    void forEachReachable(int from, IntConsumer action);
+    
+    int countReachable(int from);
+    
+    /**
+     * @return approximate size of the index arrays in bytes
+     */
+    long getSizeBytes();
+}
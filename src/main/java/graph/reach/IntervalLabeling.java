@@ -0,0 +1,174 @@
+package graph.reach;
+
+import graph.GraphView;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed transitive closure of a DAG by interval labels (tree cover).
+ * A spanning forest is numbered in postorder, so every subtree is one interval of
+ * postorder numbers; each vertex stores the merged intervals of everything it reaches.
+ * On tree-like DAGs this is a few intervals per vertex instead of a bit per vertex pair,
+ * at the cost of a binary search per lookup (O(log intervals), O(1) for a single interval).
+ */
+public class IntervalLabeling implements ComponentReachability {
+    private final int[] post;
+    private final int[] vertexAt;
+    private final int[] first;
+    private final int[] count;
+    private final int[] bounds;
+    
+    /**
+     * @param dag directed acyclic graph
+     * @param topologicalOrder all vertices of dag in topological order
+     */
+    public IntervalLabeling(GraphView dag, int[] topologicalOrder) {
+        int n = dag.getVertexCount();
+        this.post = new int[n];
+        this.vertexAt = new int[n];
+        int[] low = new int[n];
+        numberForest(dag, topologicalOrder, low);
+        
+        this.first = new int[n];
+        this.count = new int[n];
+        int[] pool = new int[Math.max(2 * n, 2)];
+        int used = 0;
+        long[] merge = new long[1];
+        
+        for (int k = topologicalOrder.length - 1; k >= 0; k--) {
+            int u = topologicalOrder[k];
+            int degree = dag.getOutDegree(u);
+            int size = 1;
+            for (int i = 0; i < degree; i++) {
+                size += count[dag.getNeighbor(u, i)];
+            }
+            if (size > merge.length) {
+                merge = new long[Math.max(size, merge.length * 2)];
+            }
+            
+            // intervals packed as start << 32 | end, so sorting orders them by start
+            int len = 0;
+            merge[len++] = (long) low[u] << 32 | post[u];
+            for (int i = 0; i < degree; i++) {
+                int v = dag.getNeighbor(u, i);
+                for (int j = first[v]; j < first[v] + 2 * count[v]; j += 2) {
+                    merge[len++] = (long) pool[j] << 32 | pool[j + 1];
+                }
+            }
+            Arrays.sort(merge, 0, len);
+            
+            if (used + 2 * len > pool.length) {
+                pool = Arrays.copyOf(pool, Math.max(used + 2 * len, pool.length * 2));
+            }
+            first[u] = used;
+            int start = (int) (merge[0] >>> 32);
+            int end = (int) merge[0];
+            for (int i = 1; i < len; i++) {
+                int s = (int) (merge[i] >>> 32);
+                int e = (int) merge[i];
+                // postorder numbers are consecutive, so adjacent intervals merge too
+                if (s <= end + 1) {
+                    end = Math.max(end, e);
+                } else {
+                    pool[used++] = start;
+                    pool[used++] = end;
+                    start = s;
+                    end = e;
+                }
+            }
+            pool[used++] = start;
+            pool[used++] = end;
+            count[u] = (used - first[u]) / 2;
+        }
+        this.bounds = Arrays.copyOf(pool, used);
+    }
+    
+    /**
+     * Numbers a DFS spanning forest in postorder, starting trees at vertices in topological
+     * order; low[v] is the smallest postorder number in the subtree of v.
+     */
+    private void numberForest(GraphView dag, int[] topologicalOrder, int[] low) {
+        int n = post.length;
+        boolean[] visited = new boolean[n];
+        int[] stack = new int[n];
+        int[] next = new int[n];
+        int counter = 0;
+        
+        for (int root : topologicalOrder) {
+            if (visited[root]) {
+                continue;
+            }
+            int top = 0;
+            stack[0] = root;
+            next[0] = 0;
+            visited[root] = true;
+            low[root] = counter;
+            while (top >= 0) {
+                int u = stack[top];
+                if (next[top] < dag.getOutDegree(u)) {
+                    int v = dag.getNeighbor(u, next[top]++);
+                    if (!visited[v]) {
+                        visited[v] = true;
+                        low[v] = counter;
+                        top++;
+                        stack[top] = v;
+                        next[top] = 0;
+                    }
+                } else {
+                    post[u] = counter;
+                    vertexAt[counter] = u;
+                    counter++;
+                    top--;
+                }
+            }
+        }
+    }
+    
+    @Override
+    public boolean reaches(int from, int to) {
+        int p = post[to];
+        int lo = 0;
+        int hi = count[from] - 1;
+        int base = first[from];
+        // last interval starting at or before p
+        while (lo < hi) {
+            int mid = (lo + hi + 1) >>> 1;
+            if (bounds[base + 2 * mid] <= p) {
+                lo = mid;
+            } else {
+                hi = mid - 1;
+            }
+        }
+        return bounds[base + 2 * lo] <= p && p <= bounds[base + 2 * lo + 1];
+    }
+    
+    @Override
+    public void forEachReachable(int from, IntConsumer action) {
+        for (int j = first[from]; j < first[from] + 2 * count[from]; j += 2) {
+            for (int p = bounds[j]; p <= bounds[j + 1]; p++) {
+                action.accept(vertexAt[p]);
+            }
+        }
+    }
+    
+    @Override
+    public int countReachable(int from) {
+        int total = 0;
+        for (int j = first[from]; j < first[from] + 2 * count[from]; j += 2) {
+            total += bounds[j + 1] - bounds[j] + 1;
+        }
+        return total;
+    }
+    
+    /**
+     * @return number of intervals stored for a vertex
+     */
+    public int getIntervalCount(int vertex) {
+        return count[vertex];
+    }
+    
+    @Override
+    public long getSizeBytes() {
+        return (long) (bounds.length + 4 * post.length) * Integer.BYTES;
+    }
+}
@@ -0,0 +1,122 @@
+package graph.reach;
+
+import graph.CsrGraph;
+import graph.GraphView;
+import graph.scc.Aggregation;
+import graph.scc.SccResult;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import metrics.NoOpMetrics;
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Vertex-level reachability queries answered from a one-time index over the
+ * condensation: each vertex is mapped to its SCC and the question is asked of
+ * the component DAG, so vertices of one SCC share one closure row.
+ */
+public class ReachabilityIndex {
+    /** Largest bitset closure AUTO builds, in bytes. */
+    public static final long AUTO_BITSET_LIMIT = 64L << 20;
+    
+    private final SccResult components;
+    private final ComponentReachability closure;
+    private final Mode mode;
+    
+    public enum Mode {
+        /** full closure, one bit per component pair */
+        BITSET,
+        /** interval labels, for condensations too large for a full closure */
+        INTERVAL,
+        /** BITSET if it fits {@link #AUTO_BITSET_LIMIT}, otherwise INTERVAL */
+        AUTO
+    }
+    
+    public ReachabilityIndex(SccResult components, ComponentReachability closure, Mode mode) {
+        this.components = components;
+        this.closure = closure;
+        this.mode = mode;
+    }
+    
+    /**
+     * Finds the SCCs of a graph and indexes its condensation.
+     * @param graph any directed graph
+     * @param mode closure representation
+     * @return index answering queries on the original vertices
+     */
+    public static ReachabilityIndex build(GraphView graph, Mode mode) {
+        TarjanSCC tarjan = new TarjanSCC(graph, NoOpMetrics.INSTANCE);
+        SccResult components = tarjan.findComponents();
+        CsrGraph condensation = tarjan.buildCondensation(Aggregation.FIRST, Aggregation.FIRST);
+        return build(components, condensation, mode);
+    }
+    
+    /**
+     * Indexes an existing condensation.
+     * @param components SCCs of the original graph
+     * @param condensation component DAG with one vertex per component
+     * @param mode closure representation
+     */
+    public static ReachabilityIndex build(SccResult components, GraphView condensation, Mode mode) {
+        List<Integer> order = new TopologicalSort(condensation, NoOpMetrics.INSTANCE).kahnSort();
+        if (order.size() != condensation.getVertexCount()) {
+            throw new IllegalArgumentException("Graph contains a cycle");
+        }
+        int[] topologicalOrder = new int[order.size()];
+        for (int i = 0; i < topologicalOrder.length; i++) {
+            topologicalOrder[i] = order.get(i);
+        }
+        
+        Mode resolved = mode;
+        if (mode == Mode.AUTO) {
+            resolved = BitsetClosure.sizeBytes(topologicalOrder.length) <= AUTO_BITSET_LIMIT ? Mode.BITSET : Mode.INTERVAL;
+        }
+        ComponentReachability closure = resolved == Mode.BITSET
+                ? new BitsetClosure(condensation, topologicalOrder)
+                : new IntervalLabeling(condensation, topologicalOrder);
+        return new ReachabilityIndex(components, closure, resolved);
+    }
+    
+    /**
+     * @return whether v is reachable from u; every vertex reaches itself
+     */
+    public boolean canReach(int u, int v) {
+        return closure.reaches(components.componentOf[u], components.componentOf[v]);
+    }
+    
+    /**
+     * Calls action for every vertex reachable from u, including u and the rest of its SCC.
+     * With edges pointing from a task to its dependents these are everything that depends on u.
+     */
+    public void forEachReachable(int u, IntConsumer action) {
+        closure.forEachReachable(components.componentOf[u], c -> {
+            for (int i = components.memberOffsets[c]; i < components.memberOffsets[c + 1]; i++) {
+                action.accept(components.members[i]);
+            }
+        });
+    }
+    
+    /**
+     * @return number of vertices reachable from u, including u
+     */
+    public int countReachable(int u) {
+        int[] total = new int[1];
+        closure.forEachReachable(components.componentOf[u], c -> total[0] += components.getComponentSize(c));
+        return total[0];
+    }
+    
+    public SccResult getComponents() {
+        return components;
+    }
+    
+    public ComponentReachability getClosure() {
+        return closure;
+    }
+    
+    /**
+     * @return representation actually built; AUTO is resolved to BITSET or INTERVAL
+     */
+    public Mode getMode() {
+        return mode;
+    }
+}
@@ -0,0 +1,83 @@
+package graph.scc;
+
+/**
+ * How parallel inter-component edge weights, or the node weights of
+ * a component's members, are combined in the condensation.
+ */
+public enum Aggregation {
+    MIN,
+    MAX,
+    SUM,
+    COUNT,
+    FIRST;
+    
+    public int initial(int weight) {
+        return this == COUNT ? 1 : weight;
+    }
+    
+    /**
+     * SUM and COUNT throw ArithmeticException instead of wrapping around.
+     */
+    public int combine(int accumulated, int weight) {
+        switch (this) {
+            case MIN:
+                return Math.min(accumulated, weight);
+            case MAX:
+                return Math.max(accumulated, weight);
+            case SUM:
+                return Math.addExact(accumulated, weight);
+            case COUNT:
+                return Math.addExact(accumulated, 1);
+            default:
+                return accumulated;
+        }
+    }
+    
+    /**
+     * Combines two already aggregated values, e.g. when two components merge.
+     */
+    public int merge(int accumulated, int other) {
+        return this == COUNT ? Math.addExact(accumulated, other) : combine(accumulated, other);
+    }
+    
+    public long initial(long weight) {
+        return this == COUNT ? 1 : weight;
+    }
+    
+    /**
+     * Long variant; SUM and COUNT throw ArithmeticException instead of wrapping around.
+     */
+    public long combine(long accumulated, long weight) {
+        switch (this) {
+            case MIN:
+                return Math.min(accumulated, weight);
+            case MAX:
+                return Math.max(accumulated, weight);
+            case SUM:
+                return Math.addExact(accumulated, weight);
+            case COUNT:
+                return Math.addExact(accumulated, 1);
+            default:
+                return accumulated;
+        }
+    }
+    
+    public double initial(double weight) {
+        return this == COUNT ? 1 : weight;
+    }
+    
+    public double combine(double accumulated, double weight) {
+        switch (this) {
+            case MIN:
+                return Math.min(accumulated, weight);
+            case MAX:
+                return Math.max(accumulated, weight);
+            case SUM:
+                return accumulated + weight;
+            case COUNT:
+                return accumulated + 1;
+            default:
+                return accumulated;
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package graph.scc;
+
+import graph.CsrGraph;
+import graph.GraphView;
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.MetricsImpl;
+import metrics.NoOpMetrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SCCs and condensation DAG maintained under edge and vertex insertions.
+ * Components are kept in a topological order (Pearce-Kelly style). An edge that
+ * agrees with the order is just linked; otherwise a forward search from the head and
+ * a backward search from the tail, both limited to the order window between them,
+ * either reorder that window or, if the head reaches the tail, merge the components
+ * on the new cycle. Work is proportional to the window, not to the graph.
+ * A component is identified by one of its member vertices; ids of absorbed
+ * components become invalid after a merge.
+ */
+public class DynamicSCC {
+    private static final int NONE = -1;
+    private static final int[] NO_MERGE = new int[0];
+    
+    private final Aggregation edgePolicy;
+    private final Metrics metrics;
+    
+    private int n;
+    private int componentCount;
+    private int positions;
+    // union-find over vertices; roots are component ids
+    private int[] parent;
+    // circular list of the members of each component
+    private int[] next;
+    private int[] size;
+    // position of each component in the topological order and the component at each position
+    private int[] ord;
+    private int[] at;
+    private final List<Map<Integer, Integer>> out = new ArrayList<>();
+    private final List<Map<Integer, Integer>> in = new ArrayList<>();
+    
+    private int stamp;
+    private int[] forwardMark;
+    private int[] backwardMark;
+    private int[] forward;
+    private int[] backward;
+    
+    public DynamicSCC() {
+        this(Aggregation.FIRST, new MetricsImpl());
+    }
+    
+    /**
+     * @param edgePolicy how weights of parallel inter-component edges are combined
+     * @param metrics receives edge scans of the bounded searches
+     */
+    public DynamicSCC(Aggregation edgePolicy, Metrics metrics) {
+        this.edgePolicy = edgePolicy;
+        this.metrics = metrics;
+        allocate(16);
+    }
+    
+    public DynamicSCC(GraphView graph) {
+        this(graph, Aggregation.FIRST, new MetricsImpl());
+    }
+    
+    /**
+     * Starts from the SCCs of an existing graph, computed once with {@link TarjanSCC}.
+     */
+    public DynamicSCC(GraphView graph, Aggregation edgePolicy, Metrics metrics) {
+        this(edgePolicy, metrics);
+        SccResult sccs = new TarjanSCC(graph, NoOpMetrics.INSTANCE).findComponents();
+        int count = sccs.componentCount;
+        n = graph.getVertexCount();
+        allocate(Math.max(n, 16));
+        
+        for (int c = 0; c < count; c++) {
+            int from = sccs.memberOffsets[c];
+            int to = sccs.memberOffsets[c + 1];
+            int rep = sccs.members[from];
+            for (int m = from; m < to; m++) {
+                int v = sccs.members[m];
+                parent[v] = rep;
+                next[v] = sccs.members[m + 1 < to ? m + 1 : from];
+            }
+            size[rep] = to - from;
+            // Tarjan numbers components in reverse topological order
+            ord[rep] = count - 1 - c;
+            at[count - 1 - c] = rep;
+        }
+        for (int v = 0; v < n; v++) {
+            boolean isRoot = parent[v] == v;
+            out.add(isRoot ? new HashMap<>() : null);
+            in.add(isRoot ? new HashMap<>() : null);
+        }
+        componentCount = count;
+        positions = count;
+        
+        for (int u = 0; u < n; u++) {
+            int cu = parent[u];
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int cv = parent[graph.getNeighbor(u, i)];
+                if (cu != cv) {
+                    link(cu, cv, graph.getNeighborWeight(u, i));
+                }
+            }
+        }
+    }
+    
+    /**
+     * @return id of the new vertex, which starts as its own component at the end of the order
+     */
+    public int addVertex() {
+        int v = n++;
+        if (n > parent.length) {
+            allocate(parent.length * 2);
+        }
+        parent[v] = v;
+        next[v] = v;
+        size[v] = 1;
+        ord[v] = positions;
+        at[positions++] = v;
+        out.add(new HashMap<>());
+        in.add(new HashMap<>());
+        componentCount++;
+        return v;
+    }
+    
+    public int[] addEdge(int u, int v) {
+        return addEdge(u, v, 1);
+    }
+    
+    /**
+     * Inserts u -> v, creating missing vertices up to max(u, v).
+     * @return ids of the components merged into one by this edge (the survivor is
+     *         {@code componentOf(u)}), or an empty array if no cycle formed
+     */
+    public int[] addEdge(int u, int v, int weight) {
+        if (u < 0 || v < 0) {
+            throw new IllegalArgumentException("Negative vertex: " + u + " -> " + v);
+        }
+        while (n <= Math.max(u, v)) {
+            addVertex();
+        }
+        
+        int cu = find(u);
+        int cv = find(v);
+        if (cu == cv) {
+            return NO_MERGE;
+        }
+        if (ord[cu] < ord[cv]) {
+            link(cu, cv, weight);
+            return NO_MERGE;
+        }
+        
+        int lower = ord[cv];
+        int upper = ord[cu];
+        stamp++;
+        int forwardSize = collect(cv, out, forwardMark, forward, lower, upper);
+        int backwardSize = collect(cu, in, backwardMark, backward, lower, upper);
+        
+        // positions of the window's affected components, reassigned below in the new order
+        int[] pool = new int[forwardSize + backwardSize];
+        int[] left = new int[backwardSize];
+        int[] right = new int[forwardSize];
+        int[] cycle = new int[Math.min(forwardSize, backwardSize)];
+        int poolSize = 0;
+        int leftSize = 0;
+        int rightSize = 0;
+        int cycleSize = 0;
+        for (int i = 0; i < backwardSize; i++) {
+            int c = backward[i];
+            pool[poolSize++] = ord[c];
+            if (forwardMark[c] == stamp) {
+                cycle[cycleSize++] = c;
+            } else {
+                left[leftSize++] = ord[c];
+            }
+        }
+        for (int i = 0; i < forwardSize; i++) {
+            int c = forward[i];
+            if (backwardMark[c] != stamp) {
+                pool[poolSize++] = ord[c];
+                right[rightSize++] = ord[c];
+            }
+        }
+        Arrays.sort(pool, 0, poolSize);
+        Arrays.sort(left, 0, leftSize);
+        Arrays.sort(right, 0, rightSize);
+        
+        // B \ F takes the lowest slots, then the merged component (if any), and F \ B the
+        // highest; B only moves down and F only moves up, so edges leaving the window stay valid
+        int[] leftComponents = new int[leftSize];
+        int[] rightComponents = new int[rightSize];
+        for (int i = 0; i < leftSize; i++) {
+            leftComponents[i] = at[left[i]];
+        }
+        for (int i = 0; i < rightSize; i++) {
+            rightComponents[i] = at[right[i]];
+        }
+        for (int i = 0; i < poolSize; i++) {
+            at[pool[i]] = NONE;
+        }
+        for (int i = 0; i < leftSize; i++) {
+            place(leftComponents[i], pool[i]);
+        }
+        for (int i = 0; i < rightSize; i++) {
+            place(rightComponents[i], pool[poolSize - rightSize + i]);
+        }
+        int[] merged = NO_MERGE;
+        if (cycleSize > 0) {
+            merged = Arrays.copyOf(cycle, cycleSize);
+            place(merge(merged), pool[leftSize]);
+        }
+        
+        if (cycleSize == 0) {
+            link(cu, cv, weight);
+        }
+        return merged;
+    }
+    
+    /**
+     * Collects the components reachable from start whose position lies in [lower, upper].
+     * @return number of components written to found
+     */
+    private int collect(int start, List<Map<Integer, Integer>> adjacency, int[] mark, int[] found, int lower, int upper) {
+        mark[start] = stamp;
+        found[0] = start;
+        int count = 1;
+        for (int i = 0; i < count; i++) {
+            for (int d : adjacency.get(found[i]).keySet()) {
+                metrics.increment(Counter.EDGE_SCANS);
+                if (mark[d] != stamp && ord[d] >= lower && ord[d] <= upper) {
+                    mark[d] = stamp;
+                    found[count++] = d;
+                }
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Merges components that lie on a common cycle. Members of the cycle are the
+     * components marked by both searches of the current insertion.
+     * @return id of the surviving component
+     */
+    private int merge(int[] cycle) {
+        int survivor = cycle[0];
+        for (int c : cycle) {
+            if (out.get(c).size() + in.get(c).size() > out.get(survivor).size() + in.get(survivor).size()) {
+                survivor = c;
+            }
+        }
+        Map<Integer, Integer> survivorOut = out.get(survivor);
+        Map<Integer, Integer> survivorIn = in.get(survivor);
+        
+        for (int c : cycle) {
+            if (c == survivor) {
+                continue;
+            }
+            parent[c] = survivor;
+            int tmp = next[c];
+            next[c] = next[survivor];
+            next[survivor] = tmp;
+            size[survivor] += size[c];
+            componentCount--;
+            
+            for (Map.Entry<Integer, Integer> edge : out.get(c).entrySet()) {
+                int d = edge.getKey();
+                if (!onCycle(d)) {
+                    int w = survivorOut.merge(d, edge.getValue(), edgePolicy::merge);
+                    in.get(d).remove(c);
+                    in.get(d).put(survivor, w);
+                }
+            }
+            for (Map.Entry<Integer, Integer> edge : in.get(c).entrySet()) {
+                int d = edge.getKey();
+                if (!onCycle(d)) {
+                    int w = survivorIn.merge(d, edge.getValue(), edgePolicy::merge);
+                    out.get(d).remove(c);
+                    out.get(d).put(survivor, w);
+                }
+            }
+            out.set(c, null);
+            in.set(c, null);
+            ord[c] = NONE;
+        }
+        survivorOut.keySet().removeIf(this::onCycle);
+        survivorIn.keySet().removeIf(this::onCycle);
+        return survivor;
+    }
+    
+    private void place(int component, int position) {
+        ord[component] = position;
+        at[position] = component;
+    }
+    
+    private boolean onCycle(int c) {
+        return forwardMark[c] == stamp && backwardMark[c] == stamp;
+    }
+    
+    private void link(int cu, int cv, int weight) {
+        int w = out.get(cu).merge(cv, edgePolicy.initial(weight), edgePolicy::combine);
+        in.get(cv).put(cu, w);
+    }
+    
+    private int find(int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+    
+    private void allocate(int capacity) {
+        int old = parent == null ? 0 : parent.length;
+        parent = parent == null ? new int[capacity] : Arrays.copyOf(parent, capacity);
+        next = next == null ? new int[capacity] : Arrays.copyOf(next, capacity);
+        size = size == null ? new int[capacity] : Arrays.copyOf(size, capacity);
+        ord = ord == null ? new int[capacity] : Arrays.copyOf(ord, capacity);
+        at = at == null ? new int[capacity] : Arrays.copyOf(at, capacity);
+        forwardMark = forwardMark == null ? new int[capacity] : Arrays.copyOf(forwardMark, capacity);
+        backwardMark = backwardMark == null ? new int[capacity] : Arrays.copyOf(backwardMark, capacity);
+        forward = new int[capacity];
+        backward = new int[capacity];
+        for (int v = old; v < capacity; v++) {
+            parent[v] = v;
+            next[v] = v;
+            size[v] = 1;
+        }
+    }
+    
+    public int getVertexCount() {
+        return n;
+    }
+    
+    public int getComponentCount() {
+        return componentCount;
+    }
+    
+    public int componentOf(int vertex) {
+        return find(vertex);
+    }
+    
+    public int getComponentSize(int component) {
+        return size[component];
+    }
+    
+    /**
+     * @return members of the component in increasing vertex order
+     */
+    public List<Integer> getMembers(int component) {
+        List<Integer> members = new ArrayList<>(size[component]);
+        int v = component;
+        do {
+            members.add(v);
+            v = next[v];
+        } while (v != component);
+        Collections.sort(members);
+        return members;
+    }
+    
+    /**
+     * @return successor component -> aggregated edge weight in the condensation
+     */
+    public Map<Integer, Integer> getSuccessors(int component) {
+        return Collections.unmodifiableMap(out.get(component));
+    }
+    
+    public Map<Integer, Integer> getPredecessors(int component) {
+        return Collections.unmodifiableMap(in.get(component));
+    }
+    
+    /**
+     * Rank of a component in the maintained order. Ranks are not dense, but
+     * every condensation edge goes from a lower to a higher rank.
+     */
+    public int getRank(int component) {
+        return ord[component];
+    }
+    
+    /**
+     * @return component ids in topological order
+     */
+    public List<Integer> getComponentOrder() {
+        List<Integer> order = new ArrayList<>(componentCount);
+        for (int p = 0; p < positions; p++) {
+            if (at[p] != NONE) {
+                order.add(at[p]);
+            }
+        }
+        return order;
+    }
+    
+    /**
+     * Snapshot of the current decomposition, with components numbered in topological order.
+     */
+    public SccResult toSccResult() {
+        int[] dense = denseIds();
+        int[] componentOf = new int[n];
+        for (int v = 0; v < n; v++) {
+            componentOf[v] = dense[find(v)];
+        }
+        return SccResult.fromAssignment(componentOf, componentCount);
+    }
+    
+    /**
+     * Snapshot of the condensation DAG, numbered like {@link #toSccResult()}.
+     */
+    public CsrGraph toCondensation() {
+        int[] dense = denseIds();
+        int[] offsets = new int[componentCount + 1];
+        int edges = 0;
+        for (int p = 0, c = 0; p < positions; p++) {
+            if (at[p] != NONE) {
+                edges += out.get(at[p]).size();
+                offsets[++c] = edges;
+            }
+        }
+        int[] targets = new int[edges];
+        int[] weights = new int[edges];
+        for (int p = 0, e = 0; p < positions; p++) {
+            if (at[p] != NONE) {
+                for (Map.Entry<Integer, Integer> edge : out.get(at[p]).entrySet()) {
+                    targets[e] = dense[edge.getKey()];
+                    weights[e] = edge.getValue();
+                    e++;
+                }
+            }
+        }
+        return new CsrGraph(componentCount, true, edges, offsets, targets, weights, new int[componentCount]);
+    }
+    
+    private int[] denseIds() {
+        int[] dense = new int[n];
+        int id = 0;
+        for (int p = 0; p < positions; p++) {
+            if (at[p] != NONE) {
+                dense[at[p]] = id++;
+            }
+        }
+        return dense;
+    }
+    
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,409 @@
+package graph.scc;
+
+import graph.CsrGraph;
+import graph.GraphView;
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.MetricsImpl;
+import metrics.NoOpMetrics;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Multi-core SCC decomposition.
+ * 1. Trim: vertices with no remaining in- or out-neighbours are singleton SCCs.
+ * 2. Forward-backward: the SCC of a high-degree pivot (usually the giant component)
+ *    is the intersection of its forward and backward reachable sets, found by parallel BFS.
+ * 3. Coloring: the remaining vertices propagate the maximum vertex id forward;
+ *    each vertex that keeps its own id is a root whose SCC is the set of same-colored
+ *    vertices that reach it backwards. Each round is followed by another trim.
+ * 4. Once a round settles less than 1/{@value #RESIDUAL_DIVISOR} of the remaining
+ *    vertices (e.g. on long chains of small cycles, where coloring settles one SCC
+ *    per round), the residual subgraph is finished with sequential {@link TarjanSCC}.
+ * The result is normalized (see {@link SccResult#normalized()}), so it equals
+ * {@code new TarjanSCC(graph).findComponents().normalized()}.
+ */
+public class ParallelSCC {
+    private static final int GRAIN = 1024;
+    private static final int TRIM_ROUNDS = 3;
+    private static final int RESIDUAL_DIVISOR = 16;
+    private static final int UNASSIGNED = -1;
+    
+    private final GraphView graph;
+    private final ForkJoinPool pool;
+    private final Metrics metrics;
+    
+    private int n;
+    private int[] outOffsets;
+    private int[] outTargets;
+    private int[] inOffsets;
+    private int[] inTargets;
+    // representative vertex of the assigned SCC, UNASSIGNED while the vertex is still active
+    private int[] rep;
+    // coloring state, allocated once and reused by every round
+    private AtomicIntegerArray colors;
+    private int[] active;
+    
+    public ParallelSCC(GraphView graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+    
+    public ParallelSCC(GraphView graph, ForkJoinPool pool) {
+        this(graph, pool, new MetricsImpl());
+    }
+    
+    /**
+     * @param metrics receives coloring rounds and BFS frontier sizes; only the calling thread updates it
+     */
+    public ParallelSCC(GraphView graph, ForkJoinPool pool, Metrics metrics) {
+        this.graph = graph;
+        this.pool = pool;
+        this.metrics = metrics;
+    }
+    
+    public SccResult findComponents() {
+        n = graph.getVertexCount();
+        
+        metrics.startTimer();
+        
+        buildAdjacency();
+        rep = new int[n];
+        Arrays.fill(rep, UNASSIGNED);
+        
+        trim();
+        int pivot = choosePivot();
+        if (pivot != UNASSIGNED) {
+            forwardBackward(pivot);
+            trim();
+        }
+        
+        colors = new AtomicIntegerArray(n);
+        active = new int[n];
+        int remaining = collectActive();
+        while (remaining > 0) {
+            colorRound(remaining);
+            metrics.increment(Counter.ROUNDS);
+            trim();
+            int left = collectActive();
+            if (left > 0 && remaining - left < remaining / RESIDUAL_DIVISOR) {
+                finishSequentially(left);
+                break;
+            }
+            remaining = left;
+        }
+        
+        SccResult result = normalize();
+        
+        metrics.stopTimer();
+        
+        return result;
+    }
+    
+    private void buildAdjacency() {
+        outOffsets = new int[n + 1];
+        inOffsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            outOffsets[u + 1] = outOffsets[u] + degree;
+            for (int i = 0; i < degree; i++) {
+                inOffsets[graph.getNeighbor(u, i) + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            inOffsets[v + 1] += inOffsets[v];
+        }
+        
+        outTargets = new int[outOffsets[n]];
+        inTargets = new int[outOffsets[n]];
+        int[] cursor = Arrays.copyOf(inOffsets, n);
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            int e = outOffsets[u];
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                outTargets[e++] = v;
+                inTargets[cursor[v]++] = u;
+            }
+        }
+    }
+    
+    private void trim() {
+        for (int round = 0; round < TRIM_ROUNDS; round++) {
+            AtomicBoolean changed = new AtomicBoolean();
+            // a stale read of rep only makes the test more conservative, never wrong
+            parallelFor(0, n, v -> {
+                if (rep[v] == UNASSIGNED
+                        && (!hasActiveNeighbor(outOffsets, outTargets, v) || !hasActiveNeighbor(inOffsets, inTargets, v))) {
+                    rep[v] = v;
+                    changed.set(true);
+                }
+            });
+            if (!changed.get()) {
+                return;
+            }
+        }
+    }
+    
+    private boolean hasActiveNeighbor(int[] offsets, int[] targets, int v) {
+        for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+            int w = targets[e];
+            if (w != v && rep[w] == UNASSIGNED) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private int choosePivot() {
+        int pivot = UNASSIGNED;
+        long best = -1;
+        for (int v = 0; v < n; v++) {
+            if (rep[v] == UNASSIGNED) {
+                long score = (long) (outOffsets[v + 1] - outOffsets[v]) * (inOffsets[v + 1] - inOffsets[v]);
+                if (score > best) {
+                    best = score;
+                    pivot = v;
+                }
+            }
+        }
+        return pivot;
+    }
+    
+    private void forwardBackward(int pivot) {
+        // 1 = reached forward, 2 = reached forward and backward
+        AtomicIntegerArray mark = new AtomicIntegerArray(n);
+        mark.set(pivot, 2);
+        bfs(pivot, outOffsets, outTargets, mark, 0, 1);
+        bfs(pivot, inOffsets, inTargets, mark, 1, 2);
+        
+        parallelFor(0, n, v -> {
+            if (mark.get(v) == 2) {
+                rep[v] = pivot;
+            }
+        });
+    }
+    
+    /**
+     * Level-synchronous parallel BFS over active vertices whose mark equals from,
+     * switching each reached vertex's mark to to.
+     */
+    private void bfs(int start, int[] offsets, int[] targets, AtomicIntegerArray mark, int from, int to) {
+        int[] frontier = new int[n];
+        int[] next = new int[n];
+        frontier[0] = start;
+        int size = 1;
+        
+        while (size > 0) {
+            int[] current = frontier;
+            int[] out = next;
+            AtomicInteger tail = new AtomicInteger();
+            parallelFor(0, size, i -> {
+                int u = current[i];
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    int w = targets[e];
+                    if (rep[w] == UNASSIGNED && mark.get(w) == from && mark.compareAndSet(w, from, to)) {
+                        out[tail.getAndIncrement()] = w;
+                    }
+                }
+            });
+            metrics.add(Counter.VERTEX_VISITS, size);
+            size = tail.get();
+            frontier = out;
+            next = current;
+        }
+    }
+    
+    /**
+     * Lists the active vertices in active[0 .. count), highest ids first,
+     * so large colors spread before smaller ones are pushed.
+     * @return number of active vertices
+     */
+    private int collectActive() {
+        int count = 0;
+        for (int v = n - 1; v >= 0; v--) {
+            if (rep[v] == UNASSIGNED) {
+                active[count++] = v;
+            }
+        }
+        return count;
+    }
+    
+    private void colorRound(int count) {
+        int[] seeds = active;
+        for (int i = 0; i < count; i++) {
+            colors.set(seeds[i], seeds[i]);
+        }
+        pool.invoke(new PropagateTask(seeds, 0, count, colors));
+        
+        parallelFor(0, count, i -> {
+            int root = seeds[i];
+            if (colors.get(root) == root) {
+                collectBackward(root, colors);
+            }
+        });
+    }
+    
+    /**
+     * Runs {@link TarjanSCC} on the subgraph induced by the count active vertices.
+     */
+    private void finishSequentially(int count) {
+        int[] localId = new int[n];
+        for (int i = 0; i < count; i++) {
+            localId[active[i]] = i;
+        }
+        CsrGraph.Builder builder = new CsrGraph.Builder(count, true);
+        for (int i = 0; i < count; i++) {
+            int u = active[i];
+            for (int e = outOffsets[u]; e < outOffsets[u + 1]; e++) {
+                int w = outTargets[e];
+                if (rep[w] == UNASSIGNED) {
+                    builder.addEdge(i, localId[w], 1);
+                }
+            }
+        }
+        
+        SccResult residual = new TarjanSCC(builder.build(), NoOpMetrics.INSTANCE).findComponents();
+        for (int c = 0; c < residual.componentCount; c++) {
+            int root = active[residual.members[residual.memberOffsets[c]]];
+            for (int m = residual.memberOffsets[c]; m < residual.memberOffsets[c + 1]; m++) {
+                rep[active[residual.members[m]]] = root;
+            }
+        }
+        metrics.add(Counter.VERTEX_VISITS, count);
+    }
+    
+    private void collectBackward(int root, AtomicIntegerArray colors) {
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = root;
+        rep[root] = root;
+        
+        while (top > 0) {
+            int v = stack[--top];
+            for (int e = inOffsets[v]; e < inOffsets[v + 1]; e++) {
+                int w = inTargets[e];
+                if (rep[w] == UNASSIGNED && colors.get(w) == root) {
+                    rep[w] = root;
+                    if (top == stack.length) {
+                        stack = Arrays.copyOf(stack, top * 2);
+                    }
+                    stack[top++] = w;
+                }
+            }
+        }
+    }
+    
+    private SccResult normalize() {
+        int[] idOfRep = new int[n];
+        Arrays.fill(idOfRep, UNASSIGNED);
+        int[] componentOf = new int[n];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            int r = rep[v];
+            if (idOfRep[r] == UNASSIGNED) {
+                idOfRep[r] = count++;
+            }
+            componentOf[v] = idOfRep[r];
+        }
+        return SccResult.fromAssignment(componentOf, count);
+    }
+    
+    private void parallelFor(int from, int to, IntConsumer body) {
+        if (to - from <= GRAIN) {
+            for (int i = from; i < to; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+        pool.invoke(new RangeTask(from, to, body));
+    }
+    
+    public Metrics getMetrics() {
+        return metrics;
+    }
+    
+    private static class RangeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+        
+        RangeTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, body), new RangeTask(mid, to, body));
+        }
+    }
+    
+    /**
+     * Asynchronous max-color propagation. Whoever raises a vertex's color
+     * pushes it on along that vertex's out-edges, so when all tasks finish
+     * every edge u -> v of the active subgraph satisfies color[u] <= color[v].
+     */
+    private class PropagateTask extends RecursiveAction {
+        private final int[] seeds;
+        private final int from;
+        private final int to;
+        private final AtomicIntegerArray colors;
+        
+        PropagateTask(int[] seeds, int from, int to, AtomicIntegerArray colors) {
+            this.seeds = seeds;
+            this.from = from;
+            this.to = to;
+            this.colors = colors;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new PropagateTask(seeds, from, mid, colors), new PropagateTask(seeds, mid, to, colors));
+                return;
+            }
+            
+            int[] stack = new int[16];
+            for (int i = from; i < to; i++) {
+                int top = 0;
+                stack[top++] = seeds[i];
+                
+                while (top > 0) {
+                    int u = stack[--top];
+                    int color = colors.get(u);
+                    for (int e = outOffsets[u]; e < outOffsets[u + 1]; e++) {
+                        int w = outTargets[e];
+                        if (rep[w] != UNASSIGNED) {
+                            continue;
+                        }
+                        int current = colors.get(w);
+                        while (current < color) {
+                            if (colors.compareAndSet(w, current, color)) {
+                                if (top == stack.length) {
+                                    stack = Arrays.copyOf(stack, top * 2);
+                                }
+                                stack[top++] = w;
+                                break;
+                            }
+                            current = colors.get(w);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package graph.scc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact SCC decomposition.
+ * componentOf maps every vertex to its component id; the members of component c
+ * are stored in members[memberOffsets[c] .. memberOffsets[c + 1] - 1].
+ */
+public class SccResult {
+    public final int[] componentOf;
+    public final int componentCount;
+    public final int[] memberOffsets;
+    public final int[] members;
+    
+    public SccResult(int[] componentOf, int componentCount, int[] memberOffsets, int[] members) {
+        this.componentOf = componentOf;
+        this.componentCount = componentCount;
+        this.memberOffsets = memberOffsets;
+        this.members = members;
+    }
+    
+    /**
+     * Builds the member index from a component assignment.
+     * Members of each component are listed in increasing vertex order.
+     * @param componentOf component id per vertex
+     * @param componentCount number of components
+     * @return result with the member index filled in
+     */
+    public static SccResult fromAssignment(int[] componentOf, int componentCount) {
+        int[] memberOffsets = new int[componentCount + 1];
+        for (int c : componentOf) {
+            memberOffsets[c + 1]++;
+        }
+        for (int c = 0; c < componentCount; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        
+        int[] cursor = new int[componentCount];
+        System.arraycopy(memberOffsets, 0, cursor, 0, componentCount);
+        int[] members = new int[componentOf.length];
+        for (int v = 0; v < componentOf.length; v++) {
+            members[cursor[componentOf[v]]++] = v;
+        }
+        
+        return new SccResult(componentOf, componentCount, memberOffsets, members);
+    }
+    
+    /**
+     * Renumbers components in order of their smallest vertex, so results from
+     * different SCC algorithms on the same graph compare equal.
+     * @return normalized copy of this result
+     */
+    public SccResult normalized() {
+        int[] newId = new int[componentCount];
+        Arrays.fill(newId, -1);
+        int[] normalized = new int[componentOf.length];
+        int next = 0;
+        for (int v = 0; v < componentOf.length; v++) {
+            int c = componentOf[v];
+            if (newId[c] == -1) {
+                newId[c] = next++;
+            }
+            normalized[v] = newId[c];
+        }
+        return fromAssignment(normalized, componentCount);
+    }
+    
+    public int getComponent(int vertex) {
+        return componentOf[vertex];
+    }
+    
+    public int getComponentSize(int component) {
+        return memberOffsets[component + 1] - memberOffsets[component];
+    }
+    
+    public List<Integer> getMembers(int component) {
+        List<Integer> list = new ArrayList<>(getComponentSize(component));
+        for (int i = memberOffsets[component]; i < memberOffsets[component + 1]; i++) {
+            list.add(members[i]);
+        }
+        return list;
+    }
+    
+    public List<List<Integer>> toLists() {
+        List<List<Integer>> lists = new ArrayList<>(componentCount);
+        for (int c = 0; c < componentCount; c++) {
+            lists.add(getMembers(c));
+        }
+        return lists;
+    }
+}
@@ -1,124 +1,195 @@
 package graph.scc;
 
+import graph.CsrGraph;
 import graph.Graph;
-import graph.Edge;
+import graph.GraphView;
+import metrics.Counter;
 import metrics.Metrics;
 import metrics.MetricsImpl;
 import java.util.*;
 
+/**
+ * Tarjan-style SCC detection using Pearce's space-efficient variant.
+ * The DFS runs on an explicit stack, so path length is not limited by the thread stack,
+ * and a single rindex array replaces disc/low/onStack.
+ */
 public class TarjanSCC {
-    private final Graph graph;
+    private final GraphView graph;
     private final Metrics metrics;
     
-    private int[] disc;
-    private int[] low;
-    private boolean[] onStack;
-    private Stack<Integer> stack;
-    private int time;
-    
+    private SccResult result;
     private List<List<Integer>> sccs;
     
-    public TarjanSCC(Graph graph) {
+    public TarjanSCC(GraphView graph) {
+        this(graph, new MetricsImpl());
+    }
+    
+    /**
+     * @param metrics receives vertex visits and edge scans; pass {@link metrics.NoOpMetrics#INSTANCE} to skip counting
+     */
+    public TarjanSCC(GraphView graph, Metrics metrics) {
         this.graph = graph;
-        this.metrics = new MetricsImpl();
+        this.metrics = metrics;
     }
     
-    public List<List<Integer>> findSCCs() {
+    /**
+     * Finds all SCCs. Components are numbered in completion order,
+     * which is a reverse topological order of the condensation.
+     * @return component id per vertex plus member index
+     */
+    public SccResult findComponents() {
         int n = graph.getVertexCount();
         
-        disc = new int[n];
-        low = new int[n];
-        onStack = new boolean[n];
-        stack = new Stack<>();
-        sccs = new ArrayList<>();
-        time = 0;
+        // rindex holds the DFS index while a vertex is live and n - 1 - component once assigned
+        int[] rindex = new int[n];
+        boolean[] root = new boolean[n];
+        // DFS frames grow from the bottom, the component stack grows from the top;
+        // a vertex is never on both, so one array of n ints is enough
+        int[] stack = new int[n];
+        int[] cursor = new int[n];
+        int[] members = new int[n];
+        int[] memberOffsets = new int[n + 1];
         
-        Arrays.fill(disc, -1);
-        Arrays.fill(low, -1);
+        int index = 1;
+        int c = n - 1;
+        int dfsTop = 0;
+        int compTop = n;
+        int count = 0;
+        int written = 0;
         
         metrics.startTimer();
         
-        for (int v = 0; v < n; v++) {
-            if (disc[v] == -1) {
-                tarjanDFS(v);
+        for (int s = 0; s < n; s++) {
+            if (rindex[s] != 0) {
+                continue;
+            }
+            
+            stack[dfsTop] = s;
+            cursor[dfsTop] = 0;
+            dfsTop++;
+            root[s] = true;
+            rindex[s] = index++;
+            metrics.increment(Counter.VERTEX_VISITS);
+            
+            while (dfsTop > 0) {
+                int frame = dfsTop - 1;
+                int v = stack[frame];
+                int degree = graph.getOutDegree(v);
+                int i = cursor[frame];
+                boolean descended = false;
+                
+                while (i < degree) {
+                    int w = graph.getNeighbor(v, i++);
+                    metrics.increment(Counter.EDGE_SCANS);
+                    
+                    if (rindex[w] == 0) {
+                        cursor[frame] = i;
+                        stack[dfsTop] = w;
+                        cursor[dfsTop] = 0;
+                        dfsTop++;
+                        root[w] = true;
+                        rindex[w] = index++;
+                        metrics.increment(Counter.VERTEX_VISITS);
+                        descended = true;
+                        break;
+                    }
+                    if (rindex[w] < rindex[v]) {
+                        rindex[v] = rindex[w];
+                        root[v] = false;
+                    }
+                }
+                
+                if (descended) {
+                    continue;
+                }
+                
+                dfsTop--;
+                if (root[v]) {
+                    index--;
+                    while (compTop < n && rindex[v] <= rindex[stack[compTop]]) {
+                        int w = stack[compTop++];
+                        rindex[w] = c;
+                        index--;
+                        members[written++] = w;
+                    }
+                    rindex[v] = c;
+                    c--;
+                    members[written++] = v;
+                    count++;
+                    memberOffsets[count] = written;
+                } else {
+                    stack[--compTop] = v;
+                }
+                
+                if (dfsTop > 0) {
+                    int parent = stack[dfsTop - 1];
+                    if (rindex[v] < rindex[parent]) {
+                        rindex[parent] = rindex[v];
+                        root[parent] = false;
+                    }
+                }
             }
         }
         
+        for (int v = 0; v < n; v++) {
+            rindex[v] = n - 1 - rindex[v];
+        }
+        
         metrics.stopTimer();
         
+        result = new SccResult(rindex, count, Arrays.copyOf(memberOffsets, count + 1), members);
+        sccs = null;
+        return result;
+    }
+    
+    public List<List<Integer>> findSCCs() {
+        findComponents();
+        sccs = result.toLists();
         return sccs;
     }
     
-    private void tarjanDFS(int u) {
-        disc[u] = low[u] = time++;
-        stack.push(u);
-        onStack[u] = true;
-        
-        metrics.incrementOperations();
-        
-        for (Edge edge : graph.getNeighbors(u)) {
-            int v = edge.to;
-            metrics.incrementOperations();
-            
-            if (disc[v] == -1) {
-                tarjanDFS(v);
-                low[u] = Math.min(low[u], low[v]);
-            } else if (onStack[v]) {
-                low[u] = Math.min(low[u], disc[v]);
-            }
-        }
-        
-        if (low[u] == disc[u]) {
-            List<Integer> scc = new ArrayList<>();
-            int v;
-            do {
-                v = stack.pop();
-                onStack[v] = false;
-                scc.add(v);
-            } while (v != u);
-            
-            sccs.add(scc);
-        }
+    /**
+     * Builds the condensation DAG with the given aggregation policies.
+     * @param edgePolicy how parallel inter-component edge weights are combined
+     * @param nodePolicy how member node weights are combined per component
+     * @return condensation in CSR form, one vertex per component
+     */
+    public CsrGraph buildCondensation(Aggregation edgePolicy, Aggregation nodePolicy) {
+        return new CondensationBuilder(graph, getComponents()).build(edgePolicy, nodePolicy);
     }
     
+    /**
+     * Builds the condensation as a list-based Graph, keeping the first edge
+     * (from the lowest-numbered vertex) between each pair of components
+     * and summing node weights per component.
+     * @return condensation DAG
+     */
     public Graph buildCondensationGraph() {
-        if (sccs == null || sccs.isEmpty()) {
-            findSCCs();
-        }
-        
-        int numSccs = sccs.size();
-        Graph condensation = new Graph(numSccs, true);
+        CsrGraph dag = buildCondensation(Aggregation.FIRST, Aggregation.SUM);
         
-        int[] vertexToScc = new int[graph.getVertexCount()];
-        for (int sccIndex = 0; sccIndex < sccs.size(); sccIndex++) {
-            for (int vertex : sccs.get(sccIndex)) {
-                vertexToScc[vertex] = sccIndex;
+        Graph condensation = new Graph(dag.getVertexCount(), true);
+        for (int c = 0; c < dag.getVertexCount(); c++) {
+            for (int e = dag.edgeStart(c); e < dag.edgeEnd(c); e++) {
+                condensation.addEdge(c, dag.edgeTarget(e), dag.edgeWeight(e));
             }
-        }
-        
-        Set<String> addedEdges = new HashSet<>();
-        for (int u = 0; u < graph.getVertexCount(); u++) {
-            int sccU = vertexToScc[u];
-            for (Edge edge : graph.getNeighbors(u)) {
-                int v = edge.to;
-                int sccV = vertexToScc[v];
-                
-                if (sccU != sccV) {
-                    String edgeKey = sccU + "-" + sccV;
-                    if (!addedEdges.contains(edgeKey)) {
-                        condensation.addEdge(sccU, sccV, edge.weight);
-                        addedEdges.add(edgeKey);
-                    }
-                }
+            if (dag.getNodeWeight(c) != 0) {
+                condensation.setNodeWeight(c, dag.getNodeWeight(c));
             }
         }
         
         return condensation;
     }
     
+    public SccResult getComponents() {
+        if (result == null) {
+            findComponents();
+        }
+        return result;
+    }
+    
     public List<List<Integer>> getSCCs() {
         if (sccs == null) {
-            findSCCs();
+            sccs = getComponents().toLists();
         }
         return sccs;
     }
@@ -127,7 +198,3 @@ public class TarjanSCC {
         return metrics;
     }
 }
-
-
-
-
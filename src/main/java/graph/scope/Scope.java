@@ -0,0 +1,144 @@
+package graph.scope;
+
+import graph.CsrGraph;
+import graph.WeightModel;
+import graph.dagsp.ShortestPaths;
+import graph.scc.Aggregation;
+import graph.scc.CondensationBuilder;
+import graph.scc.SccResult;
+import graph.scc.TarjanSCC;
+import metrics.NoOpMetrics;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Region of a graph selected by {@link ScopedAnalysis}, stored as a local graph whose
+ * vertex i is the i-th smallest vertex of the region. Components and the condensation
+ * are computed on first use, so a caller that needs only paths or only SCCs pays for nothing else.
+ * Vertex arguments and returned members use the ids of the original graph.
+ */
+public class Scope {
+    private final int[] vertices;
+    private final CsrGraph subgraph;
+    private final int source;
+    
+    private SccResult components;
+    private CsrGraph condensation;
+    
+    /**
+     * @param vertices original id of each local vertex, in increasing order
+     * @param subgraph region as a local graph
+     * @param source local id of the source, -1 for an empty scope
+     */
+    Scope(int[] vertices, CsrGraph subgraph, int source) {
+        this.vertices = vertices;
+        this.subgraph = subgraph;
+        this.source = source;
+    }
+    
+    public int size() {
+        return vertices.length;
+    }
+    
+    public boolean isEmpty() {
+        return vertices.length == 0;
+    }
+    
+    public boolean contains(int vertex) {
+        return localOf(vertex) >= 0;
+    }
+    
+    /**
+     * @return local id of an original vertex, -1 if it is outside the scope
+     */
+    public int localOf(int vertex) {
+        int i = Arrays.binarySearch(vertices, vertex);
+        return i >= 0 ? i : -1;
+    }
+    
+    /**
+     * @return original id of a local vertex
+     */
+    public int getVertex(int local) {
+        return vertices[local];
+    }
+    
+    public CsrGraph getSubgraph() {
+        return subgraph;
+    }
+    
+    /**
+     * @return SCCs of the scope, over local vertex ids
+     */
+    public SccResult getComponents() {
+        if (components == null) {
+            components = new TarjanSCC(subgraph, NoOpMetrics.INSTANCE).findComponents();
+        }
+        return components;
+    }
+    
+    /**
+     * @return condensation of the scope with first-edge and summed node weights, as in Main
+     */
+    public CsrGraph getCondensation() {
+        if (condensation == null) {
+            condensation = new CondensationBuilder(subgraph, getComponents()).build(Aggregation.FIRST, Aggregation.SUM);
+        }
+        return condensation;
+    }
+    
+    /**
+     * @return component of an original vertex, -1 if it is outside the scope
+     */
+    public int getComponent(int vertex) {
+        int local = localOf(vertex);
+        return local < 0 ? -1 : getComponents().componentOf[local];
+    }
+    
+    /**
+     * @return component of the source, -1 for an empty scope
+     */
+    public int getSourceComponent() {
+        return source < 0 ? -1 : getComponents().componentOf[source];
+    }
+    
+    /**
+     * @return original ids of the members of a component, in the order of {@link SccResult#members}
+     */
+    public List<Integer> getMembers(int component) {
+        SccResult sccs = getComponents();
+        List<Integer> members = new ArrayList<>(sccs.getComponentSize(component));
+        for (int i = sccs.memberOffsets[component]; i < sccs.memberOffsets[component + 1]; i++) {
+            members.add(vertices[sccs.members[i]]);
+        }
+        return members;
+    }
+    
+    /**
+     * @return shortest paths over the condensation from the source component
+     * @throws IllegalStateException if the scope is empty
+     */
+    public ShortestPaths.PathResult shortestPaths(WeightModel model) {
+        return paths(model).shortestPaths(sourceComponent());
+    }
+    
+    /**
+     * @return longest paths over the condensation from the source component
+     * @throws IllegalStateException if the scope is empty
+     */
+    public ShortestPaths.PathResult longestPaths(WeightModel model) {
+        return paths(model).longestPaths(sourceComponent());
+    }
+    
+    private ShortestPaths paths(WeightModel model) {
+        return new ShortestPaths(getCondensation(), model, NoOpMetrics.INSTANCE);
+    }
+    
+    private int sourceComponent() {
+        if (source < 0) {
+            throw new IllegalStateException("Scope is empty");
+        }
+        return getSourceComponent();
+    }
+}
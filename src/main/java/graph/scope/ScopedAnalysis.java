@@ -0,0 +1,217 @@
+package graph.scope;
+
+import graph.CsrGraph;
+import graph.GraphView;
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.MetricsImpl;
+import java.util.Arrays;
+
+/**
+ * Source-scoped analysis: instead of decomposing the whole graph, each query copies
+ * only the vertices reachable from its source into a compact local graph, on which
+ * SCCs, condensation and paths are computed lazily by {@link Scope}.
+ * The O(n) lookup arrays are allocated once per instance and reset only where a
+ * query touched them, so a query costs O(r log r + e) for r reachable vertices
+ * and e edges leaving them, independent of the size of the graph.
+ * An instance is not thread-safe; use one per thread.
+ */
+public class ScopedAnalysis {
+    private final GraphView graph;
+    private final Metrics metrics;
+    private final int[] localId;
+    private final int[] queue;
+    
+    public ScopedAnalysis(GraphView graph) {
+        this(graph, new MetricsImpl());
+    }
+    
+    /**
+     * @param metrics receives vertex visits and edge scans of the scoping traversals
+     */
+    public ScopedAnalysis(GraphView graph, Metrics metrics) {
+        this.graph = graph;
+        this.metrics = metrics;
+        this.localId = new int[graph.getVertexCount()];
+        this.queue = new int[graph.getVertexCount()];
+        Arrays.fill(localId, -1);
+    }
+    
+    /**
+     * @return the subgraph reachable from source
+     * @throws IllegalArgumentException if source is not a vertex of the graph
+     */
+    public Scope fromSource(int source) {
+        checkVertex(source);
+        metrics.startTimer();
+        int[] vertices = reach(source);
+        CsrGraph local = induce(graph, vertices, localId);
+        int localSource = localId[source];
+        for (int v : vertices) {
+            localId[v] = -1;
+        }
+        metrics.stopTimer();
+        return new Scope(vertices, local, localSource);
+    }
+    
+    /**
+     * Narrows the reachable subgraph to the vertices that also reach target,
+     * i.e. the vertices that lie on some path from source to target.
+     * @return the vertices between source and target; empty if target is not reachable
+     * @throws IllegalArgumentException if source or target is not a vertex of the graph
+     */
+    public Scope between(int source, int target) {
+        // validated up front: reach() marks localId, which must be reset before anything can throw
+        checkVertex(source);
+        checkVertex(target);
+        metrics.startTimer();
+        int[] vertices = reach(source);
+        CsrGraph forward = induce(graph, vertices, localId);
+        int localSource = localId[source];
+        int localTarget = localId[target];
+        for (int v : vertices) {
+            localId[v] = -1;
+        }
+        if (localTarget < 0) {
+            metrics.stopTimer();
+            return new Scope(new int[0], induce(forward, new int[0], new int[0]), -1);
+        }
+        
+        // reverse search from the target inside the forward region only
+        int r = vertices.length;
+        int[] reverseOffsets = new int[r + 1];
+        for (int u = 0; u < r; u++) {
+            for (int e = forward.edgeStart(u); e < forward.edgeEnd(u); e++) {
+                reverseOffsets[forward.edgeTarget(e) + 1]++;
+            }
+        }
+        for (int u = 0; u < r; u++) {
+            reverseOffsets[u + 1] += reverseOffsets[u];
+        }
+        int[] reverseTargets = new int[reverseOffsets[r]];
+        int[] cursor = Arrays.copyOf(reverseOffsets, r);
+        for (int u = 0; u < r; u++) {
+            for (int e = forward.edgeStart(u); e < forward.edgeEnd(u); e++) {
+                reverseTargets[cursor[forward.edgeTarget(e)]++] = u;
+            }
+        }
+        
+        boolean[] keep = new boolean[r];
+        int[] pending = new int[r];
+        int head = 0;
+        int tail = 0;
+        keep[localTarget] = true;
+        pending[tail++] = localTarget;
+        while (head < tail) {
+            int v = pending[head++];
+            metrics.increment(Counter.VERTEX_VISITS);
+            for (int e = reverseOffsets[v]; e < reverseOffsets[v + 1]; e++) {
+                int u = reverseTargets[e];
+                metrics.increment(Counter.EDGE_SCANS);
+                if (!keep[u]) {
+                    keep[u] = true;
+                    pending[tail++] = u;
+                }
+            }
+        }
+        
+        // tail vertices were kept; list them in local order, which is also global order
+        int[] kept = new int[tail];
+        int[] keptId = new int[r];
+        int count = 0;
+        for (int v = 0; v < r; v++) {
+            keptId[v] = -1;
+            if (keep[v]) {
+                keptId[v] = count;
+                kept[count++] = v;
+            }
+        }
+        CsrGraph local = induce(forward, kept, keptId);
+        int[] global = new int[count];
+        for (int i = 0; i < count; i++) {
+            global[i] = vertices[kept[i]];
+        }
+        metrics.stopTimer();
+        return new Scope(global, local, keptId[localSource]);
+    }
+    
+    private void checkVertex(int v) {
+        if (v < 0 || v >= localId.length) {
+            throw new IllegalArgumentException("Vertex " + v + " out of range for n=" + localId.length);
+        }
+    }
+    
+    public Metrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Breadth-first search from source. Leaves localId[v] set for every reached vertex,
+     * numbered in increasing vertex order; the caller must reset those entries.
+     * @return reached vertices in increasing order
+     */
+    private int[] reach(int source) {
+        int head = 0;
+        int tail = 0;
+        localId[source] = 0;
+        queue[tail++] = source;
+        while (head < tail) {
+            int u = queue[head++];
+            metrics.increment(Counter.VERTEX_VISITS);
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
+                metrics.increment(Counter.EDGE_SCANS);
+                if (localId[v] < 0) {
+                    localId[v] = 0;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        int[] vertices = Arrays.copyOf(queue, tail);
+        Arrays.sort(vertices);
+        for (int i = 0; i < vertices.length; i++) {
+            localId[vertices[i]] = i;
+        }
+        return vertices;
+    }
+    
+    /**
+     * Copies the subgraph induced by the given vertices, keeping adjacency order.
+     * Edges to vertices without a local id are dropped.
+     * @param vertices vertices of g in increasing order
+     * @param ids local id of each vertex of g, -1 if not included
+     */
+    private static CsrGraph induce(GraphView g, int[] vertices, int[] ids) {
+        int r = vertices.length;
+        int[] offsets = new int[r + 1];
+        for (int i = 0; i < r; i++) {
+            int u = vertices[i];
+            int kept = 0;
+            for (int j = 0; j < g.getOutDegree(u); j++) {
+                if (ids[g.getNeighbor(u, j)] >= 0) {
+                    kept++;
+                }
+            }
+            offsets[i + 1] = offsets[i] + kept;
+        }
+        int[] targets = new int[offsets[r]];
+        int[] weights = new int[offsets[r]];
+        int[] nodeWeights = new int[r];
+        int pos = 0;
+        for (int i = 0; i < r; i++) {
+            int u = vertices[i];
+            nodeWeights[i] = g.getNodeWeight(u);
+            for (int j = 0; j < g.getOutDegree(u); j++) {
+                int v = ids[g.getNeighbor(u, j)];
+                if (v >= 0) {
+                    targets[pos] = v;
+                    weights[pos] = g.getNeighborWeight(u, j);
+                    pos++;
+                }
+            }
+        }
+        int edgeCount = g.isDirected() ? pos : pos / 2;
+        return new CsrGraph(r, g.isDirected(), edgeCount, offsets, targets, weights, nodeWeights);
+    }
+}
@@ -0,0 +1,266 @@
+package graph.topo;
+
+import graph.GraphView;
+import metrics.Counter;
+import metrics.DetailedMetrics;
+import metrics.Metrics;
+import metrics.NoOpMetrics;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Runs one task per vertex of a DAG (typically a condensation), starting each task
+ * as soon as all its predecessors have finished. At most {@code concurrency} tasks run
+ * at once on a fixed pool. A failed task is not retried; every task that depends on it,
+ * directly or transitively, is skipped, while independent branches keep running.
+ */
+public class DagExecutor {
+    private final GraphView dag;
+    private final int concurrency;
+    private final Metrics metrics;
+    
+    /**
+     * Work for one vertex. Any exception marks the vertex as failed.
+     */
+    @FunctionalInterface
+    public interface VertexTask {
+        void run(int vertex) throws Exception;
+    }
+    
+    public enum Status {
+        SUCCEEDED,
+        FAILED,
+        SKIPPED
+    }
+    
+    /**
+     * Does not count started tasks; pass a {@link DetailedMetrics} to count them.
+     */
+    public DagExecutor(GraphView dag, int concurrency) {
+        this(dag, concurrency, NoOpMetrics.INSTANCE);
+    }
+    
+    /**
+     * @param concurrency maximum number of tasks running at the same time
+     * @param metrics receives one push per started task; updated from worker threads, so it must be thread-safe
+     */
+    public DagExecutor(GraphView dag, int concurrency, Metrics metrics) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1: " + concurrency);
+        }
+        this.dag = dag;
+        this.concurrency = concurrency;
+        this.metrics = metrics;
+    }
+    
+    /**
+     * Runs all tasks and waits for them to finish.
+     * @return status and timing of every vertex
+     * @throws IllegalArgumentException if the graph contains a cycle
+     * @throws InterruptedException if interrupted while waiting; running tasks are interrupted too
+     */
+    public ExecutionResult execute(VertexTask task) throws InterruptedException {
+        int n = dag.getVertexCount();
+        if (new TopologicalSort(dag, NoOpMetrics.INSTANCE).kahnSort().size() != n) {
+            throw new IllegalArgumentException("Graph contains a cycle");
+        }
+        
+        metrics.startTimer();
+        Run run = new Run(n, task);
+        try {
+            return run.await();
+        } finally {
+            metrics.stopTimer();
+        }
+    }
+    
+    public Metrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * State of one execution. Per-vertex arrays are written by the worker that finishes
+     * the vertex and read only after the latch, which orders those writes before the reads.
+     */
+    private class Run {
+        private final VertexTask task;
+        private final ExecutorService pool;
+        private final AtomicIntegerArray remaining;
+        private final AtomicIntegerArray blocked;
+        private final CountDownLatch done;
+        private final Status[] status;
+        private final long[] startNs;
+        private final long[] endNs;
+        private final Throwable[] errors;
+        private final long origin;
+        
+        Run(int n, VertexTask task) {
+            this.task = task;
+            this.pool = Executors.newFixedThreadPool(concurrency, workerFactory());
+            this.remaining = new AtomicIntegerArray(n);
+            this.blocked = new AtomicIntegerArray(n);
+            this.done = new CountDownLatch(n);
+            this.status = new Status[n];
+            this.startNs = new long[n];
+            this.endNs = new long[n];
+            this.errors = new Throwable[n];
+            this.origin = System.nanoTime();
+            
+            for (int u = 0; u < n; u++) {
+                int degree = dag.getOutDegree(u);
+                for (int i = 0; i < degree; i++) {
+                    remaining.incrementAndGet(dag.getNeighbor(u, i));
+                }
+            }
+        }
+        
+        ExecutionResult await() throws InterruptedException {
+            int n = status.length;
+            // roots are collected before any task starts; once workers run, a count of zero
+            // may mean the vertex was already released by a predecessor
+            List<Integer> roots = new ArrayList<>();
+            for (int v = 0; v < n; v++) {
+                if (remaining.get(v) == 0) {
+                    roots.add(v);
+                }
+            }
+            try {
+                for (int v : roots) {
+                    submit(v);
+                }
+                done.await();
+            } catch (InterruptedException e) {
+                pool.shutdownNow();
+                throw e;
+            }
+            pool.shutdown();
+            return new ExecutionResult(status, startNs, endNs, errors, System.nanoTime() - origin);
+        }
+        
+        private void submit(int v) {
+            metrics.increment(Counter.PUSHES);
+            pool.execute(() -> runTask(v));
+        }
+        
+        private void runTask(int v) {
+            startNs[v] = System.nanoTime() - origin;
+            try {
+                task.run(v);
+                status[v] = Status.SUCCEEDED;
+            } catch (Throwable t) {
+                status[v] = Status.FAILED;
+                errors[v] = t;
+            }
+            endNs[v] = System.nanoTime() - origin;
+            finish(v);
+        }
+        
+        /**
+         * Releases the successors of a finished vertex. Successors of a failed or skipped
+         * vertex are marked blocked before the release, so whichever thread releases a
+         * vertex last sees the mark and skips it instead of running it.
+         */
+        private void finish(int vertex) {
+            Deque<Integer> skipped = new ArrayDeque<>();
+            int v = vertex;
+            while (true) {
+                boolean failed = status[v] != Status.SUCCEEDED;
+                int degree = dag.getOutDegree(v);
+                for (int i = 0; i < degree; i++) {
+                    int w = dag.getNeighbor(v, i);
+                    if (failed) {
+                        blocked.set(w, 1);
+                    }
+                    if (remaining.decrementAndGet(w) == 0) {
+                        if (blocked.get(w) == 1) {
+                            status[w] = Status.SKIPPED;
+                            skipped.push(w);
+                        } else {
+                            submit(w);
+                        }
+                    }
+                }
+                done.countDown();
+                if (skipped.isEmpty()) {
+                    return;
+                }
+                v = skipped.pop();
+            }
+        }
+    }
+    
+    private static ThreadFactory workerFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "dag-task-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * Outcome of one execution. Times are nanoseconds since the execution started;
+     * skipped vertices have no timing.
+     */
+    public static class ExecutionResult {
+        public final Status[] status;
+        public final long[] startNs;
+        public final long[] endNs;
+        public final Throwable[] errors;
+        public final long wallTimeNs;
+        
+        public ExecutionResult(Status[] status, long[] startNs, long[] endNs, Throwable[] errors, long wallTimeNs) {
+            this.status = status;
+            this.startNs = startNs;
+            this.endNs = endNs;
+            this.errors = errors;
+            this.wallTimeNs = wallTimeNs;
+        }
+        
+        public Status getStatus(int vertex) {
+            return status[vertex];
+        }
+        
+        public long getDurationNs(int vertex) {
+            return endNs[vertex] - startNs[vertex];
+        }
+        
+        public boolean isSuccessful() {
+            for (Status s : status) {
+                if (s != Status.SUCCEEDED) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        public List<Integer> getVertices(Status wanted) {
+            List<Integer> vertices = new ArrayList<>();
+            for (int v = 0; v < status.length; v++) {
+                if (status[v] == wanted) {
+                    vertices.add(v);
+                }
+            }
+            return vertices;
+        }
+        
+        /**
+         * @return sum of all task durations, i.e. the wall time of a serial run
+         */
+        public long getTotalTaskTimeNs() {
+            long total = 0;
+            for (int v = 0; v < status.length; v++) {
+                total += getDurationNs(v);
+            }
+            return total;
+        }
+    }
+}
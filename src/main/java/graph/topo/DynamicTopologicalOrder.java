@@ -0,0 +1,276 @@
+package graph.topo;
+
+import graph.GraphView;
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.MetricsImpl;
+import metrics.NoOpMetrics;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Topological order maintained under edge insertions (Pearce-Kelly).
+ * An edge u -> v that already agrees with the order costs O(1). Otherwise only the
+ * window between rank(v) and rank(u) is searched: vertices reachable from v and vertices
+ * reaching u inside the window are collected, and their ranks are reassigned so that
+ * the second group precedes the first. If the forward search reaches u, the edge would
+ * close a cycle and is rejected without changing anything.
+ */
+public class DynamicTopologicalOrder {
+    private final Metrics metrics;
+    
+    private int n;
+    private int[] ord;
+    private int[] at;
+    private int[][] out;
+    private int[][] in;
+    private int[] outDegree;
+    private int[] inDegree;
+    
+    private int stamp;
+    private int[] forwardMark;
+    private int[] backwardMark;
+    private int[] forward;
+    private int[] backward;
+    
+    public DynamicTopologicalOrder() {
+        this(new MetricsImpl());
+    }
+    
+    /**
+     * @param metrics receives edge scans of the window searches
+     */
+    public DynamicTopologicalOrder(Metrics metrics) {
+        this.metrics = metrics;
+        allocate(16);
+    }
+    
+    public DynamicTopologicalOrder(GraphView graph) {
+        this(graph, new MetricsImpl());
+    }
+    
+    /**
+     * Starts from a Kahn order of an existing DAG.
+     * @throws IllegalArgumentException if the graph contains a cycle
+     */
+    public DynamicTopologicalOrder(GraphView graph, Metrics metrics) {
+        this(metrics);
+        List<Integer> order = new TopologicalSort(graph, NoOpMetrics.INSTANCE).kahnSort();
+        if (order.size() != graph.getVertexCount()) {
+            throw new IllegalArgumentException("Graph contains a cycle");
+        }
+        allocate(Math.max(graph.getVertexCount(), 16));
+        n = graph.getVertexCount();
+        for (int p = 0; p < n; p++) {
+            int u = order.get(p);
+            ord[u] = p;
+            at[p] = u;
+        }
+        for (int u = 0; u < n; u++) {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                link(u, graph.getNeighbor(u, i));
+            }
+        }
+    }
+    
+    /**
+     * @return id of the new vertex, placed last in the order
+     */
+    public int addVertex() {
+        if (n == ord.length) {
+            allocate(n * 2);
+        }
+        int v = n++;
+        place(v, v);
+        return v;
+    }
+    
+    /**
+     * Inserts u -> v if it keeps the graph acyclic, creating missing vertices up to max(u, v).
+     * @return false if the edge would close a cycle; neither the edge nor any vertex is then added
+     */
+    public boolean addEdge(int u, int v) {
+        if (u < 0 || v < 0) {
+            throw new IllegalArgumentException("Negative vertex: " + u + " -> " + v);
+        }
+        if (u == v) {
+            return false;
+        }
+        while (n <= Math.max(u, v)) {
+            addVertex();
+        }
+        if (ord[u] < ord[v]) {
+            link(u, v);
+            return true;
+        }
+        
+        int lower = ord[v];
+        int upper = ord[u];
+        stamp++;
+        int forwardSize = search(v, u, out, outDegree, forwardMark, forward, lower, upper);
+        if (forwardSize < 0) {
+            return false;
+        }
+        int backwardSize = search(u, -1, in, inDegree, backwardMark, backward, lower, upper);
+        reorder(forwardSize, backwardSize);
+        link(u, v);
+        return true;
+    }
+    
+    /**
+     * Checks a candidate edge without inserting it. Costs O(1) if the edge agrees
+     * with the current order, otherwise a forward search inside the window.
+     * Agrees with {@link #addEdge}: a self-loop is a cycle even on a vertex not added yet.
+     * @throws IllegalArgumentException if u or v is negative
+     */
+    public boolean wouldCreateCycle(int u, int v) {
+        if (u < 0 || v < 0) {
+            throw new IllegalArgumentException("Negative vertex: " + u + " -> " + v);
+        }
+        if (u == v) {
+            return true;
+        }
+        if (u >= n || v >= n) {
+            return false;
+        }
+        if (ord[u] < ord[v]) {
+            return false;
+        }
+        stamp++;
+        return search(v, u, out, outDegree, forwardMark, forward, ord[v], ord[u]) < 0;
+    }
+    
+    /**
+     * Collects vertices reachable from start through the given adjacency whose rank lies in [lower, upper].
+     * @return number of vertices written to found, or -1 if target was reached
+     */
+    private int search(int start, int target, int[][] adjacency, int[] degree, int[] mark, int[] found, int lower, int upper) {
+        mark[start] = stamp;
+        found[0] = start;
+        int count = 1;
+        for (int i = 0; i < count; i++) {
+            int w = found[i];
+            int[] targets = adjacency[w];
+            for (int e = 0; e < degree[w]; e++) {
+                int x = targets[e];
+                metrics.increment(Counter.EDGE_SCANS);
+                if (x == target) {
+                    return -1;
+                }
+                if (mark[x] != stamp && ord[x] >= lower && ord[x] <= upper) {
+                    mark[x] = stamp;
+                    found[count++] = x;
+                }
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Gives the backward set the lowest of the affected ranks and the forward set the
+     * highest, each keeping its internal relative order.
+     */
+    private void reorder(int forwardSize, int backwardSize) {
+        int[] pool = new int[forwardSize + backwardSize];
+        for (int i = 0; i < backwardSize; i++) {
+            backward[i] = ord[backward[i]];
+            pool[i] = backward[i];
+        }
+        for (int i = 0; i < forwardSize; i++) {
+            forward[i] = ord[forward[i]];
+            pool[backwardSize + i] = forward[i];
+        }
+        Arrays.sort(backward, 0, backwardSize);
+        Arrays.sort(forward, 0, forwardSize);
+        Arrays.sort(pool);
+        
+        // ranks are translated back to vertices before any slot is overwritten
+        for (int i = 0; i < backwardSize; i++) {
+            backward[i] = at[backward[i]];
+        }
+        for (int i = 0; i < forwardSize; i++) {
+            forward[i] = at[forward[i]];
+        }
+        for (int i = 0; i < backwardSize; i++) {
+            place(backward[i], pool[i]);
+        }
+        for (int i = 0; i < forwardSize; i++) {
+            place(forward[i], pool[backwardSize + i]);
+        }
+    }
+    
+    private void place(int vertex, int rank) {
+        ord[vertex] = rank;
+        at[rank] = vertex;
+    }
+    
+    private void link(int u, int v) {
+        if (outDegree[u] == out[u].length) {
+            out[u] = Arrays.copyOf(out[u], Math.max(4, out[u].length * 2));
+        }
+        out[u][outDegree[u]++] = v;
+        if (inDegree[v] == in[v].length) {
+            in[v] = Arrays.copyOf(in[v], Math.max(4, in[v].length * 2));
+        }
+        in[v][inDegree[v]++] = u;
+    }
+    
+    private void allocate(int capacity) {
+        int old = ord == null ? 0 : ord.length;
+        ord = ord == null ? new int[capacity] : Arrays.copyOf(ord, capacity);
+        at = at == null ? new int[capacity] : Arrays.copyOf(at, capacity);
+        out = out == null ? new int[capacity][] : Arrays.copyOf(out, capacity);
+        in = in == null ? new int[capacity][] : Arrays.copyOf(in, capacity);
+        outDegree = outDegree == null ? new int[capacity] : Arrays.copyOf(outDegree, capacity);
+        inDegree = inDegree == null ? new int[capacity] : Arrays.copyOf(inDegree, capacity);
+        forwardMark = forwardMark == null ? new int[capacity] : Arrays.copyOf(forwardMark, capacity);
+        backwardMark = backwardMark == null ? new int[capacity] : Arrays.copyOf(backwardMark, capacity);
+        forward = new int[capacity];
+        backward = new int[capacity];
+        for (int v = old; v < capacity; v++) {
+            out[v] = new int[0];
+            in[v] = new int[0];
+        }
+    }
+    
+    public int getVertexCount() {
+        return n;
+    }
+    
+    /**
+     * @return position of the vertex in the current order, 0 .. n - 1
+     */
+    public int getRank(int vertex) {
+        return ord[vertex];
+    }
+    
+    public int vertexAt(int rank) {
+        return at[rank];
+    }
+    
+    /**
+     * @return read-only live view of the current order; get(i) is O(1)
+     */
+    public List<Integer> getOrder() {
+        return new AbstractList<Integer>() {
+            @Override
+            public Integer get(int index) {
+                if (index < 0 || index >= n) {
+                    throw new IndexOutOfBoundsException("Index: " + index);
+                }
+                return at[index];
+            }
+            
+            @Override
+            public int size() {
+                return n;
+            }
+        };
+    }
+    
+    public Metrics getMetrics() {
+        return metrics;
+    }
+}
@@ -0,0 +1,185 @@
+package graph.topo;
+
+import graph.GraphView;
+import metrics.Counter;
+import metrics.Metrics;
+import metrics.MetricsImpl;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Level-synchronous Kahn sort. Each frontier (all vertices whose predecessors are
+ * already placed) is expanded in parallel; in-degrees are decremented atomically and
+ * the thread that brings a vertex to zero appends it to the next frontier.
+ * The frontiers are exactly the topological levels: a vertex's level is the length of
+ * the longest edge path reaching it, and a level's width is how many tasks could
+ * run at the same time. Frontiers are written straight into the order array and
+ * sorted, so the result does not depend on thread scheduling.
+ */
+public class ParallelTopologicalSort {
+    private static final int GRAIN = 1024;
+    
+    private final GraphView graph;
+    private final ForkJoinPool pool;
+    private final Metrics metrics;
+    
+    public ParallelTopologicalSort(GraphView graph) {
+        this(graph, ForkJoinPool.commonPool());
+    }
+    
+    public ParallelTopologicalSort(GraphView graph, ForkJoinPool pool) {
+        this(graph, pool, new MetricsImpl());
+    }
+    
+    /**
+     * @param metrics receives one round and the frontier size per level; only the calling thread updates it
+     */
+    public ParallelTopologicalSort(GraphView graph, ForkJoinPool pool, Metrics metrics) {
+        this.graph = graph;
+        this.pool = pool;
+        this.metrics = metrics;
+    }
+    
+    public LevelResult sort() {
+        int n = graph.getVertexCount();
+        
+        metrics.startTimer();
+        
+        AtomicIntegerArray inDegree = new AtomicIntegerArray(n);
+        parallelFor(0, n, u -> {
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                inDegree.incrementAndGet(graph.getNeighbor(u, i));
+            }
+        });
+        
+        int[] order = new int[n];
+        int[] levelOf = new int[n];
+        Arrays.fill(levelOf, -1);
+        int[] levelOffsets = new int[n + 1];
+        AtomicInteger tail = new AtomicInteger();
+        parallelFor(0, n, v -> {
+            if (inDegree.get(v) == 0) {
+                order[tail.getAndIncrement()] = v;
+            }
+        });
+        
+        int levels = 0;
+        int start = 0;
+        int end = tail.get();
+        while (start < end) {
+            Arrays.sort(order, start, end);
+            int level = levels;
+            for (int i = start; i < end; i++) {
+                levelOf[order[i]] = level;
+            }
+            levelOffsets[++levels] = end;
+            metrics.increment(Counter.ROUNDS);
+            metrics.add(Counter.VERTEX_VISITS, end - start);
+            
+            parallelFor(start, end, i -> {
+                int u = order[i];
+                int degree = graph.getOutDegree(u);
+                for (int j = 0; j < degree; j++) {
+                    int v = graph.getNeighbor(u, j);
+                    if (inDegree.decrementAndGet(v) == 0) {
+                        order[tail.getAndIncrement()] = v;
+                    }
+                }
+            });
+            start = end;
+            end = tail.get();
+        }
+        
+        metrics.stopTimer();
+        
+        return new LevelResult(Arrays.copyOf(order, end), levelOf, Arrays.copyOf(levelOffsets, levels + 1), n);
+    }
+    
+    private void parallelFor(int from, int to, IntConsumer body) {
+        if (to - from <= GRAIN) {
+            for (int i = from; i < to; i++) {
+                body.accept(i);
+            }
+            return;
+        }
+        pool.invoke(new RangeTask(from, to, body));
+    }
+    
+    public Metrics getMetrics() {
+        return metrics;
+    }
+    
+    /**
+     * Order and level structure. Level l holds order[levelOffsets[l] .. levelOffsets[l + 1] - 1].
+     * If the graph has a cycle, the order stops before the first vertex on or behind
+     * a cycle and those vertices keep level -1.
+     */
+    public static class LevelResult {
+        public final int[] order;
+        public final int[] levelOf;
+        public final int[] levelOffsets;
+        private final int vertexCount;
+        
+        public LevelResult(int[] order, int[] levelOf, int[] levelOffsets, int vertexCount) {
+            this.order = order;
+            this.levelOf = levelOf;
+            this.levelOffsets = levelOffsets;
+            this.vertexCount = vertexCount;
+        }
+        
+        public boolean isAcyclic() {
+            return order.length == vertexCount;
+        }
+        
+        public int getLevelCount() {
+            return levelOffsets.length - 1;
+        }
+        
+        /**
+         * @return vertices of the level in increasing order
+         */
+        public int[] getLevel(int level) {
+            return Arrays.copyOfRange(order, levelOffsets[level], levelOffsets[level + 1]);
+        }
+        
+        /**
+         * @return size of the widest level, the peak number of independent tasks
+         */
+        public int getMaxWidth() {
+            int width = 0;
+            for (int l = 0; l < getLevelCount(); l++) {
+                width = Math.max(width, levelOffsets[l + 1] - levelOffsets[l]);
+            }
+            return width;
+        }
+    }
+    
+    private static class RangeTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+        private final IntConsumer body;
+        
+        RangeTask(int from, int to, IntConsumer body) {
+            this.from = from;
+            this.to = to;
+            this.body = body;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= GRAIN) {
+                for (int i = from; i < to; i++) {
+                    body.accept(i);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(from, mid, body), new RangeTask(mid, to, body));
+        }
+    }
+}
@@ -1,18 +1,25 @@
 package graph.topo;
 
-import graph.Graph;
-import graph.Edge;
+import graph.GraphView;
+import metrics.Counter;
 import metrics.Metrics;
 import metrics.MetricsImpl;
 import java.util.*;
 
 public class TopologicalSort {
-    private final Graph graph;
+    private final GraphView graph;
     private final Metrics metrics;
     
-    public TopologicalSort(Graph graph) {
+    public TopologicalSort(GraphView graph) {
+        this(graph, new MetricsImpl());
+    }
+    
+    /**
+     * @param metrics receives edge scans, queue pushes/pops and DFS visits
+     */
+    public TopologicalSort(GraphView graph, Metrics metrics) {
         this.graph = graph;
-        this.metrics = new MetricsImpl();
+        this.metrics = metrics;
     }
     
     public List<Integer> kahnSort() {
@@ -22,9 +29,10 @@ public class TopologicalSort {
         metrics.startTimer();
         
         for (int u = 0; u < n; u++) {
-            for (Edge edge : graph.getNeighbors(u)) {
-                inDegree[edge.to]++;
-                metrics.incrementOperations();
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                inDegree[graph.getNeighbor(u, i)]++;
+                metrics.increment(Counter.EDGE_SCANS);
             }
         }
         
@@ -32,7 +40,7 @@ public class TopologicalSort {
         for (int v = 0; v < n; v++) {
             if (inDegree[v] == 0) {
                 queue.offer(v);
-                metrics.incrementOperations();
+                metrics.increment(Counter.PUSHES);
             }
         }
         
@@ -41,16 +49,17 @@ public class TopologicalSort {
         while (!queue.isEmpty()) {
             int u = queue.poll();
             topoOrder.add(u);
-            metrics.incrementOperations();
+            metrics.increment(Counter.POPS);
             
-            for (Edge edge : graph.getNeighbors(u)) {
-                int v = edge.to;
+            int degree = graph.getOutDegree(u);
+            for (int i = 0; i < degree; i++) {
+                int v = graph.getNeighbor(u, i);
                 inDegree[v]--;
-                metrics.incrementOperations();
+                metrics.increment(Counter.EDGE_SCANS);
                 
                 if (inDegree[v] == 0) {
                     queue.offer(v);
-                    metrics.incrementOperations();
+                    metrics.increment(Counter.PUSHES);
                 }
             }
         }
@@ -90,11 +99,12 @@ public class TopologicalSort {
     
     private void dfsSortUtil(int u, boolean[] visited, Stack<Integer> stack) {
         visited[u] = true;
-        metrics.incrementOperations();
+        metrics.increment(Counter.VERTEX_VISITS);
         
-        for (Edge edge : graph.getNeighbors(u)) {
-            int v = edge.to;
-            metrics.incrementOperations();
+        int degree = graph.getOutDegree(u);
+        for (int i = 0; i < degree; i++) {
+            int v = graph.getNeighbor(u, i);
+            metrics.increment(Counter.EDGE_SCANS);
             
             if (!visited[v]) {
                 dfsSortUtil(v, visited, stack);
@@ -122,8 +132,9 @@ public class TopologicalSort {
     private boolean hasCycleDFS(int u, int[] color) {
         color[u] = 1;
         
-        for (Edge edge : graph.getNeighbors(u)) {
-            int v = edge.to;
+        int degree = graph.getOutDegree(u);
+        for (int i = 0; i < degree; i++) {
+            int v = graph.getNeighbor(u, i);
             
             if (color[v] == 1) {
                 return true;
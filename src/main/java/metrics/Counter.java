@@ -0,0 +1,13 @@
+package metrics;
+
+/**
+ * Named per-phase counters. Each increment also counts towards the operation total.
+ */
+public enum Counter {
+    VERTEX_VISITS,
+    EDGE_SCANS,
+    PUSHES,
+    POPS,
+    RELAXATIONS,
+    ROUNDS
+}
@@ -0,0 +1,104 @@
+package metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe metrics with one {@link LongAdder} per named counter, so an instance
+ * can be shared by parallel workers without contended updates. Operations recorded
+ * through {@link #incrementOperations()} go to a separate untagged adder.
+ * The timer is meant to be started and stopped by a single coordinating thread.
+ */
+public class DetailedMetrics implements Metrics {
+    private final LongAdder[] counts = new LongAdder[Counter.values().length];
+    private final LongAdder untagged = new LongAdder();
+    private volatile long startTime;
+    private volatile long endTime;
+    private volatile boolean timerRunning;
+    
+    public DetailedMetrics() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+    
+    @Override
+    public void startTimer() {
+        this.startTime = System.nanoTime();
+        this.timerRunning = true;
+    }
+    
+    @Override
+    public void stopTimer() {
+        if (timerRunning) {
+            this.endTime = System.nanoTime();
+            this.timerRunning = false;
+        }
+    }
+    
+    @Override
+    public void incrementOperations() {
+        untagged.increment();
+    }
+    
+    @Override
+    public void incrementOperations(int count) {
+        untagged.add(count);
+    }
+    
+    @Override
+    public void increment(Counter counter) {
+        counts[counter.ordinal()].increment();
+    }
+    
+    @Override
+    public void add(Counter counter, int count) {
+        counts[counter.ordinal()].add(count);
+    }
+    
+    @Override
+    public long getCount(Counter counter) {
+        return counts[counter.ordinal()].sum();
+    }
+    
+    @Override
+    public long getOperationsCount() {
+        long total = untagged.sum();
+        for (LongAdder count : counts) {
+            total += count.sum();
+        }
+        return total;
+    }
+    
+    @Override
+    public double getExecutionTimeMs() {
+        return getExecutionTimeNs() / 1_000_000.0;
+    }
+    
+    @Override
+    public long getExecutionTimeNs() {
+        if (timerRunning) {
+            return System.nanoTime() - startTime;
+        }
+        return endTime - startTime;
+    }
+    
+    @Override
+    public void reset() {
+        for (LongAdder count : counts) {
+            count.reset();
+        }
+        untagged.reset();
+        this.startTime = 0;
+        this.endTime = 0;
+        this.timerRunning = false;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("operations=").append(getOperationsCount());
+        for (Counter counter : Counter.values()) {
+            sb.append(", ").append(counter.name().toLowerCase()).append('=').append(getCount(counter));
+        }
+        return sb.toString();
+    }
+}
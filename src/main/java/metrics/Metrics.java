@@ -5,12 +5,11 @@ public interface Metrics {
     void stopTimer();
     void incrementOperations();
     void incrementOperations(int count);
+    void increment(Counter counter);
+    void add(Counter counter, int count);
+    long getCount(Counter counter);
     long getOperationsCount();
     double getExecutionTimeMs();
     long getExecutionTimeNs();
     void reset();
 }
-
-
-
-
@@ -1,6 +1,13 @@
 package metrics;
 
+import java.util.Arrays;
+
+/**
+ * Plain single-threaded counters. Not safe to share between threads; use
+ * {@link DetailedMetrics} for that, or {@link NoOpMetrics} to skip counting.
+ */
 public class MetricsImpl implements Metrics {
+    private final long[] counts = new long[Counter.values().length];
     private long operationsCount;
     private long startTime;
     private long endTime;
@@ -37,6 +44,23 @@ public class MetricsImpl implements Metrics {
         this.operationsCount += count;
     }
     
+    @Override
+    public void increment(Counter counter) {
+        this.counts[counter.ordinal()]++;
+        this.operationsCount++;
+    }
+    
+    @Override
+    public void add(Counter counter, int count) {
+        this.counts[counter.ordinal()] += count;
+        this.operationsCount += count;
+    }
+    
+    @Override
+    public long getCount(Counter counter) {
+        return this.counts[counter.ordinal()];
+    }
+    
     @Override
     public long getOperationsCount() {
         return this.operationsCount;
@@ -57,13 +81,10 @@ public class MetricsImpl implements Metrics {
     
     @Override
     public void reset() {
+        Arrays.fill(this.counts, 0);
         this.operationsCount = 0;
         this.startTime = 0;
         this.endTime = 0;
         this.timerRunning = false;
     }
 }
-
-
-
-
@@ -0,0 +1,60 @@
+package metrics;
+
+/**
+ * Metrics that record nothing. The methods are empty and the class is final,
+ * so once a call site only ever sees this class the JIT inlines the calls away.
+ */
+public final class NoOpMetrics implements Metrics {
+    public static final NoOpMetrics INSTANCE = new NoOpMetrics();
+    
+    private NoOpMetrics() {
+    }
+    
+    @Override
+    public void startTimer() {
+    }
+    
+    @Override
+    public void stopTimer() {
+    }
+    
+    @Override
+    public void incrementOperations() {
+    }
+    
+    @Override
+    public void incrementOperations(int count) {
+    }
+    
+    @Override
+    public void increment(Counter counter) {
+    }
+    
+    @Override
+    public void add(Counter counter, int count) {
+    }
+    
+    @Override
+    public long getCount(Counter counter) {
+        return 0;
+    }
+    
+    @Override
+    public long getOperationsCount() {
+        return 0;
+    }
+    
+    @Override
+    public double getExecutionTimeMs() {
+        return 0;
+    }
+    
+    @Override
+    public long getExecutionTimeNs() {
+        return 0;
+    }
+    
+    @Override
+    public void reset() {
+    }
+}
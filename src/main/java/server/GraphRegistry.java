@@ -0,0 +1,64 @@
+package server;
+
+import batch.GraphAnalysis;
+import data.GraphDataLoader;
+import data.LoadedGraph;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Graphs loaded once and kept in memory by name. Registering a graph replaces any
+ * graph of the same name; queries that already hold the old one finish on it.
+ */
+public class GraphRegistry {
+    private final ConcurrentMap<String, RegisteredGraph> graphs = new ConcurrentHashMap<>();
+    private final GraphDataLoader loader = new GraphDataLoader();
+    
+    /**
+     * Loads and analyses a JSON or binary graph file.
+     * @param name registry name; the file name without extension if null
+     * @return the registered graph
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the graph cannot be analysed, e.g. it has long or double weights
+     */
+    public RegisteredGraph load(String name, Path file) throws IOException {
+        if (name == null) {
+            name = file.getFileName().toString().replaceFirst("\\.[^.]*$", "");
+        }
+        long start = System.nanoTime();
+        LoadedGraph loaded = loader.open(file);
+        long loadNs = System.nanoTime() - start;
+        return register(name, GraphAnalysis.analyze(file.getFileName().toString(), loaded, loadNs));
+    }
+    
+    public RegisteredGraph register(String name, GraphAnalysis analysis) {
+        RegisteredGraph graph = new RegisteredGraph(name, analysis);
+        graphs.put(name, graph);
+        return graph;
+    }
+    
+    /**
+     * @return the graph, or null if no graph has that name
+     */
+    public RegisteredGraph get(String name) {
+        return graphs.get(name);
+    }
+    
+    public boolean remove(String name) {
+        return graphs.remove(name) != null;
+    }
+    
+    /**
+     * @return registered names in sorted order
+     */
+    public List<String> names() {
+        List<String> names = new ArrayList<>(graphs.keySet());
+        Collections.sort(names);
+        return names;
+    }
+}
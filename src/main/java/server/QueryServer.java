@@ -0,0 +1,436 @@
+package server;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import graph.dagsp.ShortestPaths;
+import graph.scc.SccResult;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP server answering queries against the graphs of a {@link GraphRegistry},
+ * so one JVM pays for startup, loading and warm-up once instead of once per analysis.
+ * Binds to the loopback address only. Requests run on a fixed worker pool; each worker
+ * keeps its own response and distance buffers, and the registered graphs are shared
+ * read-only. All responses are JSON; errors carry an "error" field.
+ * Requests whose Host or Origin header names anything but the loopback address are
+ * rejected, so web pages cannot reach the server through DNS rebinding or a cross-site
+ * POST, and graph files can only be loaded from below a configured root directory.
+ *
+ * <pre>
+ * GET  /graphs                                   registered graphs
+ * POST /graphs?file=PATH[&amp;name=NAME]             load a graph file below the root
+ * GET  /scc?graph=NAME                           components and their members
+ * GET  /topo?graph=NAME                          topological order of the condensation
+ * GET  /shortest?graph=NAME&amp;source=V[&amp;target=T]  paths over the condensation
+ * GET  /longest?graph=NAME&amp;source=V[&amp;target=T]
+ * GET  /critical?graph=NAME                      critical path
+ * </pre>
+ */
+public class QueryServer {
+    private static final JsonFactory JSON = new JsonFactory();
+    
+    private final GraphRegistry registry;
+    private final Path root;
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final ThreadLocal<Workspace> workspace = ThreadLocal.withInitial(Workspace::new);
+    
+    @FunctionalInterface
+    private interface Query {
+        void answer(Map<String, String> params, JsonGenerator json, Workspace buffers) throws IOException;
+    }
+    
+    /**
+     * Failure with a specific HTTP status; other IllegalArgumentExceptions become 400.
+     */
+    private static class HttpError extends RuntimeException {
+        final int status;
+        
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+    
+    /**
+     * Per-worker buffers, grown to the largest graph the worker has queried.
+     */
+    private static class Workspace {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(1 << 12);
+        int[] dist = new int[0];
+        int[] pred = new int[0];
+        int[] path = new int[0];
+        
+        void ensure(int n) {
+            if (dist.length < n) {
+                dist = new int[n];
+                pred = new int[n];
+                path = new int[n];
+            }
+        }
+    }
+    
+    /**
+     * @param root directory that POST /graphs may load from, null to disable loading over HTTP
+     * @param port TCP port on the loopback address, 0 for any free port
+     * @param threads number of request workers
+     * @throws IOException if the port cannot be bound or the root does not exist
+     */
+    public QueryServer(GraphRegistry registry, Path root, int port, int threads) throws IOException {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Threads must be at least 1: " + threads);
+        }
+        this.registry = registry;
+        this.root = root == null ? null : root.toRealPath();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.workers = Executors.newFixedThreadPool(threads, workerFactory());
+        server.setExecutor(workers);
+        
+        server.createContext("/graphs", exchange -> handle(exchange, exchange.getRequestMethod().equals("POST") ? this::load : this::list));
+        server.createContext("/scc", exchange -> handle(exchange, this::scc));
+        server.createContext("/topo", exchange -> handle(exchange, this::topo));
+        server.createContext("/shortest", exchange -> handle(exchange, (params, json, buffers) -> paths(params, json, buffers, false)));
+        server.createContext("/longest", exchange -> handle(exchange, (params, json, buffers) -> paths(params, json, buffers, true)));
+        server.createContext("/critical", exchange -> handle(exchange, this::critical));
+    }
+    
+    public void start() {
+        server.start();
+    }
+    
+    /**
+     * Stops accepting requests, waits up to a second for running ones and shuts the workers down.
+     */
+    public void stop() {
+        server.stop(1);
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * @return bound port, useful when the server was created with port 0
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    
+    public GraphRegistry getRegistry() {
+        return registry;
+    }
+    
+    private void handle(HttpExchange exchange, Query query) throws IOException {
+        Workspace buffers = workspace.get();
+        int status = 200;
+        String error = null;
+        buffers.out.reset();
+        try (JsonGenerator json = JSON.createGenerator(buffers.out)) {
+            if (!isLoopback(exchange.getRequestHeaders().getFirst("Host"), false)
+                    || !isLoopback(exchange.getRequestHeaders().getFirst("Origin"), true)) {
+                throw new HttpError(403, "Only local clients are served");
+            }
+            String method = exchange.getRequestMethod();
+            if (!method.equals("GET") && !(method.equals("POST") && exchange.getRequestURI().getPath().equals("/graphs"))) {
+                throw new HttpError(405, "Method not allowed: " + method);
+            }
+            query.answer(parseQuery(exchange.getRequestURI().getRawQuery()), json, buffers);
+        } catch (HttpError e) {
+            status = e.status;
+            error = e.getMessage();
+        } catch (IllegalArgumentException e) {
+            status = 400;
+            error = e.getMessage();
+        } catch (IOException | RuntimeException e) {
+            status = 500;
+            error = e.toString();
+        }
+        if (error != null) {
+            buffers.out.reset();
+            try (JsonGenerator json = JSON.createGenerator(buffers.out)) {
+                json.writeStartObject();
+                json.writeStringField("error", error);
+                json.writeEndObject();
+            }
+        }
+        
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, buffers.out.size());
+        try (OutputStream body = exchange.getResponseBody()) {
+            buffers.out.writeTo(body);
+        }
+    }
+    
+    private void list(Map<String, String> params, JsonGenerator json, Workspace buffers) throws IOException {
+        json.writeStartObject();
+        json.writeArrayFieldStart("graphs");
+        for (String name : registry.names()) {
+            RegisteredGraph graph = registry.get(name);
+            if (graph != null) {
+                writeSummary(graph, json);
+            }
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+    
+    /**
+     * The file is resolved against the root with symbolic links followed,
+     * so neither ".." nor a link can escape it.
+     */
+    private void load(Map<String, String> params, JsonGenerator json, Workspace buffers) throws IOException {
+        if (root == null) {
+            throw new HttpError(403, "Loading graphs is disabled");
+        }
+        String file = required(params, "file");
+        RegisteredGraph graph;
+        try {
+            Path path = root.resolve(file).normalize();
+            if (!path.startsWith(root) || !path.toRealPath().startsWith(root)) {
+                throw new HttpError(403, "Not below the graph root: " + file);
+            }
+            graph = registry.load(params.get("name"), path.toRealPath());
+        } catch (IOException | InvalidPathException e) {
+            throw new HttpError(400, "Cannot load " + file + ": " + e.getMessage());
+        }
+        writeSummary(graph, json);
+    }
+    
+    private void writeSummary(RegisteredGraph graph, JsonGenerator json) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("name", graph.name);
+        json.writeNumberField("vertices", graph.analysis.vertexCount);
+        json.writeNumberField("edges", graph.analysis.edgeCount);
+        json.writeStringField("weight_model", graph.analysis.weightModel.getName());
+        json.writeNumberField("scc_count", graph.getComponentCount());
+        json.writeEndObject();
+    }
+    
+    private void scc(Map<String, String> params, JsonGenerator json, Workspace buffers) throws IOException {
+        RegisteredGraph graph = graph(params);
+        SccResult components = graph.analysis.components;
+        json.writeStartObject();
+        json.writeStringField("graph", graph.name);
+        json.writeNumberField("count", components.componentCount);
+        json.writeArrayFieldStart("components");
+        for (int c = 0; c < components.componentCount; c++) {
+            int start = components.memberOffsets[c];
+            json.writeArray(components.members, start, components.memberOffsets[c + 1] - start);
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+    
+    private void topo(Map<String, String> params, JsonGenerator json, Workspace buffers) throws IOException {
+        RegisteredGraph graph = graph(params);
+        int[] order = graph.analysis.topologicalOrder;
+        json.writeStartObject();
+        json.writeStringField("graph", graph.name);
+        json.writeFieldName("order");
+        json.writeArray(order, 0, order.length);
+        json.writeEndObject();
+    }
+    
+    /**
+     * Vertex ids in requests are those of the original graph; distances and paths
+     * are over the condensation, as in Main. Unreachable distances are null.
+     */
+    private void paths(Map<String, String> params, JsonGenerator json, Workspace buffers, boolean longest) throws IOException {
+        RegisteredGraph graph = graph(params);
+        int source = Integer.parseInt(required(params, "source"));
+        int sourceComponent = graph.componentOf(source);
+        int k = graph.getComponentCount();
+        buffers.ensure(k);
+        graph.paths(sourceComponent, longest, buffers.dist, buffers.pred);
+        int unreachable = longest ? -ShortestPaths.INF : ShortestPaths.INF;
+        
+        json.writeStartObject();
+        json.writeStringField("graph", graph.name);
+        json.writeNumberField("source", source);
+        json.writeNumberField("source_component", sourceComponent);
+        String target = params.get("target");
+        if (target == null) {
+            json.writeArrayFieldStart("distances");
+            for (int c = 0; c < k; c++) {
+                if (buffers.dist[c] == unreachable) {
+                    json.writeNull();
+                } else {
+                    json.writeNumber(buffers.dist[c]);
+                }
+            }
+            json.writeEndArray();
+        } else {
+            int targetComponent = graph.componentOf(Integer.parseInt(target));
+            json.writeNumberField("target", Integer.parseInt(target));
+            json.writeNumberField("target_component", targetComponent);
+            int length = 0;
+            if (buffers.dist[targetComponent] == unreachable) {
+                json.writeNullField("distance");
+            } else {
+                json.writeNumberField("distance", buffers.dist[targetComponent]);
+                for (int c = targetComponent; c != -1; c = buffers.pred[c]) {
+                    buffers.path[length++] = c;
+                }
+            }
+            json.writeArrayFieldStart("path");
+            for (int i = length - 1; i >= 0; i--) {
+                json.writeNumber(buffers.path[i]);
+            }
+            json.writeEndArray();
+        }
+        json.writeEndObject();
+    }
+    
+    private void critical(Map<String, String> params, JsonGenerator json, Workspace buffers) throws IOException {
+        RegisteredGraph graph = graph(params);
+        ShortestPaths.CriticalPathResult critical = graph.analysis.criticalPath;
+        json.writeStartObject();
+        json.writeStringField("graph", graph.name);
+        json.writeNumberField("length", critical.length);
+        json.writeArrayFieldStart("path");
+        for (int c : critical.path) {
+            json.writeNumber(c);
+        }
+        json.writeEndArray();
+        json.writeEndObject();
+    }
+    
+    private RegisteredGraph graph(Map<String, String> params) {
+        String name = required(params, "graph");
+        RegisteredGraph graph = registry.get(name);
+        if (graph == null) {
+            throw new HttpError(404, "Unknown graph: " + name);
+        }
+        return graph;
+    }
+    
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing parameter '" + name + "'");
+        }
+        return value;
+    }
+    
+    /**
+     * @param value Host header, or Origin header if origin is set; a missing Origin is allowed
+     * @return whether the header names a loopback host
+     */
+    private static boolean isLoopback(String value, boolean origin) {
+        if (value == null) {
+            return origin;
+        }
+        String host = value;
+        if (origin) {
+            if (!host.startsWith("http://")) {
+                return false;
+            }
+            host = host.substring("http://".length());
+        }
+        if (host.startsWith("[")) {
+            int end = host.indexOf(']');
+            host = end < 0 ? host : host.substring(0, end + 1);
+        } else if (host.indexOf(':') >= 0) {
+            host = host.substring(0, host.indexOf(':'));
+        }
+        return host.equals("localhost") || host.equals("127.0.0.1") || host.equals("[::1]");
+    }
+    
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+    
+    private static ThreadFactory workerFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "query-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * Loads the given graph files and serves until the process is stopped.
+     * Usage: [--port N] [--threads N] [--root DIR] [file...]
+     * POST /graphs may load files below the root, "data" by default.
+     * Graphs with long or double weights are rejected.
+     */
+    public static void main(String[] args) {
+        int port = 8080;
+        Path root = Path.of("data");
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<Path> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--port":
+                        port = Integer.parseInt(args[++i]);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--root":
+                        root = Path.of(args[++i]);
+                        break;
+                    default:
+                        files.add(Path.of(args[i]));
+                        break;
+                }
+            }
+        } catch (RuntimeException e) {
+            System.out.println("Usage: --serve [--port N] [--threads N] [--root DIR] [file...]");
+            System.out.println("Only int weights are supported; analyze long or double graphs with Main <file>.");
+            return;
+        }
+        
+        GraphRegistry registry = new GraphRegistry();
+        for (Path file : files) {
+            try {
+                RegisteredGraph graph = registry.load(null, file);
+                System.out.println("Loaded " + graph.name + " (" + graph.analysis.vertexCount + " vertices, " +
+                                 graph.getComponentCount() + " SCCs)");
+            } catch (IOException | IllegalArgumentException e) {
+                System.out.println("Skipped " + file + ": " + e.getMessage());
+            }
+        }
+        
+        try {
+            QueryServer server = new QueryServer(registry, root, port, threads);
+            server.start();
+            System.out.println("Listening on http://127.0.0.1:" + server.getPort() + " (threads: " + threads + ")");
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Cannot start server: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package server;
+
+import batch.GraphAnalysis;
+import graph.dagsp.DagPlan;
+import metrics.NoOpMetrics;
+
+/**
+ * A graph held by the {@link GraphRegistry}. Everything that does not depend on a
+ * query (SCCs, condensation, topological order, critical path) is computed once when
+ * the graph is registered; the object is immutable afterwards, so any number of
+ * request threads may query it at the same time.
+ */
+public class RegisteredGraph {
+    public final String name;
+    public final GraphAnalysis analysis;
+    private final DagPlan plan;
+    
+    /**
+     * @param analysis full analysis of the graph, as produced by {@link GraphAnalysis#analyze}
+     */
+    public RegisteredGraph(String name, GraphAnalysis analysis) {
+        this.name = name;
+        this.analysis = analysis;
+        // queries are not counted, so request threads share no mutable state
+        this.plan = new DagPlan(analysis.condensation, analysis.weightModel, NoOpMetrics.INSTANCE);
+    }
+    
+    public int getComponentCount() {
+        return analysis.components.componentCount;
+    }
+    
+    /**
+     * @return component of an original vertex
+     * @throws IllegalArgumentException if the vertex does not exist
+     */
+    public int componentOf(int vertex) {
+        if (vertex < 0 || vertex >= analysis.vertexCount) {
+            throw new IllegalArgumentException("Vertex " + vertex + " out of range for n=" + analysis.vertexCount);
+        }
+        return analysis.components.componentOf[vertex];
+    }
+    
+    /**
+     * Single-source paths over the condensation into caller-owned buffers of at least
+     * {@link #getComponentCount()} entries, so a worker can reuse them across requests.
+     * Only the first {@link #getComponentCount()} entries are written.
+     * @param sourceComponent source component
+     * @param longest longest instead of shortest paths
+     */
+    public void paths(int sourceComponent, boolean longest, int[] dist, int[] pred) {
+        if (longest) {
+            plan.longestPaths(sourceComponent, dist, pred);
+        } else {
+            plan.shortestPaths(sourceComponent, dist, pred);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package batch;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cache.ResultCache;
+import data.GraphDataLoader;
+import data.LoadedGraph;
+import graph.CsrGraph;
+import graph.WeightModel;
+import graph.dagsp.ShortestPaths;
+import graph.scc.Aggregation;
+import graph.scc.SccResult;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import metrics.Counter;
+import metrics.MetricsImpl;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private List<Path> datasets() {
+        File[] files = new File("data").listFiles((dir, name) -> name.endsWith(".json"));
+        assertNotNull(files);
+        Arrays.sort(files);
+        List<Path> paths = new ArrayList<>();
+        for (File file : files) {
+            paths.add(file.toPath());
+        }
+        return paths;
+    }
+    
+    @Test
+    public void testJsonSummaryPerGraph() throws Exception {
+        List<Path> files = datasets();
+        BatchRunner.BatchResult result = new BatchRunner(tempDir, BatchRunner.Format.JSON, 1, 3, 1).run(files);
+        
+        assertTrue(result.isSuccessful(), result.failures.toString());
+        assertEquals(files.size(), result.summaries.size());
+        
+        ObjectMapper mapper = new ObjectMapper();
+        GraphDataLoader loader = new GraphDataLoader();
+        for (Path file : files) {
+            String name = file.getFileName().toString().replace(".json", ".summary.json");
+            JsonNode summary = mapper.readTree(tempDir.resolve(name).toFile());
+            
+            // rerun the pipeline stages directly and compare the recorded values
+            LoadedGraph loaded = loader.open(file);
+            TarjanSCC tarjan = new TarjanSCC(loaded.getGraph(), new MetricsImpl());
+            SccResult components = tarjan.findComponents();
+            CsrGraph condensation = tarjan.buildCondensation(Aggregation.FIRST, Aggregation.SUM);
+            TopologicalSort topo = new TopologicalSort(condensation, new MetricsImpl());
+            List<Integer> order = topo.kahnSort();
+            int source = loaded.getSource() != null ? components.getComponent(loaded.getSource()) : 0;
+            ShortestPaths paths = new ShortestPaths(condensation, WeightModel.fromName(loaded.getWeightModel()), new MetricsImpl());
+            int reachable = 0;
+            for (int d : paths.shortestPaths(source).distances) {
+                if (d != ShortestPaths.INF) {
+                    reachable++;
+                }
+            }
+            ShortestPaths.CriticalPathResult critical = paths.findCriticalPath();
+            
+            assertEquals(file.getFileName().toString(), summary.get("file").asText());
+            assertEquals(components.componentCount, summary.get("scc_count").asInt());
+            assertEquals(order.size(), summary.get("topological_order").size());
+            for (int i = 0; i < order.size(); i++) {
+                assertEquals(order.get(i).intValue(), summary.get("topological_order").get(i).asInt());
+            }
+            assertEquals(source, summary.get("source_component").asInt());
+            assertEquals(reachable, summary.get("reachable").asInt());
+            assertEquals(critical.length, summary.get("critical_path").get("length").asInt());
+            assertEquals(critical.path.size(), summary.get("critical_path").get("path").size());
+            
+            JsonNode metrics = summary.get("metrics");
+            assertEquals(tarjan.getMetrics().getOperationsCount(), metrics.get("scc").get("operations").asLong());
+            assertEquals(topo.getMetrics().getOperationsCount(), metrics.get("topo").get("operations").asLong());
+            for (Counter counter : Counter.values()) {
+                String field = counter.name().toLowerCase();
+                assertEquals(tarjan.getMetrics().getCount(counter), metrics.get("scc").get(field).asLong(), field);
+                assertEquals(topo.getMetrics().getCount(counter), metrics.get("topo").get(field).asLong(), field);
+            }
+            assertTrue(metrics.get("topo").get("edge_scans").asLong() > 0 || condensation.getEdgeCount() == 0);
+        }
+    }
+    
+    @Test
+    public void testCsvSummary() throws Exception {
+        Path file = datasets().get(0);
+        BatchRunner.BatchResult result = new BatchRunner(tempDir, BatchRunner.Format.CSV, 2).run(List.of(file));
+        
+        assertEquals(1, result.summaries.size());
+        List<String> lines = Files.readAllLines(result.summaries.get(0));
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("file,vertices,edges,"));
+        assertEquals(lines.get(0).split(",").length, lines.get(1).split(",").length);
+    }
+    
+    @Test
+    public void testFailuresDoNotStopBatch() throws Exception {
+        Path broken = tempDir.resolve("broken.json");
+        Files.writeString(broken, "{\"edges\": [}");
+        Path missing = tempDir.resolve("missing.json");
+        Path badSource = tempDir.resolve("bad_source.json");
+        Files.writeString(badSource, "{\"n\": 2, \"source\": 5, \"edges\": []}");
+        Path wide = tempDir.resolve("wide.json");
+        Files.writeString(wide, "{\"n\": 2, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 5000000000}]}");
+        List<Path> files = new ArrayList<>(datasets());
+        files.add(0, broken);
+        files.add(missing);
+        files.add(badSource);
+        files.add(wide);
+        
+        BatchRunner.BatchResult result = new BatchRunner(tempDir.resolve("out"), BatchRunner.Format.JSON, 2, 2, 1).run(files);
+        
+        assertEquals(files.size() - 4, result.summaries.size());
+        assertEquals(4, result.failures.size());
+        assertTrue(result.failures.containsKey(broken));
+        assertTrue(result.failures.containsKey(missing));
+        assertTrue(result.failures.get(badSource).contains("Source vertex 5 out of range"));
+        assertTrue(result.failures.get(wide).contains("int weights only"));
+    }
+    
+    @Test
+    public void testCacheSkipsUnchangedGraphs() throws Exception {
+        List<Path> files = datasets();
+        ResultCache cache = new ResultCache(tempDir.resolve("cache"), 1 << 20);
+        BatchRunner first = new BatchRunner(tempDir.resolve("first"), BatchRunner.Format.JSON, 1, 2, 1, cache);
+        BatchRunner second = new BatchRunner(tempDir.resolve("second"), BatchRunner.Format.JSON, 1, 2, 1, cache);
+        
+        assertEquals(0, first.run(files).cacheHits);
+        BatchRunner.BatchResult cached = second.run(files);
+        assertTrue(cached.isSuccessful(), cached.failures.toString());
+        assertEquals(files.size(), cached.cacheHits);
+        
+        ObjectMapper mapper = new ObjectMapper();
+        for (Path file : files) {
+            String name = file.getFileName().toString().replace(".json", ".summary.json");
+            JsonNode analyzed = mapper.readTree(tempDir.resolve("first").resolve(name).toFile());
+            JsonNode reused = mapper.readTree(tempDir.resolve("second").resolve(name).toFile());
+            for (String field : List.of("scc_count", "condensation", "topological_order", "source_component",
+                    "reachable", "longest_distance", "critical_path")) {
+                assertEquals(analyzed.get(field), reused.get(field), field);
+            }
+            assertFalse(reused.get("metrics").has("scc"));
+        }
+    }
+    
+    @Test
+    public void testSameFileNameInTwoDirectories() throws Exception {
+        Path first = Files.createDirectories(tempDir.resolve("a")).resolve("g.json");
+        Path second = Files.createDirectories(tempDir.resolve("b")).resolve("g.json");
+        Files.writeString(first, "{\"n\": 2, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}]}");
+        Files.writeString(second, "{\"n\": 3, \"edges\": []}");
+        
+        BatchRunner.BatchResult result = new BatchRunner(tempDir.resolve("out"), BatchRunner.Format.JSON, 2).run(List.of(first, second));
+        
+        assertEquals(List.of(tempDir.resolve("out").resolve("g.summary.json")), result.summaries);
+        assertEquals(1, result.failures.size());
+        assertTrue(result.failures.get(second).contains(first.toString()));
+        JsonNode summary = new ObjectMapper().readTree(result.summaries.get(0).toFile());
+        assertEquals(2, summary.get("vertices").asInt());
+    }
+    
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new BatchRunner(tempDir, BatchRunner.Format.JSON, 0));
+    }
+}
@@ -0,0 +1,195 @@
+package cache;
+
+import batch.GraphAnalysis;
+import data.GraphDataLoader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultCacheTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private CachedAnalysis analyze(String file) throws IOException {
+        Path path = Path.of("data", file);
+        return CachedAnalysis.of(GraphAnalysis.analyze(file, new GraphDataLoader().open(path), 0));
+    }
+    
+    @Test
+    public void testRoundTrip() throws IOException {
+        ResultCache cache = new ResultCache(tempDir, 1 << 20);
+        CachedAnalysis expected = analyze("medium_sccs.json");
+        
+        cache.put("k", expected);
+        CachedAnalysis actual = new ResultCache(tempDir, 1 << 20).get("k");
+        
+        assertNotNull(actual);
+        assertArrayEquals(expected.components.componentOf, actual.components.componentOf);
+        assertEquals(expected.components.componentCount, actual.components.componentCount);
+        assertArrayEquals(expected.topologicalOrder, actual.topologicalOrder);
+        assertEquals(expected.criticalPath.path, actual.criticalPath.path);
+        assertEquals(expected.criticalPath.length, actual.criticalPath.length);
+        assertArrayEquals(expected.criticalPath.slack, actual.criticalPath.slack);
+        assertEquals(expected.condensation.getEdgeCount(), actual.condensation.getEdgeCount());
+        for (int c = 0; c < expected.condensation.getVertexCount(); c++) {
+            assertEquals(expected.condensation.getOutDegree(c), actual.condensation.getOutDegree(c));
+            assertEquals(expected.condensation.getNodeWeight(c), actual.condensation.getNodeWeight(c));
+        }
+    }
+    
+    @Test
+    public void testHashFollowsContent() throws IOException {
+        Path a = tempDir.resolve("a.json");
+        Path b = tempDir.resolve("b.json");
+        Files.writeString(a, "{\"n\": 1, \"edges\": []}");
+        Files.writeString(b, "{\"n\": 1, \"edges\": []}");
+        
+        assertEquals(ResultCache.hash(a), ResultCache.hash(b));
+        assertEquals(64, ResultCache.hash(a).length());
+        
+        Files.writeString(b, "{\"n\": 2, \"edges\": []}");
+        assertNotEquals(ResultCache.hash(a), ResultCache.hash(b));
+    }
+    
+    @Test
+    public void testLeastRecentlyUsedEviction() throws IOException {
+        CachedAnalysis result = analyze("small_dag.json");
+        ResultCache probe = new ResultCache(tempDir.resolve("probe"), Long.MAX_VALUE);
+        probe.put("x", result);
+        long entrySize = probe.getSizeBytes();
+        
+        ResultCache cache = new ResultCache(tempDir.resolve("lru"), 2 * entrySize);
+        cache.put("a", result);
+        cache.put("b", result);
+        assertNotNull(cache.get("a"));
+        cache.put("c", result);
+        
+        assertEquals(2, cache.size());
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertTrue(cache.contains("c"));
+        assertFalse(Files.exists(tempDir.resolve("lru").resolve("b" + ResultCache.EXTENSION)));
+        assertEquals(2 * entrySize, cache.getSizeBytes());
+    }
+    
+    @Test
+    public void testRecencySurvivesRestart() throws IOException {
+        CachedAnalysis result = analyze("small_dag.json");
+        ResultCache cache = new ResultCache(tempDir, Long.MAX_VALUE);
+        cache.put("old", result);
+        cache.put("new", result);
+        long entrySize = cache.getSizeBytes() / 2;
+        Files.setLastModifiedTime(tempDir.resolve("old" + ResultCache.EXTENSION), FileTime.fromMillis(0));
+        
+        ResultCache reopened = new ResultCache(tempDir, entrySize);
+        
+        assertEquals(1, reopened.size());
+        assertTrue(reopened.contains("new"));
+    }
+    
+    @Test
+    public void testCorruptEntryIsMiss() throws IOException {
+        ResultCache cache = new ResultCache(tempDir, 1 << 20);
+        cache.put("k", analyze("small_dag.json"));
+        Files.write(tempDir.resolve("k" + ResultCache.EXTENSION), new byte[] {1, 2, 3});
+        
+        assertNull(cache.get("k"));
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getSizeBytes());
+    }
+    
+    @Test
+    public void testHugeLengthInEntryIsMiss() throws IOException {
+        ResultCache cache = new ResultCache(tempDir, 1 << 20);
+        cache.put("k", analyze("small_dag.json"));
+        Path entry = tempDir.resolve("k" + ResultCache.EXTENSION);
+        byte[] bytes = Files.readAllBytes(entry);
+        // the vertex count follows magic and version
+        ByteBuffer.wrap(bytes).putInt(8, Integer.MAX_VALUE);
+        Files.write(entry, bytes);
+        
+        assertNull(cache.get("k"));
+        assertEquals(1, cache.getMisses());
+        assertFalse(Files.exists(entry));
+    }
+    
+    @Test
+    public void testWatcherReanalyzesOnlyChangedFiles() throws IOException {
+        Path dir = Files.createDirectory(tempDir.resolve("graphs"));
+        Path file = dir.resolve("g.json");
+        Files.copy(Path.of("data", "small_cycle1.json"), file);
+        GraphWatcher watcher = new GraphWatcher(dir, new ResultCache(tempDir.resolve("cache"), 1 << 20),
+                new PrintStream(new ByteArrayOutputStream()));
+        
+        CachedAnalysis first = watcher.process(file);
+        CachedAnalysis second = watcher.process(file);
+        assertEquals(1, watcher.getCache().getMisses());
+        assertEquals(1, watcher.getCache().getHits());
+        assertArrayEquals(first.components.componentOf, second.components.componentOf);
+        
+        Files.writeString(file, "{\"directed\": true, \"n\": 2, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 3}]}");
+        CachedAnalysis changed = watcher.process(file);
+        assertEquals(2, watcher.getCache().getMisses());
+        assertEquals(3, changed.criticalPath.length);
+    }
+    
+    @Test
+    public void testScanReportsMalformedFiles() throws IOException {
+        Path dir = Files.createDirectory(tempDir.resolve("bad"));
+        Files.writeString(dir.resolve("a.json"), "{\"directed\": true, \"n\": 2, \"edges\": [{\"u\": 0, \"v\": 5, \"w\": 1}]}");
+        Files.writeString(dir.resolve("b.json"), "{\"directed\": true, \"n\": 2, \"source\": 9, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}]}");
+        Files.copy(Path.of("data", "small_dag.json"), dir.resolve("c.json"));
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        GraphWatcher watcher = new GraphWatcher(dir, new ResultCache(tempDir.resolve("cache"), 1 << 20),
+                new PrintStream(output));
+        
+        watcher.scan();
+        
+        String[] lines = output.toString().split("\\R");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0].startsWith("a.json: error"), lines[0]);
+        assertTrue(lines[1].startsWith("b.json: error"), lines[1]);
+        assertTrue(lines[2].startsWith("c.json: analyzed"), lines[2]);
+    }
+    
+    @Test
+    public void testWatchPicksUpNewFile() throws Exception {
+        Path dir = Files.createDirectory(tempDir.resolve("watched"));
+        ResultCache cache = new ResultCache(tempDir.resolve("cache"), 1 << 20);
+        GraphWatcher watcher = new GraphWatcher(dir, cache, new PrintStream(new ByteArrayOutputStream()));
+        Thread thread = new Thread(() -> {
+            try {
+                watcher.watch();
+            } catch (IOException | InterruptedException e) {
+                // stopped by the test
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        
+        try {
+            Path file = dir.resolve("g.json");
+            String key = null;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            // the watch service may register after the first write, so keep touching the file
+            while (System.nanoTime() < deadline && (key == null || !cache.contains(key))) {
+                Files.writeString(file, "{\"directed\": true, \"n\": 3, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}]}");
+                key = ResultCache.hash(file);
+                Thread.sleep(100);
+            }
+            assertTrue(cache.contains(key));
+        } finally {
+            thread.interrupt();
+        }
+    }
+}
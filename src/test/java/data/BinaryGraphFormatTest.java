@@ -0,0 +1,86 @@
+package data;
+
+import graph.GraphView;
+import graph.scc.TarjanSCC;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BinaryGraphFormatTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path json = tempDir.resolve("cycle.json");
+        Files.writeString(json, "{\"directed\": true, \"n\": 4, \"source\": 1, \"weight_model\": \"edge\","
+                + " \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 3}, {\"u\": 1, \"v\": 2, \"w\": 5},"
+                + " {\"u\": 2, \"v\": 0, \"w\": 7}, {\"u\": 2, \"v\": 3, \"w\": 1}]}");
+        
+        GraphDataLoader loader = new GraphDataLoader();
+        Path bin = BinaryGraphConverter.convert(loader, json);
+        assertEquals("cycle.bin", bin.getFileName().toString());
+        
+        GraphView expected = loader.streamGraph(json.toString()).getGraph();
+        LoadedGraph mapped = BinaryGraphFormat.map(bin);
+        GraphView actual = mapped.getGraph();
+        
+        assertEquals(1, mapped.getSource());
+        assertEquals("edge", mapped.getWeightModel());
+        assertTrue(actual.isDirected());
+        assertEquals(expected.getVertexCount(), actual.getVertexCount());
+        assertEquals(expected.getEdgeCount(), actual.getEdgeCount());
+        for (int u = 0; u < expected.getVertexCount(); u++) {
+            assertEquals(expected.getOutDegree(u), actual.getOutDegree(u));
+            for (int i = 0; i < expected.getOutDegree(u); i++) {
+                assertEquals(expected.getNeighbor(u, i), actual.getNeighbor(u, i));
+                assertEquals(expected.getNeighborWeight(u, i), actual.getNeighborWeight(u, i));
+            }
+        }
+        
+        assertEquals(2, new TarjanSCC(actual).findComponents().componentCount);
+    }
+    
+    @Test
+    public void testRejectsNonGraphFile() throws IOException {
+        Path file = tempDir.resolve("junk.bin");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> BinaryGraphFormat.map(file));
+    }
+    
+    @Test
+    public void testRejectsTruncatedFile() throws IOException {
+        Path json = tempDir.resolve("g.json");
+        Files.writeString(json, "{\"n\": 3, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}]}");
+        Path bin = BinaryGraphConverter.convert(new GraphDataLoader(), json);
+        
+        byte[] bytes = Files.readAllBytes(bin);
+        Files.write(bin, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> BinaryGraphFormat.map(bin));
+    }
+    
+    @Test
+    public void testRejectsCorruptStructure() throws IOException {
+        Path json = tempDir.resolve("g.json");
+        Files.writeString(json, "{\"n\": 3, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}]}");
+        Path bin = BinaryGraphConverter.convert(new GraphDataLoader(), json);
+        byte[] original = Files.readAllBytes(bin);
+        
+        // header int 6 is the source vertex, targets start after the header and n + 1 offsets
+        int[][] corruptions = {{6, 3}, {3, -1}, {8, 1}, {8 + 3, 0}, {8 + 4, 7}};
+        for (int[] corruption : corruptions) {
+            ByteBuffer bytes = ByteBuffer.wrap(original.clone()).order(ByteOrder.LITTLE_ENDIAN);
+            bytes.putInt(corruption[0] * 4, corruption[1]);
+            Files.write(bin, bytes.array());
+            IOException error = assertThrows(IOException.class, () -> BinaryGraphFormat.map(bin));
+            assertTrue(error.getMessage().startsWith("Corrupt graph file"), error.getMessage());
+        }
+    }
+}
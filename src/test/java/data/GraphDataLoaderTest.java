@@ -0,0 +1,166 @@
+package data;
+
+import graph.CsrGraph;
+import graph.DoubleCsrGraph;
+import graph.Graph;
+import graph.GraphView;
+import graph.LongCsrGraph;
+import graph.WeightType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class GraphDataLoaderTest {
+    
+    @TempDir
+    Path tempDir;
+    
+    private String write(String json) throws IOException {
+        Path file = tempDir.resolve("graph.json");
+        Files.writeString(file, json);
+        return file.toString();
+    }
+    
+    @Test
+    public void testStreamingMatchesObjectModel() throws IOException {
+        GraphDataLoader loader = new GraphDataLoader();
+        File[] files = new File("data").listFiles((dir, name) -> name.endsWith(".json"));
+        assertNotNull(files);
+        
+        for (File file : files) {
+            Graph expected = loader.loadGraph(file.getPath());
+            LoadedGraph loaded = loader.streamGraph(file.getPath());
+            GraphView actual = loaded.getGraph();
+            
+            assertEquals(expected.getVertexCount(), actual.getVertexCount(), file.getName());
+            assertEquals(expected.getEdgeCount(), actual.getEdgeCount(), file.getName());
+            for (int u = 0; u < expected.getVertexCount(); u++) {
+                assertEquals(expected.getOutDegree(u), actual.getOutDegree(u));
+                for (int i = 0; i < expected.getOutDegree(u); i++) {
+                    assertEquals(expected.getNeighbor(u, i), actual.getNeighbor(u, i));
+                    assertEquals(expected.getNeighborWeight(u, i), actual.getNeighborWeight(u, i));
+                }
+            }
+            assertEquals(loader.loadGraphData(file.getPath()).getSource(), loaded.getSource());
+        }
+    }
+    
+    @Test
+    public void testFieldsInAnyOrder() throws IOException {
+        String path = write("{\"edges\": [{\"w\": 4, \"v\": 2, \"u\": 0}, {\"v\": 0, \"u\": 2}],"
+                + " \"weight_model\": \"edge\", \"extra\": {\"a\": [1, 2]}, \"source\": 2,"
+                + " \"directed\": true, \"n\": 3}");
+        
+        LoadedGraph loaded = new GraphDataLoader().streamGraph(path);
+        GraphView graph = loaded.getGraph();
+        
+        assertEquals(3, graph.getVertexCount());
+        assertTrue(graph.isDirected());
+        assertEquals(2, graph.getEdgeCount());
+        assertEquals(2, graph.getNeighbor(0, 0));
+        assertEquals(4, graph.getNeighborWeight(0, 0));
+        assertEquals(0, graph.getNeighborWeight(2, 0));
+        assertEquals(2, loaded.getSource());
+        assertEquals("edge", loaded.getWeightModel());
+    }
+    
+    @Test
+    public void testMissingVertexCount() throws IOException {
+        String path = write("{\"directed\": true, \"edges\": []}");
+        assertThrows(IOException.class, () -> new GraphDataLoader().streamGraph(path));
+    }
+    
+    @Test
+    public void testNonObjectEdge() throws IOException {
+        String path = write("{\"n\": 3, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}, [1, 2], {\"u\": 1, \"v\": 2, \"w\": 1}]}");
+        assertThrows(IOException.class, () -> new GraphDataLoader().streamGraph(path));
+    }
+    
+    @Test
+    public void testEdgeOutOfRange() throws IOException {
+        String path = write("{\"edges\": [{\"u\": 0, \"v\": 5, \"w\": 1}], \"n\": 2}");
+        assertThrows(IllegalArgumentException.class, () -> new GraphDataLoader().streamGraph(path));
+    }
+    
+    @Test
+    public void testNodeWeights() throws IOException {
+        String path = write("{\"node_weights\": [4, 0, 7], \"n\": 3, \"directed\": true,"
+                + " \"weight_model\": \"node\", \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 1}]}");
+        GraphDataLoader loader = new GraphDataLoader();
+        
+        LoadedGraph loaded = loader.streamGraph(path);
+        Graph graph = loader.loadGraph(path);
+        
+        int[] expected = {4, 0, 7};
+        assertEquals("node", loaded.getWeightModel());
+        for (int v = 0; v < expected.length; v++) {
+            assertEquals(expected[v], loaded.getGraph().getNodeWeight(v));
+            assertEquals(expected[v], graph.getNodeWeight(v));
+        }
+    }
+    
+    @Test
+    public void testNodeWeightCountMismatch() throws IOException {
+        String path = write("{\"n\": 3, \"node_weights\": [1, 2], \"edges\": []}");
+        GraphDataLoader loader = new GraphDataLoader();
+        
+        assertThrows(IOException.class, () -> loader.streamGraph(path));
+        assertThrows(IllegalArgumentException.class, () -> loader.loadGraph(path));
+    }
+    
+    @Test
+    public void testIntWeightsStayInt() throws IOException {
+        String path = write("{\"n\": 2, \"directed\": true, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 2147483647}]}");
+        
+        LoadedGraph loaded = new GraphDataLoader().streamGraph(path);
+        
+        assertEquals(WeightType.INT, loaded.getWeightType());
+        assertTrue(loaded.getGraph() instanceof CsrGraph);
+    }
+    
+    @Test
+    public void testLargeWeightPromotesToLong() throws IOException {
+        // the wide weight comes after an int edge and before n and directed
+        String path = write("{\"edges\": [{\"u\": 0, \"v\": 1, \"w\": 3}, {\"u\": 1, \"v\": 2, \"w\": 5000000000}],"
+                + " \"node_weights\": [1, 2, 9000000000], \"n\": 3, \"directed\": true}");
+        
+        LoadedGraph loaded = new GraphDataLoader().streamGraph(path);
+        
+        assertEquals(WeightType.LONG, loaded.getWeightType());
+        LongCsrGraph graph = (LongCsrGraph) loaded.getGraph();
+        assertEquals(3, graph.getVertexCount());
+        assertTrue(graph.isDirected());
+        assertEquals(3, graph.getLongNeighborWeight(0, 0));
+        assertEquals(5_000_000_000L, graph.getLongNeighborWeight(1, 0));
+        assertEquals(Integer.MAX_VALUE, graph.getNeighborWeight(1, 0));
+        assertEquals(9_000_000_000L, graph.getLongNodeWeight(2));
+    }
+    
+    @Test
+    public void testFractionalWeightPromotesToDouble() throws IOException {
+        String path = write("{\"n\": 3, \"directed\": false, \"node_weights\": [1, 5000000000, 0.5],"
+                + " \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 2}, {\"u\": 1, \"v\": 2, \"w\": 1.25}]}");
+        
+        LoadedGraph loaded = new GraphDataLoader().streamGraph(path);
+        
+        assertEquals(WeightType.DOUBLE, loaded.getWeightType());
+        DoubleCsrGraph graph = (DoubleCsrGraph) loaded.getGraph();
+        assertFalse(graph.isDirected());
+        assertEquals(2.0, graph.getDoubleNeighborWeight(0, 0));
+        assertEquals(1.25, graph.getDoubleNeighborWeight(2, 0));
+        assertEquals(5e9, graph.getDoubleNodeWeight(1));
+        assertEquals(0.5, graph.getDoubleNodeWeight(2));
+    }
+    
+    @Test
+    public void testWideGraphsAreNotWrittenAsBinary() throws IOException {
+        String path = write("{\"n\": 2, \"edges\": [{\"u\": 0, \"v\": 1, \"w\": 0.5}]}");
+        LoadedGraph loaded = new GraphDataLoader().streamGraph(path);
+        
+        assertThrows(IOException.class, () -> BinaryGraphFormat.write(loaded, tempDir.resolve("graph.bin")));
+    }
+}
@@ -0,0 +1,119 @@
+package graph;
+
+import graph.dagsp.ShortestPaths;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsrGraphTest {
+    
+    @Test
+    public void testBuilderLayout() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(4, true);
+        builder.addEdge(2, 3, 7);
+        builder.addEdge(0, 1, 5);
+        builder.addEdge(0, 2, 2);
+        CsrGraph graph = builder.build();
+        
+        assertEquals(4, graph.getVertexCount());
+        assertEquals(3, graph.getEdgeCount());
+        assertEquals(2, graph.getOutDegree(0));
+        assertEquals(0, graph.getOutDegree(1));
+        assertEquals(1, graph.getNeighbor(0, 0));
+        assertEquals(2, graph.getNeighbor(0, 1));
+        assertEquals(2, graph.getNeighborWeight(0, 1));
+        assertEquals(7, graph.getNeighborWeight(2, 0));
+    }
+    
+    @Test
+    public void testUndirectedBuilder() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(3, false);
+        builder.addEdge(0, 1, 4);
+        builder.addEdge(1, 2, 6);
+        CsrGraph graph = builder.build();
+        
+        assertEquals(2, graph.getEdgeCount());
+        assertEquals(1, graph.getOutDegree(0));
+        assertEquals(2, graph.getOutDegree(1));
+        assertEquals(0, graph.getNeighbor(1, 0));
+        assertEquals(2, graph.getNeighbor(1, 1));
+    }
+    
+    @Test
+    public void testEdgeOutOfRange() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(2, true);
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(0, 2, 1));
+    }
+    
+    @Test
+    public void testFromGraph() {
+        Graph graph = new Graph(3, true);
+        graph.addEdge(0, 1, 2);
+        graph.addEdge(1, 2, 3);
+        graph.setNodeWeight(2, 9);
+        
+        CsrGraph csr = CsrGraph.fromGraph(graph);
+        
+        assertEquals(2, csr.getEdgeCount());
+        assertEquals(1, csr.getNeighbor(0, 0));
+        assertEquals(3, csr.getNeighborWeight(1, 0));
+        assertEquals(9, csr.getNodeWeight(2));
+    }
+    
+    @Test
+    public void testAlgorithmsOnCsr() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(5, true);
+        builder.addEdge(0, 1, 1);
+        builder.addEdge(1, 2, 1);
+        builder.addEdge(2, 0, 1);
+        builder.addEdge(2, 3, 4);
+        builder.addEdge(3, 4, 2);
+        CsrGraph graph = builder.build();
+        
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        List<List<Integer>> sccs = tarjan.findSCCs();
+        assertEquals(3, sccs.size());
+        
+        Graph condensation = tarjan.buildCondensationGraph();
+        assertEquals(3, condensation.getVertexCount());
+        assertEquals(2, condensation.getEdgeCount());
+        
+        CsrGraph dag = CsrGraph.fromGraph(condensation);
+        TopologicalSort topoSort = new TopologicalSort(dag);
+        assertTrue(topoSort.isDAG());
+        assertEquals(3, topoSort.kahnSort().size());
+        
+        CsrGraph.Builder chain = new CsrGraph.Builder(3, true);
+        chain.addEdge(0, 1, 2);
+        chain.addEdge(1, 2, 3);
+        ShortestPaths sp = new ShortestPaths(chain.build());
+        ShortestPaths.PathResult result = sp.shortestPaths(0);
+        assertEquals(5, result.distances[2]);
+    }
+    
+    @Test
+    public void testBuilderPromotion() {
+        CsrGraph.Builder builder = new CsrGraph.Builder(-1, false, 1);
+        builder.addEdge(0, 1, 7);
+        builder.setNodeWeight(1, 3);
+        
+        LongCsrGraph.Builder wide = builder.toLongBuilder();
+        wide.addEdge(1, 2, 5_000_000_000L);
+        wide.setVertexCount(3);
+        LongCsrGraph graph = wide.build();
+        
+        assertEquals(2, graph.getEdgeCount());
+        assertEquals(7, graph.getLongNeighborWeight(0, 0));
+        assertEquals(3, graph.getLongNodeWeight(1));
+        // undirected: 1 -> 0 and 1 -> 2 in insertion order
+        assertEquals(2, graph.getOutDegree(1));
+        assertEquals(5_000_000_000L, graph.getLongNeighborWeight(1, 1));
+        assertEquals(Integer.MAX_VALUE, graph.getNeighborWeight(1, 1));
+        
+        DoubleCsrGraph.Builder fractional = new CsrGraph.Builder(2, true).toDoubleBuilder();
+        fractional.addEdge(0, 1, 0.5);
+        assertEquals(0.5, fractional.build().getDoubleNeighborWeight(0, 0));
+    }
+}
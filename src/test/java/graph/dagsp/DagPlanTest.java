@@ -0,0 +1,108 @@
+package graph.dagsp;
+
+import graph.Graph;
+import graph.WeightModel;
+import metrics.NoOpMetrics;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DagPlanTest {
+    
+    private Graph randomDag(int n, int edges, long seed) {
+        Random random = new Random(seed);
+        Graph graph = new Graph(n, true);
+        for (int i = 0; i < edges; i++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(n - u - 1);
+            graph.addEdge(u, v, random.nextInt(20) - 5);
+        }
+        return graph;
+    }
+    
+    @Test
+    public void testMatchesShortestPaths() {
+        Graph graph = randomDag(60, 200, 42);
+        ShortestPaths sp = new ShortestPaths(graph);
+        DagPlan plan = new DagPlan(graph);
+        
+        for (int source = 0; source < graph.getVertexCount(); source++) {
+            assertArrayEquals(sp.shortestPaths(source).distances, plan.shortestPaths(source).distances);
+            assertArrayEquals(sp.longestPaths(source).distances, plan.longestPaths(source).distances);
+        }
+    }
+    
+    @Test
+    public void testNodeAndMixedModels() {
+        Graph graph = randomDag(60, 200, 11);
+        Random random = new Random(5);
+        for (int v = 0; v < graph.getVertexCount(); v++) {
+            graph.setNodeWeight(v, random.nextInt(10));
+        }
+        
+        for (WeightModel model : new WeightModel[] {WeightModel.NODE, WeightModel.MIXED}) {
+            ShortestPaths sp = new ShortestPaths(graph, model, NoOpMetrics.INSTANCE);
+            DagPlan plan = new DagPlan(graph, model, NoOpMetrics.INSTANCE);
+            for (int source = 0; source < graph.getVertexCount(); source++) {
+                assertArrayEquals(sp.shortestPaths(source).distances, plan.shortestPaths(source).distances);
+                assertArrayEquals(sp.longestPaths(source).distances, plan.longestPaths(source).distances);
+            }
+        }
+    }
+    
+    @Test
+    public void testReusedBuffers() {
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 5);
+        graph.addEdge(0, 2, 2);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(2, 3, 4);
+        
+        DagPlan plan = new DagPlan(graph);
+        int[] dist = new int[4];
+        int[] pred = new int[4];
+        
+        plan.shortestPaths(1, dist, pred);
+        assertEquals(ShortestPaths.INF, dist[0]);
+        assertEquals(1, dist[3]);
+        assertEquals(1, pred[3]);
+        
+        plan.longestPaths(0, dist, pred);
+        assertEquals(0, dist[0]);
+        assertEquals(6, dist[3]);
+        
+        // entries past the graph are left alone
+        int[] wide = new int[8];
+        int[] widePred = new int[8];
+        wide[6] = 42;
+        plan.shortestPaths(0, wide, widePred);
+        assertEquals(6, wide[3]);
+        assertEquals(42, wide[6]);
+        assertEquals(0, widePred[6]);
+    }
+    
+    @Test
+    public void testOrderAndPositions() {
+        Graph graph = randomDag(30, 80, 7);
+        DagPlan plan = new DagPlan(graph);
+        int[] order = plan.getOrder();
+        
+        for (int p = 0; p < order.length; p++) {
+            assertEquals(p, plan.getPosition(order[p]));
+        }
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            for (int i = 0; i < graph.getOutDegree(u); i++) {
+                assertTrue(plan.getPosition(u) < plan.getPosition(graph.getNeighbor(u, i)));
+            }
+        }
+    }
+    
+    @Test
+    public void testCyclicGraphRejected() {
+        Graph graph = new Graph(2, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        
+        assertThrows(IllegalArgumentException.class, () -> new DagPlan(graph));
+    }
+}
@@ -0,0 +1,56 @@
+package graph.dagsp;
+
+import graph.DoubleCsrGraph;
+import graph.WeightModel;
+import metrics.MetricsImpl;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DoubleShortestPathsTest {
+    
+    // diamond with fractional weights: 0 -> 1 -> 3 costs 0.3, 0 -> 2 -> 3 costs 0.35
+    private DoubleCsrGraph diamond() {
+        DoubleCsrGraph.Builder builder = new DoubleCsrGraph.Builder(4, true, 4);
+        builder.addEdge(0, 1, 0.1);
+        builder.addEdge(0, 2, 0.25);
+        builder.addEdge(1, 3, 0.2);
+        builder.addEdge(2, 3, 0.1);
+        return builder.build();
+    }
+    
+    @Test
+    public void testFractionalDistances() {
+        DoubleShortestPaths sp = new DoubleShortestPaths(diamond());
+        
+        DoubleShortestPaths.PathResult shortest = sp.shortestPaths(0);
+        assertEquals(0.3, shortest.distances[3], 1e-12);
+        assertEquals(List.of(0, 1, 3), sp.reconstructPath(shortest.predecessors, 0, 3));
+        
+        DoubleShortestPaths.PathResult longest = sp.longestPaths(0);
+        assertEquals(0.35, longest.distances[3], 1e-12);
+        assertEquals(List.of(0, 2, 3), sp.reconstructPath(longest.predecessors, 0, 3));
+    }
+    
+    @Test
+    public void testUnreachableSentinels() {
+        DoubleShortestPaths sp = new DoubleShortestPaths(diamond());
+        
+        assertEquals(Double.POSITIVE_INFINITY, sp.shortestPaths(3).distances[0]);
+        assertEquals(Double.NEGATIVE_INFINITY, sp.longestPaths(3).distances[0]);
+    }
+    
+    @Test
+    public void testCriticalPathToleratesRounding() {
+        DoubleShortestPaths sp = new DoubleShortestPaths(diamond(), WeightModel.EDGE, new MetricsImpl());
+        
+        DoubleShortestPaths.CriticalPathResult result = sp.findCriticalPath();
+        assertEquals(0.35, result.length, 1e-12);
+        assertEquals(List.of(0, 2, 3), result.path);
+        for (int v : result.path) {
+            assertTrue(result.isCritical(v));
+        }
+        assertFalse(result.isCritical(1));
+        assertEquals(0.05, result.slack[1], 1e-12);
+    }
+}
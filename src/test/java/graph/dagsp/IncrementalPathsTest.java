@@ -0,0 +1,103 @@
+package graph.dagsp;
+
+import graph.Graph;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalPathsTest {
+    
+    private Graph diamond() {
+        Graph graph = new Graph(5, true);
+        graph.addEdge(0, 1, 2);
+        graph.addEdge(0, 2, 5);
+        graph.addEdge(1, 3, 2);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        return graph;
+    }
+    
+    @Test
+    public void testWeightDecreaseAndIncrease() {
+        IncrementalPaths paths = IncrementalPaths.shortest(diamond(), 0);
+        assertEquals(4, paths.getDistance(3));
+        assertEquals(Arrays.asList(0, 1, 3, 4), paths.getPath(4));
+        
+        int[] changed = paths.setWeight(0, 2, 1);
+        assertArrayEquals(new int[]{2, 3, 4}, changed);
+        assertEquals(2, paths.getDistance(3));
+        assertEquals(Arrays.asList(0, 2, 3, 4), paths.getPath(4));
+        
+        changed = paths.setWeight(0, 2, 10);
+        assertArrayEquals(new int[]{2, 3, 4}, changed);
+        assertEquals(5, paths.getDistance(4));
+        assertEquals(1, paths.getPredecessor(3));
+    }
+    
+    @Test
+    public void testInsertionStopsAtUnchangedVertices() {
+        IncrementalPaths paths = IncrementalPaths.longest(diamond(), 0);
+        assertEquals(6, paths.getDistance(3));
+        
+        // 0 -> 3 is shorter than the existing route, so nothing downstream is touched
+        assertEquals(0, paths.addEdge(0, 3, 5).length);
+        assertEquals(2, paths.getPredecessor(3));
+        
+        int[] changed = paths.addEdge(1, 2, 4);
+        assertArrayEquals(new int[]{2, 3, 4}, changed);
+        assertEquals(6, paths.getDistance(2));
+        assertEquals(8, paths.getDistance(4));
+    }
+    
+    @Test
+    public void testNewVertexAndCycleRejection() {
+        IncrementalPaths paths = IncrementalPaths.shortest(diamond(), 0);
+        
+        assertArrayEquals(new int[]{6}, paths.addEdge(4, 6, 3));
+        assertEquals(8, paths.getDistance(6));
+        assertEquals(ShortestPaths.INF, paths.getDistance(5));
+        assertThrows(IllegalArgumentException.class, () -> paths.addEdge(6, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> paths.setWeight(6, 0, 1));
+    }
+    
+    @Test
+    public void testRandomEditsMatchRecomputation() {
+        Random random = new Random(5);
+        int n = 80;
+        Graph graph = new Graph(n, true);
+        Map<Long, Integer> weights = new HashMap<>();
+        for (int i = 0; i < 150; i++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(n - u - 1);
+            if (weights.putIfAbsent((long) u * n + v, 0) == null) {
+                int w = random.nextInt(20) - 5;
+                weights.put((long) u * n + v, w);
+                graph.addEdge(u, v, w);
+            }
+        }
+        IncrementalPaths shortest = IncrementalPaths.shortest(graph, 3);
+        IncrementalPaths longest = IncrementalPaths.longest(graph, 3);
+        
+        for (int step = 0; step < 300; step++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(n - u - 1);
+            int w = random.nextInt(20) - 5;
+            weights.put((long) u * n + v, w);
+            shortest.addEdge(u, v, w);
+            longest.addEdge(u, v, w);
+            
+            if (step % 30 == 0) {
+                Graph current = new Graph(n, true);
+                for (Map.Entry<Long, Integer> edge : weights.entrySet()) {
+                    current.addEdge((int) (edge.getKey() / n), (int) (edge.getKey() % n), edge.getValue());
+                }
+                DagPlan plan = new DagPlan(current);
+                assertArrayEquals(plan.shortestPaths(3).distances, shortest.toPathResult().distances);
+                assertArrayEquals(plan.longestPaths(3).distances, longest.toPathResult().distances);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package graph.dagsp;
+
+import graph.LongCsrGraph;
+import graph.WeightModel;
+import metrics.MetricsImpl;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongShortestPathsTest {
+    
+    private static final long BIG = 3_000_000_000L;
+    
+    // 0 -> 1 -> 2 -> 3 with weights beyond the int range, plus a light shortcut 0 -> 3
+    private LongCsrGraph bigChain() {
+        LongCsrGraph.Builder builder = new LongCsrGraph.Builder(4, true, 4);
+        builder.addEdge(0, 1, BIG);
+        builder.addEdge(1, 2, BIG);
+        builder.addEdge(2, 3, BIG);
+        builder.addEdge(0, 3, 1);
+        return builder.build();
+    }
+    
+    @Test
+    public void testLongDistances() {
+        LongShortestPaths sp = new LongShortestPaths(bigChain());
+        
+        LongShortestPaths.PathResult shortest = sp.shortestPaths(0);
+        assertEquals(1, shortest.distances[3]);
+        assertEquals(2 * BIG, shortest.distances[2]);
+        
+        LongShortestPaths.PathResult longest = sp.longestPaths(0);
+        assertEquals(3 * BIG, longest.distances[3]);
+        assertEquals(List.of(0, 1, 2, 3), sp.reconstructPath(longest.predecessors, 0, 3));
+    }
+    
+    @Test
+    public void testUnreachableSentinels() {
+        LongShortestPaths sp = new LongShortestPaths(bigChain());
+        
+        assertEquals(LongShortestPaths.INF, sp.shortestPaths(1).distances[0]);
+        assertEquals(-LongShortestPaths.INF, sp.longestPaths(1).distances[0]);
+        assertTrue(sp.reconstructPath(sp.shortestPaths(1).predecessors, 1, 0).isEmpty());
+    }
+    
+    @Test
+    public void testDeepChainWithoutOverflow() {
+        int n = 10_000;
+        LongCsrGraph.Builder builder = new LongCsrGraph.Builder(n, true, n);
+        for (int v = 0; v + 1 < n; v++) {
+            builder.addEdge(v, v + 1, BIG);
+        }
+        LongShortestPaths sp = new LongShortestPaths(builder.build());
+        
+        assertEquals((n - 1) * BIG, sp.longestPaths(0).distances[n - 1]);
+        assertEquals((n - 1) * BIG, sp.findCriticalPath().length);
+    }
+    
+    @Test
+    public void testOverflowIsReported() {
+        LongCsrGraph.Builder builder = new LongCsrGraph.Builder(3, true, 2);
+        builder.addEdge(0, 1, Long.MAX_VALUE - 1);
+        builder.addEdge(1, 2, Long.MAX_VALUE - 1);
+        LongShortestPaths sp = new LongShortestPaths(builder.build());
+        
+        assertThrows(ArithmeticException.class, () -> sp.longestPaths(0));
+    }
+    
+    @Test
+    public void testCriticalPathWithNodeWeights() {
+        LongCsrGraph.Builder builder = new LongCsrGraph.Builder(3, true, 2);
+        builder.addEdge(0, 2, 0);
+        builder.addEdge(1, 2, 0);
+        builder.setNodeWeight(0, BIG);
+        builder.setNodeWeight(1, 5);
+        builder.setNodeWeight(2, BIG);
+        LongShortestPaths sp = new LongShortestPaths(builder.build(), WeightModel.NODE, new MetricsImpl());
+        
+        LongShortestPaths.CriticalPathResult result = sp.findCriticalPath();
+        assertEquals(2 * BIG, result.length);
+        assertEquals(List.of(0, 2), result.path);
+        assertTrue(result.isCritical(0));
+        assertEquals(BIG - 5, result.slack[1]);
+    }
+}
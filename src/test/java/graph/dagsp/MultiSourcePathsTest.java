@@ -0,0 +1,80 @@
+package graph.dagsp;
+
+import graph.CsrGraph;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MultiSourcePathsTest {
+    
+    private CsrGraph randomDag(int n, int edges, long seed) {
+        Random random = new Random(seed);
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, true, edges);
+        for (int i = 0; i < edges; i++) {
+            int u = random.nextInt(n - 1);
+            int v = u + 1 + random.nextInt(n - u - 1);
+            builder.addEdge(u, v, random.nextInt(50));
+        }
+        return builder.build();
+    }
+    
+    @Test
+    public void testDenseMatchesSequential() {
+        CsrGraph graph = randomDag(200, 1000, 1);
+        DagPlan plan = new DagPlan(graph);
+        int[] sources = new int[graph.getVertexCount()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = i;
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            MultiSourcePaths batch = new MultiSourcePaths(plan, pool);
+            MultiSourcePaths.BatchResult shortest = batch.shortestPaths(sources);
+            MultiSourcePaths.BatchResult longest = batch.longestPaths(sources);
+            
+            for (int i = 0; i < sources.length; i++) {
+                assertArrayEquals(plan.shortestPaths(sources[i]).distances, shortest.distances[i]);
+                assertArrayEquals(plan.longestPaths(sources[i]).distances, longest.distances[i]);
+                assertArrayEquals(plan.longestPaths(sources[i]).predecessors, longest.predecessors[i]);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testStreamingVisitsEverySource() {
+        CsrGraph graph = randomDag(100, 400, 2);
+        DagPlan plan = new DagPlan(graph);
+        int[] sources = {5, 0, 99, 42, 5};
+        AtomicIntegerArray reached = new AtomicIntegerArray(sources.length);
+        
+        new MultiSourcePaths(plan).shortestPaths(sources, (index, source, dist, pred) -> {
+            assertEquals(sources[index], source);
+            assertEquals(0, dist[source]);
+            int count = 0;
+            for (int d : dist) {
+                if (d != ShortestPaths.INF) {
+                    count++;
+                }
+            }
+            reached.set(index, count);
+        });
+        
+        for (int i = 0; i < sources.length; i++) {
+            assertTrue(reached.get(i) >= 1);
+        }
+        assertEquals(reached.get(0), reached.get(4));
+        assertEquals(1, reached.get(2));
+    }
+    
+    @Test
+    public void testEmptySources() {
+        DagPlan plan = new DagPlan(randomDag(10, 20, 3));
+        MultiSourcePaths.BatchResult result = new MultiSourcePaths(plan).shortestPaths(new int[0]);
+        assertEquals(0, result.distances.length);
+    }
+}
@@ -0,0 +1,110 @@
+package graph.dagsp;
+
+import graph.Graph;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PathTreeTest {
+    
+    // shortest-path tree from 0: 0 -> {1, 2}, 1 -> 3, 2 -> 4; 5 is unreachable
+    private PathTree tree() {
+        Graph graph = new Graph(6, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(2, 4, 1);
+        graph.addEdge(3, 4, 5);
+        graph.addEdge(5, 0, 1);
+        ShortestPaths.PathResult result = new ShortestPaths(graph).shortestPaths(0);
+        return new PathTree(result.predecessors, 0);
+    }
+    
+    private List<Integer> collect(PathTree.PathIterator iterator) {
+        List<Integer> path = new ArrayList<>();
+        while (iterator.hasNext()) {
+            path.add(iterator.nextInt());
+        }
+        return path;
+    }
+    
+    @Test
+    public void testStructure() {
+        PathTree tree = tree();
+        
+        assertEquals(5, tree.size());
+        assertFalse(tree.contains(5));
+        assertEquals(-1, tree.getDepth(5));
+        assertEquals(2, tree.getChildCount(0));
+        assertEquals(1, tree.getChild(0, 0));
+        assertEquals(2, tree.getChild(0, 1));
+        assertEquals(2, tree.getParent(4));
+        assertEquals(-1, tree.getParent(0));
+        assertEquals(2, tree.getDepth(3));
+        
+        // preorder 0, 1, 3, 2, 4
+        assertEquals(3, tree.getPreorder(2));
+        assertEquals(3, tree.getEnter(2));
+        assertEquals(5, tree.getExit(2));
+        assertTrue(tree.isAncestor(2, 4));
+        assertTrue(tree.isAncestor(0, 3));
+        assertFalse(tree.isAncestor(1, 4));
+        assertFalse(tree.isAncestor(0, 5));
+    }
+    
+    @Test
+    public void testPathIteratorMatchesReconstruction() {
+        PathTree tree = tree();
+        Graph graph = new Graph(1, true);
+        ShortestPaths sp = new ShortestPaths(graph);
+        int[] pred = {-1, 0, 0, 1, 2, -1};
+        
+        PathTree.PathIterator iterator = tree.path(0);
+        for (int v = 0; v < 6; v++) {
+            iterator.reset(v);
+            assertEquals(sp.reconstructPath(pred, 0, v), collect(iterator));
+        }
+        assertThrows(NoSuchElementException.class, iterator::nextInt);
+    }
+    
+    @Test
+    public void testForEachPathSharesPrefix() {
+        PathTree tree = tree();
+        List<String> paths = new ArrayList<>();
+        
+        tree.forEachPath((v, path, length) -> {
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < length; i++) {
+                text.append(path[i]);
+            }
+            assertEquals(v, path[length - 1]);
+            paths.add(text.toString());
+        });
+        
+        assertEquals(List.of("0", "01", "013", "02", "024"), paths);
+    }
+    
+    @Test
+    public void testDeepChain() {
+        int n = 100_000;
+        int[] pred = new int[n];
+        for (int v = 0; v < n; v++) {
+            pred[v] = v - 1;
+        }
+        PathTree tree = new PathTree(pred, 0);
+        
+        assertEquals(n - 1, tree.getDepth(n - 1));
+        int[] visits = new int[1];
+        tree.forEachPath((v, path, length) -> visits[0] += path[length - 1] == v ? 1 : 0);
+        assertEquals(n, visits[0]);
+        
+        PathTree.PathIterator iterator = tree.path(n - 1);
+        int expected = 0;
+        while (iterator.hasNext()) {
+            assertEquals(expected++, iterator.nextInt());
+        }
+        assertEquals(n, expected);
+    }
+}
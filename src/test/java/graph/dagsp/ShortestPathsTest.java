@@ -1,6 +1,8 @@
 package graph.dagsp;
 
+import graph.CsrGraph;
 import graph.Graph;
+import graph.WeightModel;
 import org.junit.jupiter.api.Test;
 import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
@@ -139,7 +141,105 @@ public class ShortestPathsTest {
             assertEquals(i, path.get(i));
         }
     }
+    
+    @Test
+    public void testCriticalPathSchedule() {
+        Graph graph = new Graph(6, true);
+        graph.addEdge(0, 1, 3);
+        graph.addEdge(0, 2, 2);
+        graph.addEdge(1, 3, 4);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 2);
+        graph.addEdge(4, 5, 3);
+        
+        ShortestPaths sp = new ShortestPaths(graph);
+        ShortestPaths.CriticalPathResult result = sp.findCriticalPath();
+        
+        assertEquals(12, result.length);
+        assertEquals(List.of(0, 1, 3, 4, 5), result.path);
+        assertArrayEquals(new int[] {0, 3, 2, 7, 9, 12}, result.earliestStart);
+        assertArrayEquals(new int[] {0, 3, 6, 7, 9, 12}, result.latestStart);
+        assertArrayEquals(new int[] {0, 0, 4, 0, 0, 0}, result.slack);
+        assertFalse(result.isCritical(2));
+    }
+    
+    @Test
+    public void testCriticalPathLongChain() {
+        int n = 100_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, true, n);
+        for (int v = 0; v + 1 < n; v++) {
+            builder.addEdge(v, v + 1, 2);
+        }
+        
+        ShortestPaths.CriticalPathResult result = new ShortestPaths(builder.build()).findCriticalPath();
+        
+        assertEquals(2 * (n - 1), result.length);
+        assertEquals(n, result.path.size());
+    }
+    
+    @Test
+    public void testCriticalPathCyclic() {
+        Graph graph = new Graph(3, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        
+        ShortestPaths.CriticalPathResult result = new ShortestPaths(graph).findCriticalPath();
+        
+        assertTrue(result.path.isEmpty());
+        assertEquals(0, result.length);
+    }
+    
+    private Graph weightedDiamond() {
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(2, 3, 1);
+        graph.setNodeWeight(0, 2);
+        graph.setNodeWeight(1, 5);
+        graph.setNodeWeight(2, 1);
+        graph.setNodeWeight(3, 3);
+        return graph;
+    }
+    
+    @Test
+    public void testNodeWeightedPaths() {
+        ShortestPaths sp = new ShortestPaths(weightedDiamond(), WeightModel.NODE);
+        
+        ShortestPaths.PathResult shortest = sp.shortestPaths(0);
+        assertArrayEquals(new int[] {2, 7, 3, 6}, shortest.distances);
+        assertEquals(List.of(0, 2, 3), sp.reconstructPath(shortest.predecessors, 0, 3));
+        
+        ShortestPaths.PathResult longest = sp.longestPaths(0);
+        assertArrayEquals(new int[] {2, 7, 3, 10}, longest.distances);
+        assertEquals(List.of(0, 1, 3), sp.reconstructPath(longest.predecessors, 0, 3));
+    }
+    
+    @Test
+    public void testMixedWeightedPaths() {
+        ShortestPaths sp = new ShortestPaths(weightedDiamond(), WeightModel.MIXED);
+        
+        assertArrayEquals(new int[] {2, 8, 4, 8}, sp.shortestPaths(0).distances);
+        assertArrayEquals(new int[] {2, 8, 4, 12}, sp.longestPaths(0).distances);
+    }
+    
+    @Test
+    public void testEdgeModelIgnoresNodeWeights() {
+        ShortestPaths sp = new ShortestPaths(weightedDiamond(), WeightModel.EDGE);
+        
+        assertArrayEquals(new int[] {0, 1, 1, 2}, sp.shortestPaths(0).distances);
+        assertEquals(2, sp.findCriticalPath().length);
+    }
+    
+    @Test
+    public void testCriticalPathNodeDurations() {
+        ShortestPaths.CriticalPathResult result = new ShortestPaths(weightedDiamond(), WeightModel.NODE).findCriticalPath();
+        
+        assertEquals(10, result.length);
+        assertEquals(List.of(0, 1, 3), result.path);
+        assertArrayEquals(new int[] {0, 2, 2, 7}, result.earliestStart);
+        assertArrayEquals(new int[] {0, 2, 6, 7}, result.latestStart);
+        assertArrayEquals(new int[] {0, 0, 4, 0}, result.slack);
+    }
 }
-
-
-
@@ -0,0 +1,136 @@
+package graph.dagsp;
+
+import graph.Graph;
+import graph.WeightModel;
+import metrics.MetricsImpl;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopKPathsTest {
+    
+    // two sources {0, 1}, one sink 4: 0-2-4 = 9, 0-3-4 = 7, 1-2-4 = 6, 1-3-4 = 3
+    private Graph twoLayers() {
+        Graph graph = new Graph(5, true);
+        graph.addEdge(0, 2, 4);
+        graph.addEdge(0, 3, 5);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(1, 3, 1);
+        graph.addEdge(2, 4, 5);
+        graph.addEdge(3, 4, 2);
+        return graph;
+    }
+    
+    private void enumerate(Graph graph, int u, int length, List<Integer> lengths) {
+        if (graph.getOutDegree(u) == 0) {
+            lengths.add(length);
+        }
+        for (int i = 0; i < graph.getOutDegree(u); i++) {
+            enumerate(graph, graph.getNeighbor(u, i), length + graph.getNeighborWeight(u, i), lengths);
+        }
+    }
+    
+    private int pathLength(Graph graph, List<Integer> path) {
+        int length = 0;
+        for (int p = 0; p + 1 < path.size(); p++) {
+            int u = path.get(p);
+            int best = Integer.MIN_VALUE;
+            for (int i = 0; i < graph.getOutDegree(u); i++) {
+                if (graph.getNeighbor(u, i) == path.get(p + 1)) {
+                    best = Math.max(best, graph.getNeighborWeight(u, i));
+                }
+            }
+            assertNotEquals(Integer.MIN_VALUE, best, "not an edge: " + path);
+            length += best;
+        }
+        return length;
+    }
+    
+    @Test
+    public void testOrderedPaths() {
+        TopKPaths.Result result = new TopKPaths(twoLayers(), 3).findLongestPaths();
+        
+        assertEquals(3, result.size());
+        assertArrayEquals(new int[] {9, 7, 6}, result.lengths);
+        assertEquals(List.of(0, 2, 4), result.getPath(0));
+        assertEquals(List.of(0, 3, 4), result.getPath(1));
+        assertEquals(List.of(1, 2, 4), result.getPath(2));
+    }
+    
+    @Test
+    public void testFewerPathsThanK() {
+        TopKPaths.Result result = new TopKPaths(twoLayers(), 10).findLongestPaths();
+        
+        assertArrayEquals(new int[] {9, 7, 6, 3}, result.lengths);
+        assertEquals(List.of(1, 3, 4), result.getPath(3));
+    }
+    
+    @Test
+    public void testMatchesEnumerationOnRandomDags() {
+        Random random = new Random(11);
+        for (int round = 0; round < 30; round++) {
+            int n = 2 + random.nextInt(12);
+            Graph graph = new Graph(n, true);
+            for (int u = 0; u < n; u++) {
+                for (int v = u + 1; v < n; v++) {
+                    if (random.nextInt(3) == 0) {
+                        graph.addEdge(u, v, random.nextInt(10));
+                    }
+                }
+            }
+            List<Integer> all = new ArrayList<>();
+            for (int u = 0; u < n; u++) {
+                boolean source = true;
+                for (int w = 0; w < n; w++) {
+                    for (int i = 0; i < graph.getOutDegree(w); i++) {
+                        source &= graph.getNeighbor(w, i) != u;
+                    }
+                }
+                if (source) {
+                    enumerate(graph, u, 0, all);
+                }
+            }
+            all.sort(Collections.reverseOrder());
+            
+            int k = 1 + random.nextInt(6);
+            TopKPaths.Result result = new TopKPaths(graph, k).findLongestPaths();
+            assertEquals(Math.min(k, all.size()), result.size());
+            for (int i = 0; i < result.size(); i++) {
+                assertEquals(all.get(i), result.lengths[i]);
+                assertEquals(result.lengths[i], pathLength(graph, result.getPath(i)));
+            }
+            assertEquals(new ShortestPaths(graph).findCriticalPath().length, result.lengths[0]);
+        }
+    }
+    
+    @Test
+    public void testNodeWeights() {
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 0);
+        graph.addEdge(0, 2, 0);
+        graph.addEdge(1, 3, 0);
+        graph.addEdge(2, 3, 0);
+        graph.setNodeWeight(0, 1);
+        graph.setNodeWeight(1, 5);
+        graph.setNodeWeight(2, 2);
+        graph.setNodeWeight(3, 1);
+        
+        TopKPaths.Result result = new TopKPaths(graph, 2, WeightModel.NODE, new MetricsImpl()).findLongestPaths();
+        
+        assertArrayEquals(new int[] {7, 4}, result.lengths);
+        assertEquals(List.of(0, 2, 3), result.getPath(1));
+    }
+    
+    @Test
+    public void testRejectsCycles() {
+        Graph graph = new Graph(2, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        
+        assertThrows(IllegalArgumentException.class, () -> new TopKPaths(graph, 2).findLongestPaths());
+        assertThrows(IllegalArgumentException.class, () -> new TopKPaths(graph, 0));
+    }
+}
@@ -0,0 +1,115 @@
+package graph.reach;
+
+import graph.Graph;
+import graph.GraphView;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReachabilityIndexTest {
+    
+    // {0, 1, 2} is a cycle feeding 3 -> 4; 5 -> 3; 6 is isolated
+    private Graph sample() {
+        Graph graph = new Graph(7, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(5, 3, 1);
+        return graph;
+    }
+    
+    private boolean[] bfs(GraphView graph, int source) {
+        boolean[] seen = new boolean[graph.getVertexCount()];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        seen[source] = true;
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            int u = queue.poll();
+            for (int i = 0; i < graph.getOutDegree(u); i++) {
+                int v = graph.getNeighbor(u, i);
+                if (!seen[v]) {
+                    seen[v] = true;
+                    queue.add(v);
+                }
+            }
+        }
+        return seen;
+    }
+    
+    @Test
+    public void testVertexQueries() {
+        for (ReachabilityIndex.Mode mode : new ReachabilityIndex.Mode[] {ReachabilityIndex.Mode.BITSET, ReachabilityIndex.Mode.INTERVAL}) {
+            ReachabilityIndex index = ReachabilityIndex.build(sample(), mode);
+            
+            assertTrue(index.canReach(1, 0), mode.name());
+            assertTrue(index.canReach(0, 4));
+            assertTrue(index.canReach(6, 6));
+            assertFalse(index.canReach(4, 0));
+            assertFalse(index.canReach(5, 0));
+            assertFalse(index.canReach(0, 6));
+            assertEquals(5, index.countReachable(1));
+            
+            List<Integer> dependents = new ArrayList<>();
+            index.forEachReachable(5, dependents::add);
+            Collections.sort(dependents);
+            assertEquals(List.of(3, 4, 5), dependents);
+        }
+    }
+    
+    @Test
+    public void testModesMatchTraversalOnRandomGraphs() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            int n = 1 + random.nextInt(150);
+            Graph graph = new Graph(n, true);
+            int edges = random.nextInt(3 * n);
+            for (int e = 0; e < edges; e++) {
+                graph.addEdge(random.nextInt(n), random.nextInt(n), 1);
+            }
+            ReachabilityIndex bitset = ReachabilityIndex.build(graph, ReachabilityIndex.Mode.BITSET);
+            ReachabilityIndex interval = ReachabilityIndex.build(graph, ReachabilityIndex.Mode.INTERVAL);
+            
+            for (int u = 0; u < n; u++) {
+                boolean[] expected = bfs(graph, u);
+                int count = 0;
+                for (int v = 0; v < n; v++) {
+                    assertEquals(expected[v], bitset.canReach(u, v), "bitset " + u + " -> " + v);
+                    assertEquals(expected[v], interval.canReach(u, v), "interval " + u + " -> " + v);
+                    count += expected[v] ? 1 : 0;
+                }
+                assertEquals(count, bitset.countReachable(u));
+                assertEquals(count, interval.countReachable(u));
+            }
+        }
+    }
+    
+    @Test
+    public void testIntervalsStayCompactOnTrees() {
+        int n = 10_000;
+        Graph graph = new Graph(n, true);
+        for (int v = 1; v < n; v++) {
+            graph.addEdge((v - 1) / 2, v, 1);
+        }
+        ReachabilityIndex index = ReachabilityIndex.build(graph, ReachabilityIndex.Mode.INTERVAL);
+        IntervalLabeling labels = (IntervalLabeling) index.getClosure();
+        
+        for (int c = 0; c < n; c++) {
+            assertEquals(1, labels.getIntervalCount(c));
+        }
+        assertTrue(index.canReach(0, n - 1));
+        assertFalse(index.canReach(1, 2));
+        assertEquals(n, index.countReachable(0));
+    }
+    
+    @Test
+    public void testAutoPicksBitsetForSmallGraphs() {
+        assertEquals(ReachabilityIndex.Mode.BITSET, ReachabilityIndex.build(sample(), ReachabilityIndex.Mode.AUTO).getMode());
+        assertTrue(BitsetClosure.sizeBytes(200_000) > ReachabilityIndex.AUTO_BITSET_LIMIT);
+    }
+}
@@ -0,0 +1,143 @@
+package graph.scc;
+
+import graph.CsrGraph;
+import graph.DoubleCsrGraph;
+import graph.Graph;
+import graph.LongCsrGraph;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CondensationBuilderTest {
+    
+    // {0, 1} and {2, 3} are SCCs joined by three parallel edges; 4 is a singleton sink
+    private Graph parallelEdges() {
+        Graph graph = new Graph(5, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 2, 1);
+        graph.addEdge(1, 3, 5);
+        graph.addEdge(0, 2, 7);
+        graph.addEdge(1, 2, 2);
+        graph.addEdge(3, 4, 4);
+        graph.setNodeWeight(0, 3);
+        graph.setNodeWeight(1, 4);
+        graph.setNodeWeight(2, 10);
+        return graph;
+    }
+    
+    private int weightBetween(CsrGraph dag, int from, int to) {
+        for (int e = dag.edgeStart(from); e < dag.edgeEnd(from); e++) {
+            if (dag.edgeTarget(e) == to) {
+                return dag.edgeWeight(e);
+            }
+        }
+        fail("No edge " + from + " -> " + to);
+        return 0;
+    }
+    
+    @Test
+    public void testEdgePolicies() {
+        Graph graph = parallelEdges();
+        SccResult sccs = new TarjanSCC(graph).findComponents();
+        CondensationBuilder builder = new CondensationBuilder(graph, sccs);
+        int a = sccs.getComponent(0);
+        int b = sccs.getComponent(2);
+        
+        assertEquals(2, weightBetween(builder.build(Aggregation.MIN, Aggregation.SUM), a, b));
+        assertEquals(7, weightBetween(builder.build(Aggregation.MAX, Aggregation.SUM), a, b));
+        assertEquals(14, weightBetween(builder.build(Aggregation.SUM, Aggregation.SUM), a, b));
+        assertEquals(3, weightBetween(builder.build(Aggregation.COUNT, Aggregation.SUM), a, b));
+        // vertex 0 is the lowest member, its edge 0 -> 2 comes first
+        assertEquals(7, weightBetween(builder.build(Aggregation.FIRST, Aggregation.SUM), a, b));
+    }
+    
+    @Test
+    public void testNodePolicies() {
+        Graph graph = parallelEdges();
+        SccResult sccs = new TarjanSCC(graph).findComponents();
+        CondensationBuilder builder = new CondensationBuilder(graph, sccs);
+        int a = sccs.getComponent(0);
+        
+        assertEquals(7, builder.build(Aggregation.FIRST, Aggregation.SUM).getNodeWeight(a));
+        assertEquals(4, builder.build(Aggregation.FIRST, Aggregation.MAX).getNodeWeight(a));
+        assertEquals(2, builder.build(Aggregation.FIRST, Aggregation.COUNT).getNodeWeight(a));
+    }
+    
+    @Test
+    public void testIntSumOverflowThrows() {
+        Graph graph = parallelEdges();
+        graph.addEdge(0, 3, Integer.MAX_VALUE);
+        SccResult sccs = new TarjanSCC(graph).findComponents();
+        CondensationBuilder builder = new CondensationBuilder(graph, sccs);
+        
+        assertThrows(ArithmeticException.class, () -> builder.build(Aggregation.SUM, Aggregation.SUM));
+        CsrGraph dag = builder.build(Aggregation.MAX, Aggregation.SUM);
+        assertEquals(Integer.MAX_VALUE, weightBetween(dag, sccs.getComponent(0), sccs.getComponent(2)));
+    }
+    
+    @Test
+    public void testDeduplicatedDag() {
+        Graph graph = parallelEdges();
+        CsrGraph dag = new CondensationBuilder(graph, new TarjanSCC(graph).findComponents())
+                .build(Aggregation.FIRST, Aggregation.SUM);
+        
+        assertEquals(3, dag.getVertexCount());
+        assertEquals(2, dag.getEdgeCount());
+    }
+    
+    @Test
+    public void testCondensationGraphMatchesBuilder() {
+        Graph graph = parallelEdges();
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        Graph condensation = tarjan.buildCondensationGraph();
+        CsrGraph dag = tarjan.buildCondensation(Aggregation.FIRST, Aggregation.SUM);
+        
+        assertEquals(dag.getEdgeCount(), condensation.getEdgeCount());
+        for (int c = 0; c < dag.getVertexCount(); c++) {
+            assertEquals(dag.getOutDegree(c), condensation.getOutDegree(c));
+            assertEquals(dag.getNodeWeight(c), condensation.getNodeWeight(c));
+        }
+    }
+    
+    @Test
+    public void testLongCondensationKeepsWideSums() {
+        LongCsrGraph.Builder builder = new LongCsrGraph.Builder(3, true, 4);
+        builder.addEdge(0, 1, 1);
+        builder.addEdge(1, 0, 1);
+        builder.addEdge(0, 2, 3_000_000_000L);
+        builder.addEdge(1, 2, 3_000_000_000L);
+        builder.setNodeWeight(0, 2_000_000_000L);
+        builder.setNodeWeight(1, 2_000_000_000L);
+        LongCsrGraph graph = builder.build();
+        SccResult sccs = new TarjanSCC(graph).findComponents();
+        
+        LongCsrGraph dag = new CondensationBuilder(graph, sccs).buildLong(Aggregation.SUM, Aggregation.SUM);
+        int a = sccs.getComponent(0);
+        
+        assertEquals(2, dag.getVertexCount());
+        assertEquals(1, dag.getEdgeCount());
+        assertEquals(6_000_000_000L, dag.edgeWeight(dag.edgeStart(a)));
+        assertEquals(4_000_000_000L, dag.getLongNodeWeight(a));
+    }
+    
+    @Test
+    public void testDoubleCondensation() {
+        DoubleCsrGraph.Builder builder = new DoubleCsrGraph.Builder(3, true, 4);
+        builder.addEdge(0, 1, 0.5);
+        builder.addEdge(1, 0, 0.5);
+        builder.addEdge(0, 2, 0.75);
+        builder.addEdge(1, 2, 0.25);
+        builder.setNodeWeight(0, 1.5);
+        builder.setNodeWeight(1, 2.25);
+        DoubleCsrGraph graph = builder.build();
+        SccResult sccs = new TarjanSCC(graph).findComponents();
+        CondensationBuilder condensation = new CondensationBuilder(graph, sccs);
+        int a = sccs.getComponent(0);
+        
+        DoubleCsrGraph dag = condensation.buildDouble(Aggregation.MIN, Aggregation.SUM);
+        assertEquals(0.25, dag.edgeWeight(dag.edgeStart(a)));
+        assertEquals(3.75, dag.getDoubleNodeWeight(a));
+        assertThrows(IllegalStateException.class, () -> condensation.buildLong(Aggregation.MIN, Aggregation.SUM));
+    }
+}
@@ -0,0 +1,109 @@
+package graph.scc;
+
+import graph.CsrGraph;
+import graph.Graph;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamicSCCTest {
+    
+    private void assertMatchesTarjan(DynamicSCC dynamic, Graph graph) {
+        SccResult expected = new TarjanSCC(graph).findComponents().normalized();
+        SccResult actual = dynamic.toSccResult().normalized();
+        assertEquals(expected.componentCount, actual.componentCount);
+        assertArrayEquals(expected.componentOf, actual.componentOf);
+        
+        // components are numbered in topological order, so every edge must go forward
+        CsrGraph dag = dynamic.toCondensation();
+        for (int c = 0; c < dag.getVertexCount(); c++) {
+            for (int e = dag.edgeStart(c); e < dag.edgeEnd(c); e++) {
+                assertTrue(dag.edgeTarget(e) > c);
+            }
+        }
+    }
+    
+    @Test
+    public void testCycleMergesComponents() {
+        DynamicSCC dynamic = new DynamicSCC();
+        assertEquals(0, dynamic.addEdge(0, 1).length);
+        assertEquals(0, dynamic.addEdge(1, 2).length);
+        assertEquals(0, dynamic.addEdge(2, 3).length);
+        assertEquals(4, dynamic.getComponentCount());
+        
+        int[] merged = dynamic.addEdge(2, 0);
+        
+        assertEquals(3, merged.length);
+        assertEquals(2, dynamic.getComponentCount());
+        int c = dynamic.componentOf(0);
+        assertEquals(c, dynamic.componentOf(2));
+        assertEquals(Arrays.asList(0, 1, 2), dynamic.getMembers(c));
+        assertEquals(1, dynamic.getSuccessors(c).size());
+        assertTrue(dynamic.getSuccessors(c).containsKey(dynamic.componentOf(3)));
+    }
+    
+    @Test
+    public void testBackEdgeWithoutCycleReorders() {
+        DynamicSCC dynamic = new DynamicSCC();
+        dynamic.addVertex();
+        dynamic.addVertex();
+        dynamic.addVertex();
+        
+        assertEquals(0, dynamic.addEdge(2, 0).length);
+        assertEquals(0, dynamic.addEdge(1, 2).length);
+        
+        assertEquals(3, dynamic.getComponentCount());
+        assertTrue(dynamic.getRank(1) < dynamic.getRank(2));
+        assertTrue(dynamic.getRank(2) < dynamic.getRank(0));
+    }
+    
+    @Test
+    public void testEdgeWeightsMergeWithPolicy() {
+        DynamicSCC dynamic = new DynamicSCC(Aggregation.MIN, new metrics.MetricsImpl());
+        dynamic.addEdge(0, 2, 9);
+        dynamic.addEdge(1, 2, 4);
+        dynamic.addEdge(0, 1, 1);
+        dynamic.addEdge(1, 0, 1);
+        
+        int c = dynamic.componentOf(0);
+        assertEquals(4, dynamic.getSuccessors(c).get(dynamic.componentOf(2)));
+        assertEquals(4, dynamic.getPredecessors(dynamic.componentOf(2)).get(c));
+    }
+    
+    @Test
+    public void testRandomInsertionsMatchTarjan() {
+        Random random = new Random(7);
+        int n = 400;
+        Graph graph = new Graph(n, true);
+        for (int i = 0; i < 200; i++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), 1);
+        }
+        DynamicSCC dynamic = new DynamicSCC(graph);
+        assertMatchesTarjan(dynamic, graph);
+        
+        for (int i = 1; i <= 600; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            graph.addEdge(u, v, 1);
+            dynamic.addEdge(u, v);
+            if (i % 50 == 0) {
+                assertMatchesTarjan(dynamic, graph);
+            }
+        }
+    }
+    
+    @Test
+    public void testNewVerticesFromEdges() {
+        Graph graph = new Graph(2, true);
+        graph.addEdge(0, 1, 1);
+        DynamicSCC dynamic = new DynamicSCC(graph);
+        
+        dynamic.addEdge(1, 40);
+        dynamic.addEdge(40, 0);
+        
+        assertEquals(41, dynamic.getVertexCount());
+        assertEquals(39, dynamic.getComponentCount());
+        assertEquals(3, dynamic.getComponentSize(dynamic.componentOf(40)));
+    }
+}
@@ -0,0 +1,115 @@
+package graph.scc;
+
+import graph.CsrGraph;
+import graph.Graph;
+import metrics.Counter;
+import metrics.MetricsImpl;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelSCCTest {
+    
+    private CsrGraph randomGraph(int n, int edges, long seed) {
+        Random random = new Random(seed);
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, true, edges);
+        for (int i = 0; i < edges; i++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n), 1);
+        }
+        return builder.build();
+    }
+    
+    private void assertSamePartition(CsrGraph graph, ForkJoinPool pool) {
+        SccResult expected = new TarjanSCC(graph).findComponents().normalized();
+        SccResult actual = new ParallelSCC(graph, pool).findComponents();
+        
+        assertEquals(expected.componentCount, actual.componentCount);
+        assertArrayEquals(expected.componentOf, actual.componentOf);
+        assertArrayEquals(expected.members, actual.members);
+    }
+    
+    @Test
+    public void testSmallGraph() {
+        Graph graph = new Graph(8, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(4, 5, 1);
+        graph.addEdge(5, 3, 1);
+        graph.addEdge(6, 7, 1);
+        
+        SccResult result = new ParallelSCC(graph).findComponents();
+        
+        assertEquals(4, result.componentCount);
+        assertEquals(0, result.getComponent(2));
+        assertEquals(1, result.getComponent(5));
+        assertEquals(2, result.getComponent(6));
+        assertEquals(3, result.getComponent(7));
+    }
+    
+    @Test
+    public void testMatchesTarjanOnRandomGraphs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // sparse graphs have many small SCCs, denser ones a giant component
+            assertSamePartition(randomGraph(20_000, 18_000, 1), pool);
+            assertSamePartition(randomGraph(20_000, 30_000, 2), pool);
+            assertSamePartition(randomGraph(50_000, 150_000, 3), pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testLongChainsAndCycles() {
+        int n = 30_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, true, n);
+        for (int v = n - 1; v > 0; v--) {
+            builder.addEdge(v, v - 1, 1);
+        }
+        for (int v = 0; v + 100 < n; v += 100) {
+            builder.addEdge(v, v + 99, 1);
+        }
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertSamePartition(builder.build(), pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testChainOfTwoCycles() {
+        // trim removes nothing and each coloring round settles only the highest 2-cycle
+        int n = 32_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, true, 2 * n);
+        for (int i = 0; 2 * i + 1 < n; i++) {
+            builder.addEdge(2 * i, 2 * i + 1, 1);
+            builder.addEdge(2 * i + 1, 2 * i, 1);
+            if (i > 0) {
+                builder.addEdge(2 * i, 2 * i - 1, 1);
+            }
+        }
+        CsrGraph graph = builder.build();
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            assertSamePartition(graph, pool);
+            MetricsImpl metrics = new MetricsImpl();
+            new ParallelSCC(graph, pool, metrics).findComponents();
+            assertTrue(metrics.getCount(Counter.ROUNDS) <= 2, "rounds: " + metrics.getCount(Counter.ROUNDS));
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testEmptyGraph() {
+        SccResult result = new ParallelSCC(new Graph(0, true)).findComponents();
+        assertEquals(0, result.componentCount);
+    }
+}
@@ -1,5 +1,6 @@
 package graph.scc;
 
+import graph.CsrGraph;
 import graph.Graph;
 import org.junit.jupiter.api.Test;
 import java.util.List;
@@ -112,11 +113,46 @@ public class TarjanSCCTest {
         boolean hasNonTrivialSCC = sccs.stream().anyMatch(scc -> scc.size() > 1);
         assertTrue(hasNonTrivialSCC);
     }
+    
+    @Test
+    public void testComponentAssignment() {
+        Graph graph = new Graph(5, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 0, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(4, 3, 1);
+        
+        TarjanSCC tarjan = new TarjanSCC(graph);
+        SccResult result = tarjan.findComponents();
+        
+        assertEquals(2, result.componentCount);
+        assertEquals(result.getComponent(0), result.getComponent(1));
+        assertEquals(result.getComponent(0), result.getComponent(2));
+        assertEquals(result.getComponent(3), result.getComponent(4));
+        assertNotEquals(result.getComponent(0), result.getComponent(3));
+        // sink component {3, 4} completes first
+        assertEquals(0, result.getComponent(3));
+        assertEquals(3, result.getComponentSize(1));
+        assertEquals(2, result.getMembers(0).size());
+    }
+    
+    @Test
+    public void testDeepChainDoesNotOverflow() {
+        int n = 1_000_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, true, n);
+        for (int v = 0; v + 1 < n; v++) {
+            builder.addEdge(v, v + 1, 1);
+        }
+        
+        SccResult chain = new TarjanSCC(builder.build()).findComponents();
+        assertEquals(n, chain.componentCount);
+        assertEquals(0, chain.getComponent(n - 1));
+        
+        builder.addEdge(n - 1, 0, 1);
+        SccResult cycle = new TarjanSCC(builder.build()).findComponents();
+        assertEquals(1, cycle.componentCount);
+        assertEquals(n, cycle.getComponentSize(0));
+    }
 }
-
-
-
-
-
-
-
@@ -0,0 +1,124 @@
+package graph.scope;
+
+import graph.CsrGraph;
+import graph.Graph;
+import graph.WeightModel;
+import graph.dagsp.ShortestPaths;
+import graph.scc.Aggregation;
+import graph.scc.SccResult;
+import graph.scc.TarjanSCC;
+import metrics.Counter;
+import metrics.MetricsImpl;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScopedAnalysisTest {
+    
+    // 0 -> {1, 2} with 1 <-> 2 a cycle, 2 -> 3, 0 -> 4 (dead end); 5.. is a large unreachable chain into 3
+    private Graph sample(int unreachable) {
+        Graph graph = new Graph(5 + unreachable, true);
+        graph.addEdge(0, 1, 2);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 1, 1);
+        graph.addEdge(0, 2, 5);
+        graph.addEdge(2, 3, 3);
+        graph.addEdge(0, 4, 1);
+        for (int v = 5; v + 1 < 5 + unreachable; v++) {
+            graph.addEdge(v, v + 1, 1);
+        }
+        graph.addEdge(5 + unreachable - 1, 3, 1);
+        return graph;
+    }
+    
+    @Test
+    public void testFromSourceTouchesOnlyReachableRegion() {
+        MetricsImpl metrics = new MetricsImpl();
+        ScopedAnalysis analysis = new ScopedAnalysis(sample(10_000), metrics);
+        
+        Scope scope = analysis.fromSource(0);
+        
+        assertEquals(5, scope.size());
+        assertTrue(scope.contains(3));
+        assertFalse(scope.contains(5));
+        assertEquals(5, metrics.getCount(Counter.VERTEX_VISITS));
+        assertEquals(6, metrics.getCount(Counter.EDGE_SCANS));
+        assertEquals(4, scope.getComponents().componentCount);
+        assertEquals(scope.getComponent(1), scope.getComponent(2));
+        List<Integer> members = new ArrayList<>(scope.getMembers(scope.getComponent(1)));
+        Collections.sort(members);
+        assertEquals(List.of(1, 2), members);
+        
+        ShortestPaths.PathResult shortest = scope.shortestPaths(WeightModel.EDGE);
+        assertEquals(5, shortest.distances[scope.getComponent(3)]);
+        // FIRST keeps 0 -> 1 (weight 2) as the edge into {1, 2}
+        ShortestPaths.PathResult longest = scope.longestPaths(WeightModel.EDGE);
+        assertEquals(5, longest.distances[scope.getComponent(3)]);
+        assertEquals(1, longest.distances[scope.getComponent(4)]);
+    }
+    
+    @Test
+    public void testBetweenPrunesVerticesThatCannotReachTarget() {
+        ScopedAnalysis analysis = new ScopedAnalysis(sample(10));
+        
+        Scope scope = analysis.between(0, 3);
+        
+        assertEquals(4, scope.size());
+        assertFalse(scope.contains(4));
+        assertEquals(0, scope.getVertex(scope.localOf(0)));
+        assertEquals(5, scope.shortestPaths(WeightModel.EDGE).distances[scope.getComponent(3)]);
+        
+        assertTrue(analysis.between(3, 0).isEmpty());
+        assertThrows(IllegalStateException.class, () -> analysis.between(4, 3).shortestPaths(WeightModel.EDGE));
+        // the workspace was reset, so a later query sees the whole region again
+        assertEquals(5, analysis.fromSource(0).size());
+        assertEquals(List.of(3), analysis.between(3, 3).getMembers(0));
+    }
+    
+    @Test
+    public void testInvalidVerticesLeaveWorkspaceIntact() {
+        ScopedAnalysis analysis = new ScopedAnalysis(sample(10));
+        
+        assertThrows(IllegalArgumentException.class, () -> analysis.between(0, 99));
+        assertThrows(IllegalArgumentException.class, () -> analysis.between(-1, 3));
+        assertThrows(IllegalArgumentException.class, () -> analysis.fromSource(15));
+        
+        assertEquals(5, analysis.fromSource(0).size());
+        assertEquals(4, analysis.between(0, 3).size());
+    }
+    
+    @Test
+    public void testMatchesWholeGraphPipeline() {
+        Random random = new Random(3);
+        for (int round = 0; round < 20; round++) {
+            int n = 2 + random.nextInt(60);
+            Graph graph = new Graph(n, true);
+            for (int e = 0; e < 2 * n; e++) {
+                graph.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(10));
+            }
+            TarjanSCC tarjan = new TarjanSCC(graph);
+            SccResult components = tarjan.findComponents();
+            CsrGraph condensation = tarjan.buildCondensation(Aggregation.FIRST, Aggregation.SUM);
+            ScopedAnalysis analysis = new ScopedAnalysis(graph);
+            
+            for (int s = 0; s < n; s += 7) {
+                ShortestPaths.PathResult full = new ShortestPaths(condensation).longestPaths(components.getComponent(s));
+                Scope scope = analysis.fromSource(s);
+                ShortestPaths.PathResult scoped = scope.longestPaths(WeightModel.EDGE);
+                
+                for (int t = 0; t < n; t++) {
+                    int expected = full.distances[components.getComponent(t)];
+                    assertEquals(expected != -ShortestPaths.INF, scope.contains(t));
+                    if (scope.contains(t)) {
+                        assertEquals(expected, scoped.distances[scope.getComponent(t)]);
+                        Scope narrowed = analysis.between(s, t);
+                        assertEquals(expected, narrowed.longestPaths(WeightModel.EDGE).distances[narrowed.getComponent(t)]);
+                    }
+                }
+            }
+        }
+    }
+}
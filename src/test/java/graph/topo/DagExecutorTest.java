@@ -0,0 +1,92 @@
+package graph.topo;
+
+import graph.Graph;
+import org.junit.jupiter.api.Test;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DagExecutorTest {
+    
+    // two independent chains 0 -> 1 -> 2 and 3 -> 4, joined at 5
+    private Graph twoChains() {
+        Graph graph = new Graph(6, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(3, 4, 1);
+        graph.addEdge(2, 5, 1);
+        graph.addEdge(4, 5, 1);
+        return graph;
+    }
+    
+    @Test
+    public void testRunsAfterPredecessors() throws InterruptedException {
+        Graph graph = twoChains();
+        DagExecutor.ExecutionResult result = new DagExecutor(graph, 4).execute(v -> Thread.sleep(5));
+        
+        assertTrue(result.isSuccessful());
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            assertTrue(result.getDurationNs(u) > 0);
+            for (int i = 0; i < graph.getOutDegree(u); i++) {
+                assertTrue(result.startNs[graph.getNeighbor(u, i)] >= result.endNs[u]);
+            }
+        }
+    }
+    
+    @Test
+    public void testConcurrencyLimit() throws InterruptedException {
+        Graph graph = new Graph(12, true);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        
+        DagExecutor.ExecutionResult result = new DagExecutor(graph, 3).execute(v -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(10);
+            running.decrementAndGet();
+        });
+        
+        assertTrue(result.isSuccessful());
+        assertTrue(peak.get() <= 3);
+        assertTrue(peak.get() > 1);
+    }
+    
+    @Test
+    public void testFailureSkipsDependents() throws InterruptedException {
+        DagExecutor.ExecutionResult result = new DagExecutor(twoChains(), 2).execute(v -> {
+            if (v == 1) {
+                throw new IllegalStateException("task 1 failed");
+            }
+        });
+        
+        assertFalse(result.isSuccessful());
+        assertEquals(Arrays.asList(1), result.getVertices(DagExecutor.Status.FAILED));
+        assertEquals(Arrays.asList(2, 5), result.getVertices(DagExecutor.Status.SKIPPED));
+        assertEquals(Arrays.asList(0, 3, 4), result.getVertices(DagExecutor.Status.SUCCEEDED));
+        assertEquals("task 1 failed", result.errors[1].getMessage());
+    }
+    
+    @Test
+    public void testLongSkippedChain() throws InterruptedException {
+        int n = 100_000;
+        Graph graph = new Graph(n, true);
+        for (int v = 0; v + 1 < n; v++) {
+            graph.addEdge(v, v + 1, 1);
+        }
+        DagExecutor.ExecutionResult result = new DagExecutor(graph, 2).execute(v -> {
+            if (v == 0) {
+                throw new Exception("root failed");
+            }
+        });
+        
+        assertEquals(n - 1, result.getVertices(DagExecutor.Status.SKIPPED).size());
+    }
+    
+    @Test
+    public void testCycleRejected() {
+        Graph graph = new Graph(2, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        
+        assertThrows(IllegalArgumentException.class, () -> new DagExecutor(graph, 2).execute(v -> { }));
+    }
+}
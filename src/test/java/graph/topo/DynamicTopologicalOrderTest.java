@@ -0,0 +1,96 @@
+package graph.topo;
+
+import graph.Graph;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DynamicTopologicalOrderTest {
+    
+    private void assertValidOrder(DynamicTopologicalOrder order, Graph graph) {
+        for (int u = 0; u < graph.getVertexCount(); u++) {
+            assertEquals(u, order.vertexAt(order.getRank(u)));
+            for (int i = 0; i < graph.getOutDegree(u); i++) {
+                assertTrue(order.getRank(u) < order.getRank(graph.getNeighbor(u, i)));
+            }
+        }
+    }
+    
+    @Test
+    public void testReordersOnBackEdge() {
+        DynamicTopologicalOrder order = new DynamicTopologicalOrder();
+        assertTrue(order.addEdge(2, 3));
+        assertTrue(order.addEdge(3, 0));
+        assertTrue(order.addEdge(1, 2));
+        
+        List<Integer> current = order.getOrder();
+        assertEquals(4, current.size());
+        assertTrue(current.indexOf(1) < current.indexOf(2));
+        assertTrue(current.indexOf(2) < current.indexOf(3));
+        assertTrue(current.indexOf(3) < current.indexOf(0));
+    }
+    
+    @Test
+    public void testRejectsCycle() {
+        DynamicTopologicalOrder order = new DynamicTopologicalOrder();
+        order.addEdge(0, 1);
+        order.addEdge(1, 2);
+        
+        assertTrue(order.wouldCreateCycle(2, 0));
+        assertFalse(order.wouldCreateCycle(0, 2));
+        assertFalse(order.addEdge(2, 0));
+        assertFalse(order.addEdge(1, 1));
+        // the query agrees with addEdge on vertices that do not exist yet
+        assertTrue(order.wouldCreateCycle(7, 7));
+        assertFalse(order.addEdge(7, 7));
+        assertEquals(3, order.getVertexCount());
+        assertThrows(IllegalArgumentException.class, () -> order.wouldCreateCycle(-1, 0));
+        
+        // the rejected edge left the order untouched
+        assertEquals(0, order.getRank(0));
+        assertEquals(2, order.getRank(2));
+    }
+    
+    @Test
+    public void testCyclicGraphRejected() {
+        Graph graph = new Graph(2, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 0, 1);
+        
+        assertThrows(IllegalArgumentException.class, () -> new DynamicTopologicalOrder(graph));
+    }
+    
+    @Test
+    public void testRandomInsertionsMatchIsDAG() {
+        Random random = new Random(11);
+        int n = 300;
+        Graph graph = new Graph(n, true);
+        DynamicTopologicalOrder order = new DynamicTopologicalOrder(graph);
+        
+        for (int i = 0; i < 1500; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            Graph candidate = copyWith(graph, u, v);
+            boolean acyclic = new TopologicalSort(candidate).isDAG();
+            
+            assertEquals(!acyclic, order.wouldCreateCycle(u, v));
+            assertEquals(acyclic, order.addEdge(u, v));
+            if (acyclic) {
+                graph = candidate;
+            }
+        }
+        assertValidOrder(order, graph);
+    }
+    
+    private Graph copyWith(Graph graph, int u, int v) {
+        Graph copy = new Graph(graph.getVertexCount(), true);
+        for (int x = 0; x < graph.getVertexCount(); x++) {
+            for (int i = 0; i < graph.getOutDegree(x); i++) {
+                copy.addEdge(x, graph.getNeighbor(x, i), 1);
+            }
+        }
+        copy.addEdge(u, v, 1);
+        return copy;
+    }
+}
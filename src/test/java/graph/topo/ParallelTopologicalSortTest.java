@@ -0,0 +1,80 @@
+package graph.topo;
+
+import graph.CsrGraph;
+import graph.Graph;
+import org.junit.jupiter.api.Test;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelTopologicalSortTest {
+    
+    @Test
+    public void testLevels() {
+        Graph graph = new Graph(6, true);
+        graph.addEdge(0, 2, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(0, 4, 1);
+        graph.addEdge(4, 3, 1);
+        
+        ParallelTopologicalSort.LevelResult result = new ParallelTopologicalSort(graph).sort();
+        
+        assertTrue(result.isAcyclic());
+        assertEquals(3, result.getLevelCount());
+        assertArrayEquals(new int[]{0, 1, 5}, result.getLevel(0));
+        assertArrayEquals(new int[]{2, 4}, result.getLevel(1));
+        assertArrayEquals(new int[]{3}, result.getLevel(2));
+        assertArrayEquals(new int[]{0, 0, 1, 2, 1, 0}, result.levelOf);
+        assertEquals(3, result.getMaxWidth());
+    }
+    
+    @Test
+    public void testWideRandomDag() {
+        Random random = new Random(3);
+        int n = 50_000;
+        CsrGraph.Builder builder = new CsrGraph.Builder(n, true, 4 * n);
+        for (int i = 0; i < 4 * n; i++) {
+            int u = random.nextInt(n - 1);
+            builder.addEdge(u, u + 1 + random.nextInt(Math.min(5000, n - u - 1)), 1);
+        }
+        CsrGraph dag = builder.build();
+        
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            ParallelTopologicalSort.LevelResult result = new ParallelTopologicalSort(dag, pool).sort();
+            
+            assertTrue(result.isAcyclic());
+            int[] position = new int[n];
+            for (int p = 0; p < n; p++) {
+                position[result.order[p]] = p;
+            }
+            for (int u = 0; u < n; u++) {
+                for (int e = dag.edgeStart(u); e < dag.edgeEnd(u); e++) {
+                    int v = dag.edgeTarget(e);
+                    assertTrue(position[u] < position[v]);
+                    assertTrue(result.levelOf[u] < result.levelOf[v]);
+                }
+            }
+            // same input, same order regardless of scheduling
+            assertArrayEquals(result.order, new ParallelTopologicalSort(dag, pool).sort().order);
+        } finally {
+            pool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testCycleStopsOrder() {
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 1, 1);
+        graph.addEdge(2, 3, 1);
+        
+        ParallelTopologicalSort.LevelResult result = new ParallelTopologicalSort(graph).sort();
+        
+        assertFalse(result.isAcyclic());
+        assertArrayEquals(new int[]{0}, result.order);
+        assertEquals(-1, result.levelOf[3]);
+    }
+}
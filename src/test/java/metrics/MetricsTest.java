@@ -0,0 +1,78 @@
+package metrics;
+
+import graph.Graph;
+import graph.dagsp.ShortestPaths;
+import graph.scc.TarjanSCC;
+import graph.topo.TopologicalSort;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsTest {
+    
+    private Graph chain() {
+        Graph graph = new Graph(4, true);
+        graph.addEdge(0, 1, 1);
+        graph.addEdge(1, 2, 1);
+        graph.addEdge(2, 3, 1);
+        graph.addEdge(0, 3, 5);
+        return graph;
+    }
+    
+    @Test
+    public void testPerPhaseCounters() {
+        DetailedMetrics metrics = new DetailedMetrics();
+        new TarjanSCC(chain(), metrics).findComponents();
+        
+        assertEquals(4, metrics.getCount(Counter.VERTEX_VISITS));
+        assertEquals(4, metrics.getCount(Counter.EDGE_SCANS));
+        assertEquals(8, metrics.getOperationsCount());
+    }
+    
+    @Test
+    public void testKahnCounters() {
+        MetricsImpl metrics = new MetricsImpl();
+        new TopologicalSort(chain(), metrics).kahnSort();
+        
+        assertEquals(4, metrics.getCount(Counter.PUSHES));
+        assertEquals(4, metrics.getCount(Counter.POPS));
+        // in-degree pass plus processing pass
+        assertEquals(8, metrics.getCount(Counter.EDGE_SCANS));
+        assertEquals(16, metrics.getOperationsCount());
+    }
+    
+    @Test
+    public void testNoOpRecordsNothing() {
+        ShortestPaths sp = new ShortestPaths(chain(), NoOpMetrics.INSTANCE);
+        sp.shortestPaths(0);
+        
+        assertEquals(0, sp.getMetrics().getOperationsCount());
+        assertEquals(0, sp.getMetrics().getCount(Counter.RELAXATIONS));
+    }
+    
+    @Test
+    public void testConcurrentUpdates() throws InterruptedException {
+        DetailedMetrics metrics = new DetailedMetrics();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    metrics.increment(Counter.RELAXATIONS);
+                    metrics.incrementOperations();
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        assertEquals(400_000, metrics.getCount(Counter.RELAXATIONS));
+        assertEquals(800_000, metrics.getOperationsCount());
+        
+        metrics.reset();
+        assertEquals(0, metrics.getOperationsCount());
+    }
+}
@@ -0,0 +1,187 @@
+package server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import graph.dagsp.ShortestPaths;
+import metrics.NoOpMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QueryServerTest {
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private QueryServer server;
+    private RegisteredGraph graph;
+    
+    @BeforeEach
+    public void setUp() throws Exception {
+        GraphRegistry registry = new GraphRegistry();
+        graph = registry.load(null, Path.of("data/medium_sccs.json"));
+        server = new QueryServer(registry, Path.of("data"), 0, 4);
+        server.start();
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+    
+    private HttpResponse<String> send(String method, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+            .method(method, HttpRequest.BodyPublishers.noBody())
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+    
+    private JsonNode get(String path) throws Exception {
+        HttpResponse<String> response = send("GET", path);
+        assertEquals(200, response.statusCode(), response.body());
+        return mapper.readTree(response.body());
+    }
+    
+    @Test
+    public void testListAndLoad() throws Exception {
+        JsonNode graphs = get("/graphs").get("graphs");
+        assertEquals(1, graphs.size());
+        assertEquals("medium_sccs", graphs.get(0).get("name").asText());
+        assertEquals(graph.getComponentCount(), graphs.get(0).get("scc_count").asInt());
+        
+        HttpResponse<String> loaded = send("POST", "/graphs?file=small_dag.json&name=dag");
+        assertEquals(200, loaded.statusCode(), loaded.body());
+        assertEquals("dag", mapper.readTree(loaded.body()).get("name").asText());
+        assertEquals(2, get("/graphs").get("graphs").size());
+    }
+    
+    @Test
+    public void testSccAndTopo() throws Exception {
+        JsonNode scc = get("/scc?graph=medium_sccs");
+        assertEquals(graph.getComponentCount(), scc.get("count").asInt());
+        int members = 0;
+        for (JsonNode component : scc.get("components")) {
+            int c = graph.componentOf(component.get(0).asInt());
+            for (JsonNode v : component) {
+                assertEquals(c, graph.componentOf(v.asInt()));
+                members++;
+            }
+        }
+        assertEquals(graph.analysis.vertexCount, members);
+        
+        JsonNode order = get("/topo?graph=medium_sccs").get("order");
+        assertEquals(graph.analysis.topologicalOrder.length, order.size());
+        for (int i = 0; i < order.size(); i++) {
+            assertEquals(graph.analysis.topologicalOrder[i], order.get(i).asInt());
+        }
+    }
+    
+    @Test
+    public void testPathsMatchShortestPaths() throws Exception {
+        ShortestPaths reference = new ShortestPaths(graph.analysis.condensation, graph.analysis.weightModel, NoOpMetrics.INSTANCE);
+        int source = 0;
+        int sourceComponent = graph.componentOf(source);
+        ShortestPaths.PathResult shortest = reference.shortestPaths(sourceComponent);
+        ShortestPaths.PathResult longest = reference.longestPaths(sourceComponent);
+        
+        JsonNode distances = get("/shortest?graph=medium_sccs&source=0").get("distances");
+        JsonNode longDistances = get("/longest?graph=medium_sccs&source=0").get("distances");
+        for (int c = 0; c < graph.getComponentCount(); c++) {
+            if (shortest.distances[c] == ShortestPaths.INF) {
+                assertTrue(distances.get(c).isNull());
+                assertTrue(longDistances.get(c).isNull());
+            } else {
+                assertEquals(shortest.distances[c], distances.get(c).asInt());
+                assertEquals(longest.distances[c], longDistances.get(c).asInt());
+            }
+        }
+        
+        for (int target = 0; target < graph.analysis.vertexCount; target++) {
+            JsonNode answer = get("/longest?graph=medium_sccs&source=0&target=" + target);
+            int targetComponent = graph.componentOf(target);
+            JsonNode path = answer.get("path");
+            if (longest.distances[targetComponent] == -ShortestPaths.INF) {
+                assertTrue(answer.get("distance").isNull());
+                assertEquals(0, path.size());
+            } else {
+                assertEquals(longest.distances[targetComponent], answer.get("distance").asInt());
+                assertEquals(sourceComponent, path.get(0).asInt());
+                assertEquals(targetComponent, path.get(path.size() - 1).asInt());
+            }
+        }
+    }
+    
+    @Test
+    public void testCritical() throws Exception {
+        JsonNode critical = get("/critical?graph=medium_sccs");
+        assertEquals(graph.analysis.criticalPath.length, critical.get("length").asInt());
+        assertEquals(graph.analysis.criticalPath.path.size(), critical.get("path").size());
+    }
+    
+    @Test
+    public void testConcurrentQueries() throws Exception {
+        String expected = send("GET", "/shortest?graph=medium_sccs&source=0").body();
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            String path = i % 2 == 0 ? "/shortest?graph=medium_sccs&source=0" : "/scc?graph=medium_sccs";
+            HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path)).build();
+            responses.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        for (int i = 0; i < responses.size(); i++) {
+            HttpResponse<String> response = responses.get(i).get();
+            assertEquals(200, response.statusCode());
+            if (i % 2 == 0) {
+                assertEquals(expected, response.body());
+            }
+        }
+    }
+    
+    @Test
+    public void testOnlyLocalClientsAndRootFiles() throws Exception {
+        assertEquals(403, send("POST", "/graphs?file=../pom.xml").statusCode());
+        assertEquals(403, send("POST", "/graphs?file=" + Path.of("pom.xml").toAbsolutePath()).statusCode());
+        assertEquals(1, get("/graphs").get("graphs").size());
+        
+        HttpRequest crossSite = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + "/graphs?file=small_dag.json"))
+            .header("Origin", "http://example.com")
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build();
+        assertEquals(403, client.send(crossSite, HttpResponse.BodyHandlers.ofString()).statusCode());
+        
+        // HttpClient does not let the Host header be overridden, so write the request by hand
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort())) {
+            OutputStream out = socket.getOutputStream();
+            out.write("GET /graphs HTTP/1.1\r\nHost: attacker.example:8080\r\nConnection: close\r\n\r\n"
+                .getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+            String status = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII)).readLine();
+            assertTrue(status.contains(" 403 "), status);
+        }
+    }
+    
+    @Test
+    public void testErrors() throws Exception {
+        assertEquals(404, send("GET", "/scc?graph=missing").statusCode());
+        assertEquals(400, send("GET", "/shortest?graph=medium_sccs").statusCode());
+        assertEquals(400, send("GET", "/shortest?graph=medium_sccs&source=x").statusCode());
+        assertEquals(400, send("GET", "/shortest?graph=medium_sccs&source=100000").statusCode());
+        assertEquals(400, send("POST", "/graphs?file=missing.json").statusCode());
+        assertEquals(405, send("DELETE", "/scc?graph=medium_sccs").statusCode());
+        
+        HttpResponse<String> error = send("GET", "/scc?graph=missing");
+        assertTrue(mapper.readTree(error.body()).get("error").asText().contains("missing"));
+    }
+}